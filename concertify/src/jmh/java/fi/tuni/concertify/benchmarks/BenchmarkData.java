@@ -0,0 +1,101 @@
+package fi.tuni.concertify.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Random;
+
+import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.models.SearchedLocation;
+import fi.tuni.concertify.models.User;
+
+/**
+ * Generates the synthetic artist and user datasets of the benchmarks. The
+ * datasets are generated from a fixed seed, so every run measures the same
+ * data.
+ */
+public class BenchmarkData {
+  public static final String DATABASE_DIR = "./database";
+  public static final String ARTIST_DB = DATABASE_DIR + "/artist.json";
+  public static final String USER_DB = DATABASE_DIR + "/user.json";
+  private static final int FAVORITE_ARTISTS_PER_USER = 10;
+  private static final int FAVORITE_EVENTS_PER_USER = 5;
+  private static final SearchedLocation[] LOCATIONS = {
+      new SearchedLocation("Helsinki", "Finland", "FI"),
+      new SearchedLocation("Tampere", "Finland", "FI"),
+      new SearchedLocation("Turku", "Finland", "FI"),
+      new SearchedLocation("Oulu", "Finland", "FI"),
+      new SearchedLocation("Stockholm", "Sweden", "SE"),
+      new SearchedLocation("Berlin", "Germany", "DE") };
+
+  private BenchmarkData() {
+  }
+
+  /**
+   * Prepares the database directory of the benchmarks in the working
+   * directory. The services read and write ./database, so the benchmarks must
+   * not run in the project directory, where they would overwrite the real
+   * data.
+   *
+   * @throws IllegalStateException If run in the project directory.
+   */
+  public static void prepareDatabase() {
+    if (new File("pom.xml").exists()) {
+      throw new IllegalStateException("The benchmarks overwrite ./database, run them with "
+          + "mvn -P benchmark compile exec:exec instead of from the project directory.");
+    }
+
+    new File(DATABASE_DIR).mkdirs();
+  }
+
+  /**
+   * Generates artists with the fields filled in like artists found on Last.fm.
+   *
+   * @param count The number of artists.
+   * @return The artists.
+   */
+  public static ArrayList<Artist> createArtists(int count) {
+    Random random = new Random(count);
+    ArrayList<Artist> artists = new ArrayList<>(count);
+
+    for (int i = 0; i < count; i++) {
+      String spotifyId = Long.toString(Math.abs(random.nextLong()), 36);
+      Artist artist = new Artist("Artist " + i, "mbid-" + i, spotifyId,
+          "https://open.spotify.com/artist/" + spotifyId, "https://i.scdn.co/image/" + spotifyId,
+          random.nextInt(5_000_000), Math.abs(random.nextLong() % 500_000_000L));
+      artist.setLastRefreshedAt(System.currentTimeMillis() - random.nextInt(Integer.MAX_VALUE));
+      artists.add(artist);
+    }
+
+    return artists;
+  }
+
+  /**
+   * Generates users with favorite artists, favorite events and recent
+   * searches. The last user is the one logged in, so finding the current user
+   * goes through all users.
+   *
+   * @param count   The number of users.
+   * @param artists The artists to pick the favorites from.
+   * @return The users.
+   */
+  public static ArrayList<User> createUsers(int count, ArrayList<Artist> artists) {
+    Random random = new Random(count);
+    ArrayList<User> users = new ArrayList<>(count);
+
+    for (int i = 0; i < count; i++) {
+      User user = new User("user" + i, "$argon2id$v=19$m=15360,t=2,p=1$" + Long.toHexString(random.nextLong()),
+          i == count - 1);
+
+      for (int j = 0; j < FAVORITE_ARTISTS_PER_USER; j++) {
+        user.getFavoriteArtists().add(artists.get(random.nextInt(artists.size())));
+      }
+      for (int j = 0; j < FAVORITE_EVENTS_PER_USER; j++) {
+        user.getFavoriteEventIds().add("vvG1event" + random.nextInt(100_000));
+      }
+      user.getRecentLocations().add(LOCATIONS[random.nextInt(LOCATIONS.length)]);
+      users.add(user);
+    }
+
+    return users;
+  }
+}
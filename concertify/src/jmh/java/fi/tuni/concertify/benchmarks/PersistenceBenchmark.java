@@ -0,0 +1,80 @@
+package fi.tuni.concertify.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.services.IOAbstractService;
+import fi.tuni.concertify.utilities.ArtistUtils;
+
+/**
+ * Measures reading and writing the artist database and indexing the artists
+ * by name, with 1k, 10k and 100k artists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+  private static final String WRITE_DB = BenchmarkData.DATABASE_DIR + "/artist-write.json";
+
+  @Param({ "1000", "10000", "100000" })
+  public int artistCount;
+
+  private final IOAbstractService service = new IOAbstractService() {
+  };
+  private ArrayList<Artist> artists;
+
+  /**
+   * Writes the artist dataset to the database.
+   */
+  @Setup
+  public void setUp() {
+    BenchmarkData.prepareDatabase();
+    artists = BenchmarkData.createArtists(artistCount);
+    service.writeToFile(BenchmarkData.ARTIST_DB, artists);
+  }
+
+  /**
+   * Reads all artists from the database.
+   *
+   * @return The artists, so the read is not optimized away.
+   */
+  @Benchmark
+  public ArrayList<Artist> readArtists() {
+    return service.readFromFile(BenchmarkData.ARTIST_DB, Artist.class);
+  }
+
+  /**
+   * Writes all artists to the database.
+   */
+  @Benchmark
+  public void writeArtists() {
+    service.writeToFile(WRITE_DB, artists);
+  }
+
+  /**
+   * Indexes all artists by name.
+   *
+   * @return The index, so it is not optimized away.
+   */
+  @Benchmark
+  public HashMap<String, Artist> getCachedArtists() {
+    return ArtistUtils.getCachedArtists(artists);
+  }
+}
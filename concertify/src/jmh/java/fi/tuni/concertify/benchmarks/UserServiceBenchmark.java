@@ -0,0 +1,70 @@
+package fi.tuni.concertify.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.models.User;
+import fi.tuni.concertify.services.UserService;
+
+/**
+ * Measures finding and updating the logged in user, which reads (and writes)
+ * the whole user database, with 10, 1k and 10k users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+  private static final int ARTIST_COUNT = 1000;
+
+  @Param({ "10", "1000", "10000" })
+  public int userCount;
+
+  private final UserService userService = new UserService();
+  private User currentUser;
+
+  /**
+   * Writes the user dataset to the database.
+   */
+  @Setup
+  public void setUp() {
+    BenchmarkData.prepareDatabase();
+    ArrayList<Artist> artists = BenchmarkData.createArtists(ARTIST_COUNT);
+    ArrayList<User> users = BenchmarkData.createUsers(userCount, artists);
+    userService.writeToFile(BenchmarkData.USER_DB, users);
+    currentUser = users.get(users.size() - 1);
+  }
+
+  /**
+   * Finds the logged in user.
+   *
+   * @return The user, so the read is not optimized away.
+   */
+  @Benchmark
+  public User getCurrentUser() {
+    return userService.getCurrentUser();
+  }
+
+  /**
+   * Saves the logged in user, rewriting the user database.
+   */
+  @Benchmark
+  public void updateCurrentUser() {
+    userService.updateCurrentUser(currentUser);
+  }
+}
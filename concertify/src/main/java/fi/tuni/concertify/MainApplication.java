@@ -1,12 +1,21 @@
 package fi.tuni.concertify;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 
+import fi.tuni.concertify.controllers.EventController;
 import fi.tuni.concertify.controllers.UserController;
+import fi.tuni.concertify.services.ArtistRefreshJob;
+import fi.tuni.concertify.services.ChartWarmupJob;
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.RequestScheduler;
+import fi.tuni.concertify.utilities.StartupTimer;
+import fi.tuni.concertify.views.ResourceRegistry;
 import fi.tuni.concertify.views.StageManager;
+import fi.tuni.concertify.views.home.NavigationManager;
 
 /**
  * The MainApplication class is the entry point for the Concertify application.
@@ -25,12 +34,65 @@ public class MainApplication extends Application {
    * @throws IOException If there is an issue loading resources for the scenes.
    */
   public void start(Stage stage) throws IOException {
+    StartupTimer.mark("start");
     StageManager.setStage(stage);
 
     UserController userController = new UserController();
-    StageManager.switchScene(userController.getInitialScene());
+    String initialScene = userController.getInitialScene();
+    StageManager.switchScene(initialScene);
+    StartupTimer.mark("scene-ready");
 
     stage.show();
+    onFirstFrame(initialScene.equals("home"));
+  }
+
+  /**
+   * Waits for the first frame to be rendered, then prints the startup timing
+   * report if CONCERTIFY_DEBUG=true. If the home page was shown, the remaining pages are warmed up in
+   * the background, unless disabled with CONCERTIFY_WARMUP=false, and the
+   * events of the user's recently searched locations are prefetched. The chart
+   * warm-up and artist refresh jobs are started if they are enabled.
+   * 
+   * @param homeShown Whether the home scene was shown at startup.
+   */
+  private void onFirstFrame(boolean homeShown) {
+    new AnimationTimer() {
+      @Override
+      public void handle(long now) {
+        stop();
+        StartupTimer.mark("first-frame");
+
+        if (AppConfig.getBoolean("CONCERTIFY_DEBUG", false)) {
+          System.out.println(StartupTimer.getReport());
+        }
+
+        if (homeShown && AppConfig.getBoolean("CONCERTIFY_WARMUP", true)) {
+          NavigationManager.warmUp();
+        }
+
+        if (homeShown) {
+          new EventController().prefetchSearchedLocations();
+        }
+
+        ChartWarmupJob.startIfEnabled();
+        ArtistRefreshJob.startIfEnabled();
+      }
+    }.start();
+  }
+
+  /**
+   * This method is called when the application exits. With
+   * CONCERTIFY_DEBUG=true, it prints the statistics of the shared UI resources,
+   * showing the image decode time and the memory saved by sharing images
+   * between components, and the queueing times of the API requests of each
+   * priority.
+   */
+  @Override
+  public void stop() {
+    if (AppConfig.getBoolean("CONCERTIFY_DEBUG", false)) {
+      System.out.println(ResourceRegistry.getStats());
+      System.out.println(RequestScheduler.getShared().getReport());
+    }
   }
 
   /**
@@ -41,6 +103,7 @@ public class MainApplication extends Application {
    * @param args Command-line arguments (not used in this application).
    */
   public static void main(String[] args) {
+    StartupTimer.mark("main");
     System.out.println("Welcome to the Concertify Application");
     launch();
   }
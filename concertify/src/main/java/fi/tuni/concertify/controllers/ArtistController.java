@@ -1,5 +1,6 @@
 package fi.tuni.concertify.controllers;
 
+import fi.tuni.concertify.services.ArtistDetailLoader;
 import fi.tuni.concertify.services.ArtistService;
 
 import java.util.ArrayList;
@@ -15,6 +16,7 @@ import javafx.scene.chart.XYChart;
  */
 public class ArtistController {
   private ArtistService artistService;
+  private ArtistDetailLoader artistDetailLoader;
   private Artist currentArtist;
 
   /**
@@ -22,6 +24,7 @@ public class ArtistController {
    */
   public ArtistController() {
     this.artistService = new ArtistService();
+    this.artistDetailLoader = new ArtistDetailLoader();
   }
 
   /**
@@ -33,6 +36,20 @@ public class ArtistController {
     this.currentArtist = artistService.getArtistByName(artistName);
   }
 
+  /**
+   * Starts loading the details of an artist concurrently. The artist becomes
+   * the currently loaded artist immediately, with its stored details, and is
+   * updated as each part of its details is loaded.
+   * 
+   * @param artistName The name of the artist to load.
+   * @return The details of the artist, with a future for each part.
+   */
+  public ArtistDetailLoader.Details loadArtistDetails(String artistName) {
+    ArtistDetailLoader.Details details = artistDetailLoader.load(artistName);
+    this.currentArtist = details.getArtist();
+    return details;
+  }
+
   /**
    * Retrieves the biography of the currently loaded artist.
    * 
@@ -147,4 +164,47 @@ public class ArtistController {
   public ArrayList<Artist> searchArtist(String text) {
     return artistService.searchArtistByKey(text);
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns how long the results of an artist search are reused before the
+   * search is run again.
+   * 
+   * @return The time in milliseconds.
+   */
+  public long getSearchTtlMillis() {
+    return ArtistService.SEARCH_CACHE_TTL;
+  }
+
+  /**
+   * Searches for artists to suggest while the user is typing, without storing
+   * them.
+   * 
+   * @param text  The search text to use for finding artists.
+   * @param limit The maximum number of artists to return.
+   * @return An ArrayList of artists matching the search text.
+   */
+  public ArrayList<Artist> suggestArtists(String text, int limit) {
+    return artistService.suggestArtists(text, limit);
+  }
+
+  /**
+   * Stores an artist chosen from the suggestions, so that its page can be
+   * opened.
+   * 
+   * @param artist The chosen artist.
+   */
+  public void saveSuggestedArtist(Artist artist) {
+    artistService.saveSuggestedArtist(artist);
+  }
+
+  /**
+   * Searches the locally cached artists without any network call.
+   * 
+   * @param text  The search text to use for finding artists.
+   * @param limit The maximum number of artists to return.
+   * @return An ArrayList of cached artists matching the search text.
+   */
+  public ArrayList<Artist> searchLocalArtists(String text, int limit) {
+    return artistService.searchLocalArtists(text, limit);
+  }
+}
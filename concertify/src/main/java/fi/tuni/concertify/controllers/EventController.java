@@ -1,9 +1,14 @@
 package fi.tuni.concertify.controllers;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import fi.tuni.concertify.models.Event;
+import fi.tuni.concertify.models.SearchedLocation;
 import fi.tuni.concertify.services.EventService;
+import fi.tuni.concertify.services.EventStore;
 
 /**
  * The EventController class manages the interactions between the application
@@ -26,6 +31,28 @@ public class EventController {
     return searchedEvents;
   }
 
+  /**
+   * Returns how long the results of an event search are reused before the
+   * search is run again.
+   * 
+   * @return The time in milliseconds.
+   */
+  public long getSearchTtlMillis() {
+    return EventStore.TTL_MILLIS;
+  }
+
+  /**
+   * Retrieves the already found events near a location, nearest first.
+   * 
+   * @param lat      The latitude of the location.
+   * @param lon      The longitude of the location.
+   * @param radiusKm The distance from the location in kilometres.
+   * @return A list of events within the distance.
+   */
+  public ArrayList<Event> getEventsNear(double lat, double lon, double radiusKm) {
+    return eventService.getEventsNear(lat, lon, radiusKm);
+  }
+
   /**
    * Retrieves a list of events related to a specific artist.
    * 
@@ -37,6 +64,21 @@ public class EventController {
     return searchedEvents;
   }
 
+  /**
+   * Retrieves the events of several artists concurrently. The events of each
+   * artist are passed to the callback, on a background thread, as soon as they
+   * have been retrieved.
+   * 
+   * @param artistNames    The names of the artists.
+   * @param onArtistEvents The callback receiving the events of each artist.
+   * @return A future completing when the events of all artists have been
+   *         retrieved.
+   */
+  public CompletableFuture<Void> getEventsRelatedToArtists(List<String> artistNames,
+      Consumer<ArrayList<Event>> onArtistEvents) {
+    return eventService.getEventsByArtists(artistNames, onArtistEvents);
+  }
+
   /**
    * Retrieves a list of the user's favorite events.
    * 
@@ -47,6 +89,16 @@ public class EventController {
     return searchedEvents;
   }
 
+  /**
+   * Retrieves the user's favorite events that have not yet started, earliest
+   * first.
+   * 
+   * @return A list of upcoming favorite events.
+   */
+  public ArrayList<Event> getUpcomingFavoriteEvents() {
+    return eventService.getUpcomingFavoriteEvents();
+  }
+
   /**
    * Adds an event to the user's list of favorite events.
    * 
@@ -68,12 +120,20 @@ public class EventController {
   /**
    * Retrieves a list of recently searched locations.
    * 
-   * @return A list of recent locations in the format of city names.
+   * @return A list of recent locations, most recent first.
    */
-  public ArrayList<String> getSearchedLocations() {
+  public ArrayList<SearchedLocation> getSearchedLocations() {
     return eventService.getRecentLocations();
   }
 
+  /**
+   * Fetches the events of the recently searched locations in the background,
+   * so they are shown without waiting when the locations are selected.
+   */
+  public void prefetchSearchedLocations() {
+    eventService.prefetchRecentLocations();
+  }
+
   /**
    * Adds a location to the list of recently searched locations.
    * 
@@ -1,9 +1,8 @@
 package fi.tuni.concertify.controllers;
 
-import fi.tuni.concertify.models.Artist;
-import fi.tuni.concertify.models.Track;
-import fi.tuni.concertify.services.ArtistService;
-import fi.tuni.concertify.services.TrackService;
+import fi.tuni.concertify.models.ChartEntry;
+import fi.tuni.concertify.services.ChartDataService;
+import fi.tuni.concertify.utilities.RevalidatingValue;
 import javafx.scene.chart.BarChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.ComboBox;
@@ -14,13 +13,18 @@ import java.util.ArrayList;
  * The EventSearchChartController class manages the display of charts showing
  * top songs or artists
  * by country based on user selection.
+ * The charts are cached by the ChartDataService, so a country that has already
+ * been shown is displayed again without refetching its chart. An expired chart
+ * is shown immediately and replaced when its refreshed copy arrives.
  */
 public class EventSearchChartController {
-  private TrackService trackService;
-  private ArtistService artistService;
+  private static final int CHART_SIZE = 10;
+
+  private ChartDataService chartDataService;
   private BarChart<String, Number> barChart;
   private ComboBox<String> entityTypeComboBox;
   private ComboBox<String> countryComboBox;
+  private RevalidatingValue<ArrayList<ChartEntry>> shownEntries;
 
   /**
    * Constructs an EventSearchChartController with the specified UI components.
@@ -33,8 +37,7 @@ public class EventSearchChartController {
   public EventSearchChartController(BarChart<String, Number> barChart,
       ComboBox<String> entityTypeComboBox,
       ComboBox<String> countryComboBox) {
-    this.trackService = new TrackService();
-    this.artistService = new ArtistService();
+    this.chartDataService = new ChartDataService();
     this.barChart = barChart;
     this.entityTypeComboBox = entityTypeComboBox;
     this.countryComboBox = countryComboBox;
@@ -64,29 +67,45 @@ public class EventSearchChartController {
       return;
     }
 
+    try {
+      String chartType = entityType.equals("Songs") ? ChartDataService.TRACKS : ChartDataService.ARTISTS;
+      RevalidatingValue<ArrayList<ChartEntry>> entries = chartDataService.getTopEntriesRevalidating(chartType,
+          country, "listeners", CHART_SIZE);
+      shownEntries = entries;
+
+      showEntries(entries, entityType, country);
+      entries.refreshingProperty().addListener((observable, oldValue, newValue) -> {
+        if (shownEntries == entries) {
+          showEntries(entries, entityType, country);
+        }
+      });
+    } catch (Exception e) {
+      e.printStackTrace();
+      System.out.println("Error updating chart: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Shows chart entries in the bar chart. While a chart older than its
+   * freshness budget is being refreshed, the title shows the age of the chart.
+   *
+   * @param entries    The entries of the chart.
+   * @param entityType The selected entity type.
+   * @param country    The selected country.
+   */
+  private void showEntries(RevalidatingValue<ArrayList<ChartEntry>> entries, String entityType, String country) {
     barChart.getData().clear();
 
     XYChart.Series<String, Number> series = new XYChart.Series<>();
     series.setName(entityType + " in " + country);
 
-    try {
-      if (entityType.equals("Songs")) {
-        ArrayList<Track> tracks = trackService.getTopTracksByCountry(country);
-        for (Track track : tracks) {
-          series.getData().add(new XYChart.Data<>(track.getName(), track.getListeners()));
-        }
-      } else {
-        ArrayList<Artist> artists = artistService.getTopCountryArtist(country);
-        for (Artist artist : artists) {
-          series.getData().add(new XYChart.Data<>(artist.getName(), artist.getListeners()));
-        }
+    if (entries.get() != null) {
+      for (ChartEntry entry : entries.get()) {
+        series.getData().add(new XYChart.Data<>(entry.getName(), entry.getListeners()));
       }
-    } catch (Exception e) {
-      e.printStackTrace();
-      System.out.println("Error updating chart: " + e.getMessage());
     }
 
     barChart.getData().add(series);
-    barChart.setTitle("Top " + entityType + " in " + country);
+    barChart.setTitle("Top " + entityType + " in " + country + GlobalChartController.getStatus(entries));
   }
 }
\ No newline at end of file
@@ -1,9 +1,9 @@
 package fi.tuni.concertify.controllers;
 
-import fi.tuni.concertify.models.Artist;
-import fi.tuni.concertify.models.Track;
-import fi.tuni.concertify.services.ArtistService;
-import fi.tuni.concertify.services.TrackService;
+import fi.tuni.concertify.models.ChartEntry;
+import fi.tuni.concertify.services.ChartDataService;
+import fi.tuni.concertify.utilities.OfflineMode;
+import fi.tuni.concertify.utilities.RevalidatingValue;
 import javafx.scene.chart.BarChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.ComboBox;
@@ -15,13 +15,18 @@ import java.util.ArrayList;
  * charts
  * based on selected entity types (e.g., Songs or Artists) and metrics (e.g.,
  * Listeners, Playcount).
+ * The charts are cached by the ChartDataService, so switching the entity type or
+ * metric back and forth does not refetch them. An expired chart is shown
+ * immediately and replaced when its refreshed copy arrives.
  */
 public class GlobalChartController {
-  private TrackService trackService;
-  private ArtistService artistService;
+  private static final int CHART_SIZE = 10;
+
+  private ChartDataService chartDataService;
   private BarChart<String, Number> barChart;
   private ComboBox<String> entityTypeComboBox;
   private ComboBox<String> metricComboBox;
+  private RevalidatingValue<ArrayList<ChartEntry>> shownEntries;
 
   /**
    * Constructs a GlobalChartController and initializes required services and UI
@@ -36,8 +41,7 @@ public class GlobalChartController {
   public GlobalChartController(BarChart<String, Number> barChart,
       ComboBox<String> entityTypeComboBox,
       ComboBox<String> metricComboBox) {
-    this.trackService = new TrackService();
-    this.artistService = new ArtistService();
+    this.chartDataService = new ChartDataService();
     this.barChart = barChart;
     this.entityTypeComboBox = entityTypeComboBox;
     this.metricComboBox = metricComboBox;
@@ -63,28 +67,61 @@ public class GlobalChartController {
     String metric = metricComboBox.getValue();
     String sortMetric = metric.equals("Listeners") ? "listeners" : "playcount";
 
+    String chartType = entityType.equals("Songs") ? ChartDataService.TRACKS : ChartDataService.ARTISTS;
+    RevalidatingValue<ArrayList<ChartEntry>> entries = chartDataService.getTopEntriesRevalidating(chartType, null,
+        sortMetric, CHART_SIZE);
+    shownEntries = entries;
+
+    showEntries(entries, entityType, metric, sortMetric);
+    entries.refreshingProperty().addListener((observable, oldValue, newValue) -> {
+      if (shownEntries == entries) {
+        showEntries(entries, entityType, metric, sortMetric);
+      }
+    });
+  }
+
+  /**
+   * Shows chart entries in the bar chart. While a chart older than its
+   * freshness budget is being refreshed, the title shows the age of the chart.
+   *
+   * @param entries    The entries of the chart.
+   * @param entityType The selected entity type.
+   * @param metric     The selected metric.
+   * @param sortMetric The metric the entries are sorted by.
+   */
+  private void showEntries(RevalidatingValue<ArrayList<ChartEntry>> entries, String entityType, String metric,
+      String sortMetric) {
     barChart.getData().clear();
 
     XYChart.Series<String, Number> series = new XYChart.Series<>();
     series.setName(entityType + " by " + metric);
 
-    if (entityType.equals("Songs")) {
-      ArrayList<Track> tracks = trackService.getTopTracks(sortMetric);
-      for (Track track : tracks) {
-        String name = track.getName();
-        Number value = track.getListeners();
-        series.getData().add(new XYChart.Data<>(name, value));
-      }
-    } else {
-      ArrayList<Artist> artists = artistService.getTopChartArtist(sortMetric);
-      for (Artist artist : artists) {
-        String name = artist.getName();
-        Number value = sortMetric.equals("listeners") ? artist.getListeners() : artist.getPlayCount();
-        series.getData().add(new XYChart.Data<>(name, value));
+    if (entries.get() != null) {
+      for (ChartEntry entry : entries.get()) {
+        series.getData().add(new XYChart.Data<>(entry.getName(), entry.getMetric(sortMetric)));
       }
     }
 
     barChart.getData().add(series);
-    barChart.setTitle("Top " + entityType + " by " + metric);
+    barChart.setTitle("Top " + entityType + " by " + metric + getStatus(entries));
+  }
+
+  /**
+   * Describes the state of a chart being refreshed or shown offline, for the
+   * chart title.
+   *
+   * @param entries The entries of the chart.
+   * @return The status, or an empty string if the chart is fresh.
+   */
+  static String getStatus(RevalidatingValue<ArrayList<ChartEntry>> entries) {
+    if (OfflineMode.isOffline()) {
+      return entries.get() == null ? " (offline, not saved)" : " (offline, updated " + entries.describeAge() + ")";
+    }
+
+    if (!entries.isRefreshing()) {
+      return "";
+    }
+
+    return entries.get() == null ? " (loading...)" : " (updated " + entries.describeAge() + ", refreshing...)";
   }
 }
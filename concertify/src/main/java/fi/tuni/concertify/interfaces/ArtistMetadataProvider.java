@@ -0,0 +1,86 @@
+package fi.tuni.concertify.interfaces;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.models.ChartEntry;
+import fi.tuni.concertify.models.Track;
+
+/**
+ * The ArtistMetadataProvider interface provides the listening statistics of
+ * artists and tracks: artist search, artist details and top tracks, and the
+ * global and country charts.
+ */
+public interface ArtistMetadataProvider {
+
+  /**
+   * Retrieves a list of artists either by search or top chart. Artists found in
+   * the given list are reused, and new artists are added to it.
+   *
+   * @param artistsFile The list of stored artists.
+   * @param method      The method to use (either "artist.search" or a chart-based
+   *                    method).
+   * @param key         The search key (artist name), or the metric to sort the
+   *                    chart by.
+   * @param country     The country of the chart (null for the global chart).
+   * @return A list of the found artists.
+   */
+  ArrayList<Artist> getArtists(ArrayList<Artist> artistsFile, String method, String key, String country);
+
+  /**
+   * Searches artists by name for suggestions while the user is typing. Unlike
+   * {@link #getArtists}, the Spotify details of the artists are not looked up
+   * and the artists are not stored.
+   *
+   * @param key   The search key (artist name).
+   * @param limit The maximum number of artists to return.
+   * @return The found artists, with their name, statistics and MusicBrainz ID.
+   */
+  ArrayList<Artist> suggestArtists(String key, int limit);
+
+  /**
+   * Completes an artist found by {@link #suggestArtists} with the details that
+   * {@link #getArtists} looks up, such as the Spotify profile.
+   *
+   * @param artist The suggested artist.
+   * @return The completed artist.
+   */
+  Artist enrichArtist(Artist artist);
+
+  /**
+   * Retrieves the details of an artist.
+   *
+   * @param name The name of the artist.
+   * @return A map containing the artist's listeners, playcount, and bio.
+   */
+  HashMap<String, String> getArtistInfo(String name);
+
+  /**
+   * Retrieves the top 10 tracks of an artist.
+   *
+   * @param key The name of the artist.
+   * @return A list of the artist's top tracks.
+   */
+  ArrayList<Track> getArtistTopTracks(String key);
+
+  /**
+   * Retrieves the raw entries of a top artist or top track chart, either global
+   * or for a country.
+   *
+   * @param chartType The type of the chart, either "artists" or "tracks".
+   * @param country   The country of the chart (null for the global chart).
+   * @return The chart entries, or an empty list if an error occurs.
+   */
+  ArrayList<ChartEntry> getChartEntries(String chartType, String country);
+
+  /**
+   * Retrieves the top 10 tracks globally or by country, sorted by a given
+   * metric.
+   *
+   * @param sortBy  The metric to sort by, either "listeners" or "playcount".
+   * @param country The country of the chart (null for the global chart).
+   * @return A list of the top tracks.
+   */
+  ArrayList<Track> getTopChartTracks(String sortBy, String country);
+}
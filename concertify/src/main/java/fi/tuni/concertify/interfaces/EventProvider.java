@@ -0,0 +1,41 @@
+package fi.tuni.concertify.interfaces;
+
+import java.util.ArrayList;
+
+import com.google.gson.JsonArray;
+
+import fi.tuni.concertify.models.Event;
+
+/**
+ * The EventProvider interface provides the music events and the artists
+ * performing in them, in the format of the Ticketmaster Discovery API.
+ */
+public interface EventProvider {
+
+  /**
+   * Searches for events. Empty or null parameters are not used in the search.
+   *
+   * @param keyword  The search keyword (e.g., event name).
+   * @param artistID The ID of the artist.
+   * @param country  The country code.
+   * @param city     The city name.
+   * @return A JsonArray of the found events, or null if the request failed.
+   */
+  JsonArray searchEvents(String keyword, String artistID, String country, String city);
+
+  /**
+   * Searches for artists based on a keyword.
+   *
+   * @param keyword The search keyword (e.g., artist name).
+   * @return A JsonArray of the found artists, or null if the request failed.
+   */
+  JsonArray searchArtists(String keyword);
+
+  /**
+   * Converts a JsonArray of events into a list of Event objects.
+   *
+   * @param events A JsonArray of events returned by the provider.
+   * @return A list of the events.
+   */
+  ArrayList<Event> getEvents(JsonArray events);
+}
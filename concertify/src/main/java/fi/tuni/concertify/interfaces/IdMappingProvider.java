@@ -0,0 +1,16 @@
+package fi.tuni.concertify.interfaces;
+
+/**
+ * The IdMappingProvider interface maps the MusicBrainz IDs of artists to their
+ * IDs in other services.
+ */
+public interface IdMappingProvider {
+
+  /**
+   * Retrieves the Spotify ID of an artist.
+   *
+   * @param mbid The MusicBrainz ID of the artist.
+   * @return The Spotify ID of the artist, or null if not found.
+   */
+  String getSpotifyId(String mbid);
+}
@@ -0,0 +1,19 @@
+package fi.tuni.concertify.interfaces;
+
+import java.util.HashMap;
+
+/**
+ * The ImageMetadataProvider interface provides the profile pictures and
+ * profile links of artists.
+ */
+public interface ImageMetadataProvider {
+
+  /**
+   * Retrieves the Spotify URL and profile picture URL of an artist.
+   *
+   * @param spotifyId The Spotify ID of the artist.
+   * @return A HashMap containing the "spotifyUrl" and "profilePicture", or null
+   *         if the request failed.
+   */
+  HashMap<String, String> getArtistUrlAndAvatar(String spotifyId);
+}
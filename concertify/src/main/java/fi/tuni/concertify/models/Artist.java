@@ -12,6 +12,12 @@ public class Artist {
   private int listeners;
   private long playCount;
   private ArrayList<Track> topTracks;
+  // How the artist's events were last found: by Ticketmaster ID or by keyword
+  private String eventLookup;
+  // When the biography and statistics, and the top tracks, were last fetched
+  private long infoFetchedAt, topTracksFetchedAt;
+  // When the statistics and Spotify details were last refreshed in the background
+  private long lastRefreshedAt;
 
   /**
    * Constructs an Artist with a name, listeners count, and play count.
@@ -158,6 +164,38 @@ public class Artist {
     this.ticketmasterId = ticketmasterId;
   }
 
+  public String getEventLookup() {
+    return eventLookup;
+  }
+
+  public void setEventLookup(String eventLookup) {
+    this.eventLookup = eventLookup;
+  }
+
+  public long getInfoFetchedAt() {
+    return infoFetchedAt;
+  }
+
+  public void setInfoFetchedAt(long infoFetchedAt) {
+    this.infoFetchedAt = infoFetchedAt;
+  }
+
+  public long getTopTracksFetchedAt() {
+    return topTracksFetchedAt;
+  }
+
+  public void setTopTracksFetchedAt(long topTracksFetchedAt) {
+    this.topTracksFetchedAt = topTracksFetchedAt;
+  }
+
+  public long getLastRefreshedAt() {
+    return lastRefreshedAt;
+  }
+
+  public void setLastRefreshedAt(long lastRefreshedAt) {
+    this.lastRefreshedAt = lastRefreshedAt;
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (this == obj)
@@ -0,0 +1,67 @@
+package fi.tuni.concertify.models;
+
+import java.util.ArrayList;
+
+/**
+ * Represents a Last.fm top artist or top track chart, either global or for a
+ * country, together with the time it was fetched.
+ */
+public class Chart {
+  private String chartType;
+  private String country;
+  private long fetchedAt;
+  private ArrayList<ChartEntry> entries;
+
+  /**
+   * Constructs a new Chart object with the specified type, country, fetch time
+   * and entries.
+   *
+   * @param chartType the type of the chart, either "artists" or "tracks"
+   * @param country   the country of the chart, or null for the global chart
+   * @param fetchedAt the time the chart was fetched, in milliseconds since the
+   *                  epoch
+   * @param entries   the entries of the chart
+   */
+  public Chart(String chartType, String country, long fetchedAt, ArrayList<ChartEntry> entries) {
+    this.chartType = chartType;
+    this.country = country;
+    this.fetchedAt = fetchedAt;
+    this.entries = entries;
+  }
+
+  /**
+   * Gets the type of the chart.
+   *
+   * @return the type of the chart, either "artists" or "tracks"
+   */
+  public String getChartType() {
+    return chartType;
+  }
+
+  /**
+   * Gets the country of the chart.
+   *
+   * @return the country of the chart, or null for the global chart
+   */
+  public String getCountry() {
+    return country;
+  }
+
+  /**
+   * Gets the time the chart was fetched.
+   *
+   * @return the fetch time in milliseconds since the epoch
+   */
+  public long getFetchedAt() {
+    return fetchedAt;
+  }
+
+  /**
+   * Gets the entries of the chart.
+   *
+   * @return the entries of the chart
+   */
+  public ArrayList<ChartEntry> getEntries() {
+    return entries;
+  }
+}
@@ -0,0 +1,63 @@
+package fi.tuni.concertify.models;
+
+/**
+ * Represents a single entry of a Last.fm chart (a top artist or a top track)
+ * with its name, listeners and play count.
+ */
+public class ChartEntry {
+  private String name;
+  private long listeners;
+  private long playCount;
+
+  /**
+   * Constructs a new ChartEntry object with the specified name, listener count
+   * and play count.
+   *
+   * @param name      the name of the artist or track
+   * @param listeners the number of listeners of the artist or track
+   * @param playCount the number of times the artist or track has been played, or
+   *                  0 if the chart does not include play counts
+   */
+  public ChartEntry(String name, long listeners, long playCount) {
+    this.name = name;
+    this.listeners = listeners;
+    this.playCount = playCount;
+  }
+
+  /**
+   * Gets the name of the artist or track.
+   *
+   * @return the name of the artist or track
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the number of listeners of the artist or track.
+   *
+   * @return the number of listeners
+   */
+  public long getListeners() {
+    return listeners;
+  }
+
+  /**
+   * Gets the play count of the artist or track.
+   *
+   * @return the play count
+   */
+  public long getPlayCount() {
+    return playCount;
+  }
+
+  /**
+   * Gets the value of the given metric.
+   *
+   * @param metric the metric, either "listeners" or "playcount"
+   * @return the number of listeners or the play count
+   */
+  public long getMetric(String metric) {
+    return metric.equals("listeners") ? listeners : playCount;
+  }
+}
@@ -3,6 +3,7 @@ package fi.tuni.concertify.models;
 import java.util.UUID;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Objects;
 
 /**
  * Represents a musical event with associated metadata.
@@ -333,16 +334,17 @@ public class Event {
     if (obj == null || getClass() != obj.getClass())
       return false;
     Event event = (Event) obj;
-    return ticketmasterID.equals(event.ticketmasterID);
+    return Objects.equals(ticketmasterID, event.ticketmasterID);
   }
 
   /**
-   * Generates a hash code for the event based on its ID.
+   * Generates a hash code for the event based on its Ticketmaster ID, so that
+   * it is consistent with {@link #equals(Object)}.
    * 
    * @return a hash code for the event
    */
   @Override
   public int hashCode() {
-    return id.hashCode();
+    return Objects.hashCode(ticketmasterID);
   }
 }
\ No newline at end of file
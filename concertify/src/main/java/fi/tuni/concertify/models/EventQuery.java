@@ -0,0 +1,56 @@
+package fi.tuni.concertify.models;
+
+import java.util.ArrayList;
+
+/**
+ * Represents the cached result of an event search (e.g. the events of an
+ * artist or the events in a city), stored as the Ticketmaster IDs of the found
+ * events together with the time the search was made.
+ */
+public class EventQuery {
+  private String key;
+  private long fetchedAt;
+  private ArrayList<String> eventIds;
+
+  /**
+   * Constructs a new EventQuery object with the specified key, fetch time and
+   * event IDs.
+   *
+   * @param key       the key identifying the search
+   * @param fetchedAt the time the search was made, in milliseconds since the
+   *                  epoch
+   * @param eventIds  the Ticketmaster IDs of the found events
+   */
+  public EventQuery(String key, long fetchedAt, ArrayList<String> eventIds) {
+    this.key = key;
+    this.fetchedAt = fetchedAt;
+    this.eventIds = eventIds;
+  }
+
+  /**
+   * Gets the key identifying the search.
+   *
+   * @return the key of the search
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Gets the time the search was made.
+   *
+   * @return the fetch time in milliseconds since the epoch
+   */
+  public long getFetchedAt() {
+    return fetchedAt;
+  }
+
+  /**
+   * Gets the Ticketmaster IDs of the found events.
+   *
+   * @return the IDs of the found events
+   */
+  public ArrayList<String> getEventIds() {
+    return eventIds;
+  }
+}
@@ -0,0 +1,139 @@
+package fi.tuni.concertify.models;
+
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Represents a location searched by the user, with the city and the country
+ * name as entered and the country code used for Ticketmaster searches. Either
+ * the city or the country may be empty.
+ */
+public class SearchedLocation {
+  private static final Pattern LEGACY_CITY_PATTERN = Pattern.compile("City:\\s*(.*?)(,|$)");
+  private static final Pattern LEGACY_COUNTRY_PATTERN = Pattern.compile("Country:\\s*(.*)");
+
+  private String city;
+  private String country;
+  private String countryCode;
+
+  /**
+   * Constructs a new SearchedLocation object with the specified city, country
+   * and country code.
+   *
+   * @param city        the city (may be empty)
+   * @param country     the name of the country (may be empty)
+   * @param countryCode the code of the country (may be empty)
+   */
+  public SearchedLocation(String city, String country, String countryCode) {
+    this.city = city != null ? city : "";
+    this.country = country != null ? country : "";
+    this.countryCode = countryCode != null ? countryCode : "";
+  }
+
+  /**
+   * Parses a location stored in the legacy "City: X, Country: Y" format. The
+   * country code is not part of the legacy format and is left empty.
+   *
+   * @param location the location string
+   * @return the parsed location
+   */
+  public static SearchedLocation fromLegacyString(String location) {
+    Matcher cityMatcher = LEGACY_CITY_PATTERN.matcher(location);
+    Matcher countryMatcher = LEGACY_COUNTRY_PATTERN.matcher(location);
+
+    return new SearchedLocation(
+        cityMatcher.find() ? cityMatcher.group(1) : "",
+        countryMatcher.find() ? countryMatcher.group(1) : "",
+        "");
+  }
+
+  /**
+   * Gets the city of the location.
+   *
+   * @return the city, or an empty string
+   */
+  public String getCity() {
+    return city;
+  }
+
+  /**
+   * Gets the name of the country of the location.
+   *
+   * @return the country name, or an empty string
+   */
+  public String getCountry() {
+    return country;
+  }
+
+  /**
+   * Gets the code of the country of the location.
+   *
+   * @return the country code, or an empty string
+   */
+  public String getCountryCode() {
+    return countryCode;
+  }
+
+  /**
+   * Sets the code of the country of the location.
+   *
+   * @param countryCode the new country code
+   */
+  public void setCountryCode(String countryCode) {
+    this.countryCode = countryCode != null ? countryCode : "";
+  }
+
+  /**
+   * Returns the text shown for the location, e.g. "City: Helsinki, Country:
+   * Finland".
+   *
+   * @return the label of the location
+   */
+  public String getLabel() {
+    if (!city.isEmpty() && !country.isEmpty()) {
+      return String.format("City: %s, Country: %s", city, country);
+    }
+
+    return !city.isEmpty() ? String.format("City: %s", city) : String.format("Country: %s", country);
+  }
+
+  /**
+   * Checks if two locations have the same city and country, ignoring case.
+   *
+   * @param o the object to compare with
+   * @return true if the locations are the same, false otherwise
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SearchedLocation)) {
+      return false;
+    }
+
+    SearchedLocation other = (SearchedLocation) o;
+    return city.equalsIgnoreCase(other.city) && country.equalsIgnoreCase(other.country);
+  }
+
+  /**
+   * Returns the hash code of the location, based on its city and country.
+   *
+   * @return the hash code of the location
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(city.toLowerCase(), country.toLowerCase());
+  }
+
+  /**
+   * Returns the label of the location.
+   *
+   * @return the label of the location
+   */
+  @Override
+  public String toString() {
+    return getLabel();
+  }
+}
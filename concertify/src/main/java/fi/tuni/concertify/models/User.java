@@ -12,8 +12,10 @@ public class User {
   private UUID id;
   private String username, passwordHash;
   private ArrayList<Event> favoriteEvents;
+  private ArrayList<String> favoriteEventIds;
   private ArrayList<Artist> favoriteArtists;
   private ArrayList<String> recentlySearchedLocations;
+  private ArrayList<SearchedLocation> recentLocations;
   private Boolean isCurrentLogin;
   private Date lastLogin;
 
@@ -36,8 +38,10 @@ public class User {
     this.username = username;
     this.passwordHash = passwordHash;
     this.favoriteEvents = new ArrayList<>();
+    this.favoriteEventIds = new ArrayList<>();
     this.favoriteArtists = new ArrayList<>();
     this.recentlySearchedLocations = new ArrayList<>();
+    this.recentLocations = new ArrayList<>();
     this.isCurrentLogin = isCurrentLogin;
     this.lastLogin = new Date();
   }
@@ -97,9 +101,11 @@ public class User {
   }
 
   /**
-   * Gets the list of favorite events of the user.
+   * Gets the list of favorite events saved as full copies. Favorite events are
+   * now stored by ID, and this list only holds favorites saved by older versions
+   * until they are moved to the event store.
    * 
-   * @return the list of favorite events
+   * @return the list of legacy favorite events
    */
   public ArrayList<Event> getFavoriteEvents() {
     return favoriteEvents;
@@ -114,6 +120,26 @@ public class User {
     this.favoriteEvents = favoriteEvents;
   }
 
+  /**
+   * Gets the Ticketmaster IDs of the favorite events of the user. The events
+   * themselves are kept in the event store.
+   * 
+   * @return the list of favorite event IDs, or null for users saved before
+   *         favorite events were stored by ID
+   */
+  public ArrayList<String> getFavoriteEventIds() {
+    return favoriteEventIds;
+  }
+
+  /**
+   * Sets the Ticketmaster IDs of the favorite events of the user.
+   * 
+   * @param favoriteEventIds the new list of favorite event IDs
+   */
+  public void setFavoriteEventIds(ArrayList<String> favoriteEventIds) {
+    this.favoriteEventIds = favoriteEventIds;
+  }
+
   /**
    * Gets the list of favorite artists of the user.
    * 
@@ -169,7 +195,10 @@ public class User {
   }
 
   /**
-   * Gets the list of recently searched locations by the user.
+   * Gets the list of recently searched locations by the user, in the legacy
+   * "City: X, Country: Y" format. Locations are now stored as
+   * {@link SearchedLocation} objects, and this list is only kept to read users
+   * saved by older versions.
    * 
    * @return the list of recently searched locations
    */
@@ -185,4 +214,23 @@ public class User {
   public void setRecentlySearchedLocations(ArrayList<String> recentlySearchedLocations) {
     this.recentlySearchedLocations = recentlySearchedLocations;
   }
+
+  /**
+   * Gets the list of recently searched locations by the user, most recent
+   * first.
+   * 
+   * @return the list of recently searched locations
+   */
+  public ArrayList<SearchedLocation> getRecentLocations() {
+    return recentLocations;
+  }
+
+  /**
+   * Sets the list of recently searched locations by the user.
+   * 
+   * @param recentLocations the new list of recently searched locations
+   */
+  public void setRecentLocations(ArrayList<SearchedLocation> recentLocations) {
+    this.recentLocations = recentLocations;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package fi.tuni.concertify.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+
+import fi.tuni.concertify.interfaces.ArtistMetadataProvider;
+import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.models.Event;
+import fi.tuni.concertify.models.Track;
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.BackgroundExecutor;
+import fi.tuni.concertify.utilities.RevalidatingValue;
+
+/**
+ * Loads the details shown on an artist page: the statistics and biography, the
+ * top tracks and the upcoming events of the artist.
+ *
+ * The three parts are requested concurrently, so the page is complete after
+ * the slowest request instead of after all of them, and each part can be shown
+ * as soon as it has been loaded. The biography and statistics are stored with
+ * the artist, and their freshness budget is CONCERTIFY_ARTIST_INFO_TTL_MINUTES
+ * (24 hours by default); the budget of the top tracks is
+ * CONCERTIFY_ARTIST_TRACKS_TTL_MINUTES (6 hours by default). Stored values are
+ * served immediately, even when older than their budget, and revalidated in
+ * the background (see {@link RevalidatingValue}). The events are cached by the
+ * event store.
+ */
+public class ArtistDetailLoader {
+  private static final long INFO_TTL_MILLIS = AppConfig.getLong("CONCERTIFY_ARTIST_INFO_TTL_MINUTES", 24 * 60)
+      * 60 * 1000;
+  private static final long TRACKS_TTL_MILLIS = AppConfig.getLong("CONCERTIFY_ARTIST_TRACKS_TTL_MINUTES", 6 * 60)
+      * 60 * 1000;
+
+  private final ArtistService artistService;
+  private final ArtistMetadataProvider lastFmAPIService;
+  private final EventService eventService;
+
+  /**
+   * Constructs an ArtistDetailLoader with default dependencies.
+   */
+  public ArtistDetailLoader() {
+    this(new ArtistService(), Providers.artistMetadata(), new EventService());
+  }
+
+  /**
+   * Constructs an ArtistDetailLoader with the given services.
+   *
+   * @param artistService    The service storing the artists.
+   * @param lastFmAPIService The service fetching the details from Last.fm.
+   * @param eventService     The service searching the events of the artist, or
+   *                         null to not load events.
+   */
+  public ArtistDetailLoader(ArtistService artistService, ArtistMetadataProvider lastFmAPIService,
+      EventService eventService) {
+    this.artistService = artistService;
+    this.lastFmAPIService = lastFmAPIService;
+    this.eventService = eventService;
+  }
+
+  /**
+   * Starts loading the details of an artist. The stored artist is returned
+   * immediately, and its details are updated in place as the parts are
+   * refreshed. A part that fails to load keeps its stored value.
+   *
+   * @param name The name of the artist.
+   * @return The details of the artist, with a future for each part.
+   * @throws IllegalArgumentException If the artist is not found.
+   */
+  public Details load(String name) {
+    Artist artist = artistService.getStoredArtist(name);
+    long infoFetchedAt = artist.getInfoFetchedAt();
+    long topTracksFetchedAt = artist.getTopTracksFetchedAt();
+
+    RevalidatingValue<String> bio = RevalidatingValue.of(artist.getBio(), infoFetchedAt, INFO_TTL_MILLIS,
+        () -> fetchInfo(artist));
+    RevalidatingValue<ArrayList<Track>> topTracks = RevalidatingValue.of(artist.getTopTracks(), topTracksFetchedAt,
+        TRACKS_TTL_MILLIS, () -> fetchTopTracks(artist));
+
+    CompletableFuture<ArrayList<Event>> events = eventService == null
+        ? CompletableFuture.completedFuture(new ArrayList<>())
+        : BackgroundExecutor.submit(() -> eventService.getEventsByArtist(name)).exceptionally(e -> {
+          e.printStackTrace();
+          return new ArrayList<>();
+        });
+
+    // The artist file is written once, after both Last.fm parts have been loaded
+    CompletableFuture<Void> completion = CompletableFuture.allOf(bio.getCompletion(), topTracks.getCompletion())
+        .thenRun(() -> {
+          if (artist.getInfoFetchedAt() != infoFetchedAt || artist.getTopTracksFetchedAt() != topTracksFetchedAt) {
+            artistService.saveArtistDetails(artist);
+          }
+        });
+
+    return new Details(artist, bio, topTracks, events, completion);
+  }
+
+  /**
+   * Fetches the statistics and biography of an artist.
+   *
+   * @param artist The artist, updated with the fetched details.
+   * @return The biography of the artist.
+   */
+  private String fetchInfo(Artist artist) {
+    HashMap<String, String> artistInfoMap = lastFmAPIService.getArtistInfo(artist.getName());
+
+    artist.setListeners(Integer.parseInt(artistInfoMap.get("listeners")));
+    artist.setPlayCount(Long.parseLong(artistInfoMap.get("playcount")));
+    artist.setBio(artistInfoMap.get("bio"));
+    artist.setInfoFetchedAt(System.currentTimeMillis());
+
+    return artist.getBio();
+  }
+
+  /**
+   * Fetches the top tracks of an artist.
+   *
+   * @param artist The artist, updated with the fetched top tracks.
+   * @return The top tracks.
+   */
+  private ArrayList<Track> fetchTopTracks(Artist artist) {
+    ArrayList<Track> topTracks = lastFmAPIService.getArtistTopTracks(artist.getName());
+
+    artist.setTopTracks(topTracks);
+    artist.setTopTracksFetchedAt(System.currentTimeMillis());
+
+    return topTracks;
+  }
+
+  /**
+   * The details of an artist being loaded.
+   */
+  public static class Details {
+    private final Artist artist;
+    private final RevalidatingValue<String> bio;
+    private final RevalidatingValue<ArrayList<Track>> topTracks;
+    private final CompletableFuture<ArrayList<Event>> events;
+    private final CompletableFuture<Void> completion;
+
+    /**
+     * Constructs the details of an artist.
+     *
+     * @param artist     The stored artist.
+     * @param bio        The biography.
+     * @param topTracks  The top tracks.
+     * @param events     The future of the events.
+     * @param completion The future completing when the Last.fm parts have been
+     *                   loaded and saved.
+     */
+    private Details(Artist artist, RevalidatingValue<String> bio, RevalidatingValue<ArrayList<Track>> topTracks,
+        CompletableFuture<ArrayList<Event>> events, CompletableFuture<Void> completion) {
+      this.artist = artist;
+      this.bio = bio;
+      this.topTracks = topTracks;
+      this.events = events;
+      this.completion = completion;
+    }
+
+    /**
+     * Returns the artist, which is updated in place as its details are loaded.
+     *
+     * @return The artist.
+     */
+    public Artist getArtist() {
+      return artist;
+    }
+
+    /**
+     * Returns the biography of the artist. The statistics of the artist are
+     * refreshed together with the biography.
+     *
+     * @return The biography, revalidated in the background if needed.
+     */
+    public RevalidatingValue<String> getBio() {
+      return bio;
+    }
+
+    /**
+     * Returns the top tracks of the artist.
+     *
+     * @return The top tracks, revalidated in the background if needed.
+     */
+    public RevalidatingValue<ArrayList<Track>> getTopTracks() {
+      return topTracks;
+    }
+
+    /**
+     * Returns the future of the events of the artist.
+     *
+     * @return A future completing with the events.
+     */
+    public CompletableFuture<ArrayList<Event>> getEvents() {
+      return events;
+    }
+
+    /**
+     * Returns the future completing when the statistics, biography and top
+     * tracks have been loaded and saved.
+     *
+     * @return The completion future.
+     */
+    public CompletableFuture<Void> getCompletion() {
+      return completion;
+    }
+  }
+}
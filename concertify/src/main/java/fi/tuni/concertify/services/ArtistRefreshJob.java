@@ -0,0 +1,242 @@
+package fi.tuni.concertify.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import fi.tuni.concertify.interfaces.ArtistMetadataProvider;
+import fi.tuni.concertify.interfaces.ImageMetadataProvider;
+import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.models.User;
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.BackgroundExecutor;
+import fi.tuni.concertify.utilities.OfflineMode;
+import fi.tuni.concertify.utilities.RequestScheduler;
+import fi.tuni.concertify.utilities.RequestScheduler.Priority;
+
+/**
+ * Background job refreshing the statistics (listeners and play count) and the
+ * Spotify details (profile picture and Spotify URL) of the stored artists, so
+ * artists that are not visited again do not keep showing outdated values.
+ *
+ * Every CONCERTIFY_ARTIST_REFRESH_INTERVAL_MINUTES (30 by default) the job
+ * refreshes a batch of at most CONCERTIFY_ARTIST_REFRESH_BATCH_SIZE artists (20
+ * by default) that have not been refreshed for
+ * CONCERTIFY_ARTIST_REFRESH_MAX_AGE_HOURS (a week by default). The favorite
+ * artists of the users are refreshed first, then the others in order of
+ * staleness weighted by popularity. The job runs on a low priority thread,
+ * its requests have the background priority, and it waits while requests made
+ * for the user are pending or while it is paused. The job is opt-in, enabled
+ * with CONCERTIFY_ARTIST_REFRESH=true.
+ */
+public class ArtistRefreshJob {
+  private static final long PAUSE_POLL_MILLIS = 250;
+  private static ScheduledExecutorService scheduler;
+  private static volatile boolean paused = false;
+
+  private final ArtistService artistService;
+  private final ArtistMetadataProvider lastFmAPIService;
+  private final ImageMetadataProvider spotifyAPIService;
+  private final UserService userService;
+  private final int batchSize = (int) Math.max(1, AppConfig.getLong("CONCERTIFY_ARTIST_REFRESH_BATCH_SIZE", 20));
+  private final long maxAge = AppConfig.getLong("CONCERTIFY_ARTIST_REFRESH_MAX_AGE_HOURS", 7 * 24) * 60 * 60 * 1000;
+
+  /**
+   * Constructs an ArtistRefreshJob with default dependencies.
+   */
+  public ArtistRefreshJob() {
+    this(new ArtistService(), Providers.artistMetadata(), Providers.imageMetadata(), new UserService());
+  }
+
+  /**
+   * Constructs an ArtistRefreshJob with the given services.
+   *
+   * @param artistService     The service storing the artists.
+   * @param lastFmAPIService  The service fetching the statistics from Last.fm.
+   * @param spotifyAPIService The service fetching the Spotify details.
+   * @param userService       The service storing the users and their favorite
+   *                          artists.
+   */
+  public ArtistRefreshJob(ArtistService artistService, ArtistMetadataProvider lastFmAPIService,
+      ImageMetadataProvider spotifyAPIService, UserService userService) {
+    this.artistService = artistService;
+    this.lastFmAPIService = lastFmAPIService;
+    this.spotifyAPIService = spotifyAPIService;
+    this.userService = userService;
+  }
+
+  /**
+   * Starts the job on a background daemon thread if it is enabled in the
+   * configuration. The first batch is refreshed after one interval, so it does
+   * not compete with the requests made at startup. Calling this again has no
+   * effect.
+   */
+  public static synchronized void startIfEnabled() {
+    if (scheduler != null || !AppConfig.getBoolean("CONCERTIFY_ARTIST_REFRESH", false)) {
+      return;
+    }
+
+    long interval = Math.max(1, AppConfig.getLong("CONCERTIFY_ARTIST_REFRESH_INTERVAL_MINUTES", 30));
+    ArtistRefreshJob job = new ArtistRefreshJob();
+
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "artist-refresh");
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(() -> RequestScheduler.runWithPriority(Priority.BACKGROUND, job::run), interval,
+        interval, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Pauses the job. An artist being refreshed is finished, but no further
+   * artists are refreshed until the job is resumed.
+   */
+  public static void pause() {
+    paused = true;
+  }
+
+  /**
+   * Resumes a paused job.
+   */
+  public static void resume() {
+    paused = false;
+  }
+
+  /**
+   * Refreshes the next batch of stale artists and saves them to the artist file
+   * once the batch is done. The artists refreshed before the batch is
+   * interrupted are saved as well. Nothing is refreshed while offline.
+   */
+  public void run() {
+    ArrayList<Artist> refreshed = new ArrayList<>();
+
+    if (OfflineMode.isOffline()) {
+      return;
+    }
+
+    try {
+      ArrayList<Artist> batch = selectBatch(artistService.getStoredArtists(), getFavoriteArtistNames(),
+          System.currentTimeMillis(), maxAge, batchSize);
+
+      for (Artist artist : batch) {
+        if (!waitUntilIdle() || OfflineMode.isOffline()) {
+          break;
+        }
+
+        if (refresh(artist)) {
+          refreshed.add(artist);
+        }
+      }
+    } catch (Exception e) {
+      // An exception would cancel the scheduled job, so it is only reported.
+      e.printStackTrace();
+    } finally {
+      if (!refreshed.isEmpty()) {
+        artistService.saveRefreshedArtists(refreshed);
+      }
+    }
+  }
+
+  /**
+   * Selects the artists to refresh next: the artists not refreshed within the
+   * maximum age, favorites first, then in descending order of staleness
+   * weighted by popularity (age times the logarithm of the listeners).
+   *
+   * @param artists       The stored artists.
+   * @param favoriteNames The names of the favorite artists of the users.
+   * @param now           The current time in milliseconds since the epoch.
+   * @param maxAge        The age in milliseconds after which an artist is
+   *                      refreshed.
+   * @param batchSize     The maximum number of artists to select.
+   * @return The artists to refresh, in order.
+   */
+  static ArrayList<Artist> selectBatch(List<Artist> artists, Set<String> favoriteNames, long now, long maxAge,
+      int batchSize) {
+    Comparator<Artist> byStalenessAndPopularity = Comparator.comparingDouble(
+        artist -> (now - artist.getLastRefreshedAt()) * Math.log10(Math.max(0, artist.getListeners()) + 10));
+
+    return artists.stream()
+        .filter(artist -> now - artist.getLastRefreshedAt() > maxAge)
+        .sorted(Comparator.<Artist, Boolean>comparing(artist -> !favoriteNames.contains(artist.getName()))
+            .thenComparing(byStalenessAndPopularity.reversed()))
+        .limit(batchSize)
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Refreshes the statistics of an artist from Last.fm and, if the artist has a
+   * Spotify ID, its profile picture and Spotify URL from Spotify.
+   *
+   * @param artist The artist, updated in place.
+   * @return true if the artist was refreshed, false if the statistics could not
+   *         be fetched.
+   */
+  boolean refresh(Artist artist) {
+    try {
+      HashMap<String, String> artistInfoMap = lastFmAPIService.getArtistInfo(artist.getName());
+      artist.setListeners(Integer.parseInt(artistInfoMap.get("listeners")));
+      artist.setPlayCount(Long.parseLong(artistInfoMap.get("playcount")));
+    } catch (Exception e) {
+      // The artist is tried again in a later batch
+      return false;
+    }
+
+    if (artist.getSpotifyId() != null) {
+      HashMap<String, String> spotifyData = spotifyAPIService.getArtistUrlAndAvatar(artist.getSpotifyId());
+
+      if (spotifyData != null) {
+        artist.setSpotifyUrl(spotifyData.get("spotifyUrl"));
+        artist.setProfilePicture(spotifyData.get("profilePicture"));
+      }
+    }
+
+    artist.setLastRefreshedAt(System.currentTimeMillis());
+    return true;
+  }
+
+  /**
+   * Waits while the job is paused, tasks are pending on the shared background
+   * executor or interactive requests are queued.
+   *
+   * @return true when the job can continue, false if the thread was interrupted.
+   */
+  private boolean waitUntilIdle() {
+    try {
+      while (paused || BackgroundExecutor.getPendingTaskCount() > 0
+          || RequestScheduler.getShared().getMetrics(Priority.INTERACTIVE).getQueued() > 0) {
+        Thread.sleep(PAUSE_POLL_MILLIS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+
+    return !Thread.currentThread().isInterrupted();
+  }
+
+  /**
+   * Returns the names of the favorite artists of all users.
+   *
+   * @return The favorite artist names.
+   */
+  private Set<String> getFavoriteArtistNames() {
+    HashSet<String> names = new HashSet<>();
+
+    for (User user : userService.getUsers()) {
+      if (user.getFavoriteArtists() != null) {
+        user.getFavoriteArtists().forEach(artist -> names.add(artist.getName()));
+      }
+    }
+
+    return names;
+  }
+}
@@ -1,11 +1,18 @@
 package fi.tuni.concertify.services;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import fi.tuni.concertify.interfaces.ArtistMetadataProvider;
 import fi.tuni.concertify.models.Artist;
-import fi.tuni.concertify.models.Track;
 import fi.tuni.concertify.models.User;
+import fi.tuni.concertify.utilities.ArtistNameIndex;
+import fi.tuni.concertify.utilities.ArtistUtils;
+import fi.tuni.concertify.utilities.OfflineMode;
 
 /**
  * Service class for managing artist-related operations including searching,
@@ -13,16 +20,31 @@ import fi.tuni.concertify.models.User;
  */
 public class ArtistService extends IOAbstractService {
   private final String ARTIST_DB = "./database/artist.json";
+  public static final long SEARCH_CACHE_TTL = 10 * 60 * 1000;
+  private static final int SEARCH_CACHE_SIZE = 100;
+  private static final int OFFLINE_SEARCH_LIMIT = 20;
+
+  /**
+   * Recent search results, shared by all instances so that repeated searches
+   * (e.g. retyping a prefix, or opening the results of a search that was
+   * already run while typing) do not call the Last.fm API again.
+   */
+  private static final LinkedHashMap<String, CachedSearch> searchCache = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, CachedSearch> eldest) {
+      return size() > SEARCH_CACHE_SIZE;
+    }
+  };
 
   private UserService userService;
-  private LastFmAPIService lastFmAPIService;
+  private ArtistMetadataProvider lastFmAPIService;
 
   /**
    * Constructs an ArtistService with default dependencies.
    */
   public ArtistService() {
     this.userService = new UserService();
-    this.lastFmAPIService = new LastFmAPIService();
+    this.lastFmAPIService = Providers.artistMetadata();
   }
 
   /**
@@ -35,28 +57,150 @@ public class ArtistService extends IOAbstractService {
   }
 
   /**
-   * Sets the LastFmAPIService for dependency injection, used for testing
+   * Sets the provider of artist data for dependency injection, used for testing
    * purposes.
    * 
-   * @param lastFmAPIService the LastFmAPIService to inject
+   * @param lastFmAPIService the ArtistMetadataProvider to inject
    */
-  public void setLastFmAPIService(LastFmAPIService lastFmAPIService) {
+  public void setLastFmAPIService(ArtistMetadataProvider lastFmAPIService) {
     this.lastFmAPIService = lastFmAPIService;
   }
 
   /**
-   * Searches for artists based on a keyword.
+   * Searches for artists based on a keyword. While offline, only the locally
+   * cached artists are searched.
    * 
    * @param key the search keyword
    * @return a list of artists matching the search keyword
    */
   public ArrayList<Artist> searchArtistByKey(String key) {
+    if (OfflineMode.isOffline()) {
+      return searchLocalArtists(key, OFFLINE_SEARCH_LIMIT);
+    }
+
+    String normalizedKey = key.trim().toLowerCase();
+    ArrayList<Artist> cachedResults = getCachedSearch(normalizedKey);
+
+    if (cachedResults != null) {
+      return cachedResults;
+    }
+
     ArrayList<Artist> artistsFile = readFromFile(ARTIST_DB, Artist.class);
     ArrayList<Artist> searchArtists = lastFmAPIService.getArtists(artistsFile, "artist.search", key, null);
-    writeToFile(ARTIST_DB, artistsFile);
+    updateFile(ARTIST_DB, Artist.class, artists -> ArtistUtils.mergeArtists(artists, searchArtists));
+    putCachedSearch(normalizedKey, searchArtists);
+
     return searchArtists;
   }
 
+  /**
+   * Searches artists by name for suggestions while the user is typing. The
+   * artists are not enriched with their Spotify details and not stored, so a
+   * search per typed prefix only costs one Last.fm request. While offline,
+   * nothing is searched, as the local suggestions are shown anyway.
+   * 
+   * @param key   the search keyword
+   * @param limit the maximum number of results
+   * @return the found artists
+   */
+  public ArrayList<Artist> suggestArtists(String key, int limit) {
+    if (OfflineMode.isOffline()) {
+      return new ArrayList<>();
+    }
+
+    return lastFmAPIService.suggestArtists(key, limit);
+  }
+
+  /**
+   * Stores an artist chosen from the suggestions, so that its page can be
+   * opened. Only this artist is enriched with its Spotify details. An artist
+   * that is already stored is kept as it is.
+   * 
+   * @param artist the suggested artist
+   */
+  public void saveSuggestedArtist(Artist artist) {
+    if (isStored(readFromFile(ARTIST_DB, Artist.class), artist.getName())) {
+      return;
+    }
+
+    Artist enrichedArtist = lastFmAPIService.enrichArtist(artist);
+    updateFile(ARTIST_DB, Artist.class, artists -> {
+      if (!isStored(artists, enrichedArtist.getName())) {
+        artists.add(enrichedArtist);
+      }
+    });
+    ArtistNameIndex.getShared().addAll(List.of(enrichedArtist));
+  }
+
+  /**
+   * Returns whether an artist is among the stored artists.
+   * 
+   * @param artists the stored artists
+   * @param name    the name of the artist
+   * @return true if the artist is stored, false otherwise
+   */
+  private static boolean isStored(ArrayList<Artist> artists, String name) {
+    return artists.stream().anyMatch(artist -> name.equals(artist.getName()));
+  }
+
+  /**
+   * Searches the locally cached artists (the artist cache and the current
+   * user's favorites) without any network call, using the shared
+   * {@link ArtistNameIndex}. Used to suggest artists instantly while a search is
+   * still in progress.
+   * 
+   * @param key   the search keyword
+   * @param limit the maximum number of results
+   * @return the best matching cached artists
+   */
+  public ArrayList<Artist> searchLocalArtists(String key, int limit) {
+    ArtistNameIndex index = ArtistNameIndex.getShared();
+
+    if (!index.isLoaded()) {
+      ArrayList<Artist> artists = readFromFile(ARTIST_DB, Artist.class);
+      User currentUser = userService.getCurrentUser();
+
+      if (currentUser != null) {
+        ArtistUtils.mergeArtists(artists, currentUser.getFavoriteArtists());
+      }
+
+      index.load(artists);
+    }
+
+    return new ArrayList<>(index.search(key, limit));
+  }
+
+  /**
+   * Returns the results of a recent search for the same keyword.
+   * 
+   * @param normalizedKey the normalized search keyword
+   * @return a copy of the cached results, or null if there is no recent search
+   */
+  private static ArrayList<Artist> getCachedSearch(String normalizedKey) {
+    synchronized (searchCache) {
+      CachedSearch cached = searchCache.get(normalizedKey);
+
+      if (cached == null || System.currentTimeMillis() - cached.timestamp > SEARCH_CACHE_TTL) {
+        searchCache.remove(normalizedKey);
+        return null;
+      }
+
+      return new ArrayList<>(cached.results);
+    }
+  }
+
+  /**
+   * Stores the results of a search in the search cache.
+   * 
+   * @param normalizedKey the normalized search keyword
+   * @param results       the search results
+   */
+  private static void putCachedSearch(String normalizedKey, ArrayList<Artist> results) {
+    synchronized (searchCache) {
+      searchCache.put(normalizedKey, new CachedSearch(new ArrayList<>(results), System.currentTimeMillis()));
+    }
+  }
+
   /**
    * Gets the current user's favorite artists.
    * 
@@ -83,7 +227,7 @@ public class ArtistService extends IOAbstractService {
   public ArrayList<Artist> getTopChartArtist(String sortBy) {
     ArrayList<Artist> artistsFile = readFromFile(ARTIST_DB, Artist.class);
     ArrayList<Artist> topChartArtists = lastFmAPIService.getArtists(artistsFile, "chart.gettopartists", sortBy, null);
-    writeToFile(ARTIST_DB, artistsFile);
+    updateFile(ARTIST_DB, Artist.class, artists -> ArtistUtils.mergeArtists(artists, topChartArtists));
     return topChartArtists;
   }
 
@@ -97,19 +241,33 @@ public class ArtistService extends IOAbstractService {
     ArrayList<Artist> artistsFile = readFromFile(ARTIST_DB, Artist.class);
     ArrayList<Artist> topChartArtists = lastFmAPIService.getArtists(artistsFile, "geo.gettopartists", "listeners",
         country);
-    writeToFile(ARTIST_DB, artistsFile);
+    updateFile(ARTIST_DB, Artist.class, artists -> ArtistUtils.mergeArtists(artists, topChartArtists));
     return topChartArtists;
   }
 
   /**
    * Retrieves an artist by name, including additional information such as
-   * listeners,
-   * play count, biography, and top tracks from the LastFM API.
+   * listeners, play count, biography, and top tracks from the LastFM API. The
+   * information and the top tracks are fetched concurrently, and only if they
+   * are older than their expiry times (see {@link ArtistDetailLoader}).
    * 
    * @param name the name of the artist
    * @return the artist with detailed information
    */
   public Artist getArtistByName(String name) {
+    ArtistDetailLoader.Details details = new ArtistDetailLoader(this, lastFmAPIService, null).load(name);
+    details.getCompletion().join();
+    return details.getArtist();
+  }
+
+  /**
+   * Returns the stored record of an artist.
+   * 
+   * @param name the name of the artist
+   * @return the stored artist
+   * @throws IllegalArgumentException if the artist is not found
+   */
+  public Artist getStoredArtist(String name) {
     ArrayList<Artist> artists = readFromFile(ARTIST_DB, Artist.class);
     Artist currentArtist = artists.stream().filter(artist -> name.equals(artist.getName())).findAny().orElse(null);
 
@@ -117,17 +275,60 @@ public class ArtistService extends IOAbstractService {
       throw new IllegalArgumentException("Artist not found");
     }
 
-    HashMap<String, String> artistInfoMap = lastFmAPIService.getArtistInfo(name);
-    ArrayList<Track> artistTopTracks = lastFmAPIService.getArtistTopTracks(name);
+    return currentArtist;
+  }
 
-    currentArtist.setListeners(Integer.parseInt(artistInfoMap.get("listeners")));
-    currentArtist.setPlayCount(Long.parseLong(artistInfoMap.get("playcount")));
-    currentArtist.setBio(artistInfoMap.get("bio"));
-    currentArtist.setTopTracks(artistTopTracks);
+  /**
+   * Returns the stored records of all artists.
+   * 
+   * @return the stored artists
+   */
+  public ArrayList<Artist> getStoredArtists() {
+    return readFromFile(ARTIST_DB, Artist.class);
+  }
+
+  /**
+   * Saves the refreshed statistics and Spotify details of artists, with their
+   * refresh times, to the stored records of the artists. Other fields of the
+   * records are kept.
+   * 
+   * @param refreshedArtists the refreshed artists
+   */
+  public void saveRefreshedArtists(Collection<Artist> refreshedArtists) {
+    HashMap<String, Artist> refreshedByName = new HashMap<>();
+    refreshedArtists.forEach(artist -> refreshedByName.put(artist.getName(), artist));
 
-    writeToFile(ARTIST_DB, artists);
+    updateFile(ARTIST_DB, Artist.class, cachedArtists -> cachedArtists.forEach(cachedArtist -> {
+      Artist artist = refreshedByName.get(cachedArtist.getName());
 
-    return currentArtist;
+      if (artist != null) {
+        cachedArtist.setListeners(artist.getListeners());
+        cachedArtist.setPlayCount(artist.getPlayCount());
+        cachedArtist.setSpotifyUrl(artist.getSpotifyUrl());
+        cachedArtist.setProfilePicture(artist.getProfilePicture());
+        cachedArtist.setLastRefreshedAt(artist.getLastRefreshedAt());
+      }
+    }));
+  }
+
+  /**
+   * Saves the details of an artist (statistics, biography and top tracks, with
+   * their fetch times) to the stored record of the artist. Other fields of the
+   * record, which may have been updated meanwhile, are kept.
+   * 
+   * @param artist the artist with updated details
+   */
+  public void saveArtistDetails(Artist artist) {
+    updateFile(ARTIST_DB, Artist.class, cachedArtists -> cachedArtists.stream()
+        .filter(cachedArtist -> artist.getName().equals(cachedArtist.getName()))
+        .forEach(cachedArtist -> {
+          cachedArtist.setListeners(artist.getListeners());
+          cachedArtist.setPlayCount(artist.getPlayCount());
+          cachedArtist.setBio(artist.getBio());
+          cachedArtist.setInfoFetchedAt(artist.getInfoFetchedAt());
+          cachedArtist.setTopTracks(artist.getTopTracks());
+          cachedArtist.setTopTracksFetchedAt(artist.getTopTracksFetchedAt());
+        }));
   }
 
   /**
@@ -181,4 +382,17 @@ public class ArtistService extends IOAbstractService {
     currentUser.getFavoriteArtists().remove(currentArtist);
     userService.updateCurrentUser(currentUser);
   }
-}
\ No newline at end of file
+
+  /**
+   * The results of a search and the time they were fetched.
+   */
+  private static class CachedSearch {
+    private final ArrayList<Artist> results;
+    private final long timestamp;
+
+    CachedSearch(ArrayList<Artist> results, long timestamp) {
+      this.results = results;
+      this.timestamp = timestamp;
+    }
+  }
+}
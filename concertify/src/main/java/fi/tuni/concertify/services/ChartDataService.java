@@ -0,0 +1,279 @@
+package fi.tuni.concertify.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import fi.tuni.concertify.interfaces.ArtistMetadataProvider;
+import fi.tuni.concertify.models.Chart;
+import fi.tuni.concertify.models.ChartEntry;
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.BackgroundExecutor;
+import fi.tuni.concertify.utilities.OfflineMode;
+import fi.tuni.concertify.utilities.RankingEngine;
+import fi.tuni.concertify.utilities.RevalidatingValue;
+
+/**
+ * Service class for retrieving the Last.fm top artist and top track charts.
+ *
+ * Each chart (chart type and country) is fetched once per time window and its
+ * raw entries are kept in memory, so switching the metric a chart is sorted by
+ * or the number of entries shown does not refetch the chart. The length of the
+ * window is read from CONCERTIFY_CHART_TTL_MINUTES (60 minutes by default).
+ *
+ * The charts are also stored in the chart cache file, so charts fetched in an
+ * earlier session, or by the {@link ChartWarmupJob}, are shown without waiting
+ * for Last.fm while they are fresh.
+ */
+public class ChartDataService extends IOAbstractService {
+  public static final String ARTISTS = "artists";
+  public static final String TRACKS = "tracks";
+
+  private static final String CHARTS_FILE = "./database/cache/charts.json";
+  private static final long TTL_MILLIS = AppConfig.getLong("CONCERTIFY_CHART_TTL_MINUTES", 60) * 60 * 1000;
+  private static final ConcurrentHashMap<String, Chart> charts = new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<String, Object> fetchLocks = new ConcurrentHashMap<>();
+  private static final Object loadLock = new Object();
+  private static final Object saveLock = new Object();
+  private static volatile boolean loaded = false;
+
+  private ArtistMetadataProvider lastFmAPIService = Providers.artistMetadata();
+
+  /**
+   * Retrieves the raw entries of a chart in the order returned by Last.fm. The
+   * chart is fetched only if it is not cached or its cached copy has expired.
+   * Concurrent requests for the same chart share a single fetch.
+   *
+   * @param chartType The type of the chart, either {@link #ARTISTS} or
+   *                  {@link #TRACKS}.
+   * @param country   The country of the chart (null for the global chart).
+   * @return The entries of the chart.
+   */
+  public ArrayList<ChartEntry> getChart(String chartType, String country) {
+    Chart cached = getCachedChart(chartType, country);
+
+    if (cached != null && !isOlderThan(cached, TTL_MILLIS)) {
+      return cached.getEntries();
+    }
+
+    Chart chart = refresh(chartType, country, TTL_MILLIS);
+
+    if (chart != null && chart != cached) {
+      BackgroundExecutor.execute(this::saveCharts);
+    }
+
+    // A failed fetch keeps serving the expired copy if there is one.
+    return chart != null ? chart.getEntries() : new ArrayList<>();
+  }
+
+  /**
+   * Retrieves the top entries of a chart sorted by the given metric. The
+   * entries are sorted in memory from the cached chart.
+   *
+   * @param chartType The type of the chart, either {@link #ARTISTS} or
+   *                  {@link #TRACKS}.
+   * @param country   The country of the chart (null for the global chart).
+   * @param sortBy    The metric to sort by, either "listeners" or "playcount".
+   * @param limit     The maximum number of entries to return.
+   * @return The top entries of the chart, highest value first.
+   */
+  public ArrayList<ChartEntry> getTopEntries(String chartType, String country, String sortBy, int limit) {
+    return RankingEngine.topK(getChart(chartType, country), sortBy, limit);
+  }
+
+  /**
+   * Retrieves the top entries of a chart without waiting for Last.fm when a
+   * cached copy exists. The cached entries are returned immediately, even if
+   * the chart is older than CONCERTIFY_CHART_TTL_MINUTES, and an expired or
+   * missing chart is fetched in the background and pushed to the returned
+   * value when it arrives.
+   *
+   * @param chartType The type of the chart, either {@link #ARTISTS} or
+   *                  {@link #TRACKS}.
+   * @param country   The country of the chart (null for the global chart).
+   * @param sortBy    The metric to sort by, either "listeners" or "playcount".
+   * @param limit     The maximum number of entries to return.
+   * @return The top entries of the chart, highest value first, revalidated in
+   *         the background if needed.
+   */
+  public RevalidatingValue<ArrayList<ChartEntry>> getTopEntriesRevalidating(String chartType, String country,
+      String sortBy, int limit) {
+    Chart cached = getCachedChart(chartType, country);
+
+    return RevalidatingValue.of(
+        cached != null ? RankingEngine.topK(cached.getEntries(), sortBy, limit) : null,
+        cached != null ? cached.getFetchedAt() : 0,
+        TTL_MILLIS,
+        () -> {
+          Chart chart = refresh(chartType, country, TTL_MILLIS);
+          if (chart == null || chart == cached) {
+            return null;
+          }
+
+          saveCharts();
+          return RankingEngine.topK(chart.getEntries(), sortBy, limit);
+        });
+  }
+
+  /**
+   * Retrieves the top entries of the combined chart of several countries, e.g.
+   * the most listened artists across the Nordic countries. The charts of the
+   * countries are retrieved in parallel, and an entry charting in several
+   * countries is ranked by the sum of its values.
+   *
+   * @param chartType The type of the charts, either {@link #ARTISTS} or
+   *                  {@link #TRACKS}.
+   * @param countries The countries whose charts are combined.
+   * @param sortBy    The metric to sort by, either "listeners" or "playcount".
+   * @param limit     The maximum number of entries to return.
+   * @return The top entries of the combined chart, highest value first.
+   */
+  public ArrayList<ChartEntry> getAggregateTopEntries(String chartType, List<String> countries, String sortBy,
+      int limit) {
+    List<CompletableFuture<ArrayList<ChartEntry>>> futures = countries.stream()
+        .map(country -> BackgroundExecutor.submit(() -> getChart(chartType, country)))
+        .collect(Collectors.toList());
+
+    List<ArrayList<ChartEntry>> rankings = futures.stream()
+        .map(CompletableFuture::join)
+        .collect(Collectors.toList());
+
+    return RankingEngine.merge(rankings, sortBy, limit);
+  }
+
+  /**
+   * Fetches a chart again unless its cached copy is younger than the given age.
+   * The chart is not written to the chart cache file; call
+   * {@link #saveCharts()} after refreshing.
+   *
+   * @param chartType The type of the chart, either {@link #ARTISTS} or
+   *                  {@link #TRACKS}.
+   * @param country   The country of the chart (null for the global chart).
+   * @param maxAge    The age in milliseconds up to which the cached copy is kept.
+   * @return The refreshed or cached chart, or null if it could not be fetched
+   *         (e.g. while offline) and there is no cached copy.
+   */
+  public Chart refresh(String chartType, String country, long maxAge) {
+    String key = getKey(chartType, country);
+
+    synchronized (fetchLocks.computeIfAbsent(key, k -> new Object())) {
+      Chart cached = getCachedChart(chartType, country);
+      // The cached copy is kept while offline, however old it is
+      if ((cached != null && !isOlderThan(cached, maxAge)) || OfflineMode.isOffline()) {
+        return cached;
+      }
+
+      ArrayList<ChartEntry> entries = lastFmAPIService.getChartEntries(chartType, country);
+
+      // A failed fetch returns no entries, which should not replace the cached copy.
+      if (entries.isEmpty()) {
+        return cached;
+      }
+
+      Chart chart = new Chart(chartType, country, System.currentTimeMillis(), entries);
+      charts.put(key, chart);
+      return chart;
+    }
+  }
+
+  /**
+   * Writes all cached charts to the chart cache file. Saves are serialized, so
+   * the last save always writes the latest charts.
+   */
+  public void saveCharts() {
+    synchronized (saveLock) {
+      try {
+        Files.createDirectories(Paths.get(CHARTS_FILE).getParent());
+      } catch (IOException e) {
+        e.printStackTrace();
+        return;
+      }
+
+      writeToFile(CHARTS_FILE, new ArrayList<>(charts.values()));
+    }
+  }
+
+  /**
+   * Returns the time window during which a fetched chart is used without being
+   * fetched again.
+   *
+   * @return The time window in milliseconds.
+   */
+  public static long getTtlMillis() {
+    return TTL_MILLIS;
+  }
+
+  /**
+   * Removes all cached charts from memory, so they are read from the chart cache
+   * file or fetched again on the next request.
+   */
+  public static void clearCache() {
+    charts.clear();
+    loaded = false;
+  }
+
+  /**
+   * Returns the cached copy of a chart, reading the chart cache file on first
+   * use.
+   *
+   * @param chartType The type of the chart.
+   * @param country   The country of the chart (null for the global chart).
+   * @return The cached chart, or null if the chart is not cached.
+   */
+  private Chart getCachedChart(String chartType, String country) {
+    if (!loaded) {
+      loadCharts();
+    }
+
+    return charts.get(getKey(chartType, country));
+  }
+
+  /**
+   * Reads the charts stored in the chart cache file into memory. Charts fetched
+   * in the meantime are kept.
+   */
+  private void loadCharts() {
+    synchronized (loadLock) {
+      if (loaded) {
+        return;
+      }
+
+      if (Files.exists(Paths.get(CHARTS_FILE))) {
+        for (Chart chart : readFromFile(CHARTS_FILE, Chart.class)) {
+          if (chart.getChartType() != null && chart.getEntries() != null) {
+            charts.putIfAbsent(getKey(chart.getChartType(), chart.getCountry()), chart);
+          }
+        }
+      }
+
+      loaded = true;
+    }
+  }
+
+  /**
+   * Returns whether a chart was fetched longer ago than the given age.
+   *
+   * @param chart  The chart.
+   * @param maxAge The age in milliseconds.
+   * @return true if the chart is older than the given age, false otherwise.
+   */
+  private static boolean isOlderThan(Chart chart, long maxAge) {
+    return System.currentTimeMillis() - chart.getFetchedAt() > maxAge;
+  }
+
+  /**
+   * Returns the key of a chart in the cache.
+   *
+   * @param chartType The type of the chart.
+   * @param country   The country of the chart (null for the global chart).
+   * @return The cache key.
+   */
+  private static String getKey(String chartType, String country) {
+    return chartType + "|" + (country == null ? "" : country);
+  }
+}
@@ -0,0 +1,124 @@
+package fi.tuni.concertify.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.CountriesRetrieval;
+import fi.tuni.concertify.utilities.OfflineMode;
+import fi.tuni.concertify.utilities.RequestScheduler;
+import fi.tuni.concertify.utilities.RequestScheduler.Priority;
+
+/**
+ * Optional background job keeping the per-country top artist and top track
+ * charts cached, so selecting a country in the event search chart shows its
+ * chart from local data instead of waiting for Last.fm.
+ *
+ * The job is enabled with CONCERTIFY_CHART_WARMUP=true. By default it warms the
+ * charts of every country in the countries file; CONCERTIFY_CHART_WARMUP_COUNTRIES
+ * can limit it to a comma-separated list of country names. It runs right away
+ * and then once per chart time window, fetching only the charts that would
+ * expire before the next run. Its requests have the background priority, so
+ * they only use the Last.fm rate limit left over by the requests made for the
+ * user.
+ */
+public class ChartWarmupJob {
+  private static final int SAVE_INTERVAL = 25;
+  private static ScheduledExecutorService scheduler;
+
+  private final ChartDataService chartDataService = new ChartDataService();
+  private final ArrayList<String> countries;
+
+  /**
+   * Constructs a ChartWarmupJob for the given countries.
+   *
+   * @param countries The names of the countries whose charts are warmed.
+   */
+  public ChartWarmupJob(ArrayList<String> countries) {
+    this.countries = countries;
+  }
+
+  /**
+   * Starts the job on a background daemon thread if it is enabled in the
+   * configuration. Calling this again has no effect.
+   */
+  public static synchronized void startIfEnabled() {
+    if (scheduler != null || !AppConfig.getBoolean("CONCERTIFY_CHART_WARMUP", false)) {
+      return;
+    }
+
+    long interval = ChartDataService.getTtlMillis();
+    ChartWarmupJob job = new ChartWarmupJob(getConfiguredCountries());
+
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "chart-warmup");
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(() -> RequestScheduler.runWithPriority(Priority.BACKGROUND, job::run), 0,
+        interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Refreshes the charts of all countries of the job that are more than half a
+   * chart time window old, so they stay fresh until the next run. The charts are
+   * saved to the chart cache file every few countries and at the end. Nothing
+   * is refreshed while offline.
+   */
+  public void run() {
+    if (OfflineMode.isOffline()) {
+      return;
+    }
+
+    long maxAge = ChartDataService.getTtlMillis() / 2;
+    int processed = 0;
+
+    try {
+      for (String country : countries) {
+        if (Thread.currentThread().isInterrupted() || OfflineMode.isOffline()) {
+          break;
+        }
+
+        chartDataService.refresh(ChartDataService.ARTISTS, country, maxAge);
+        chartDataService.refresh(ChartDataService.TRACKS, country, maxAge);
+
+        if (++processed % SAVE_INTERVAL == 0) {
+          chartDataService.saveCharts();
+        }
+      }
+    } catch (Exception e) {
+      // An exception would cancel the scheduled job, so it is only reported.
+      e.printStackTrace();
+    } finally {
+      chartDataService.saveCharts();
+    }
+  }
+
+  /**
+   * Returns the countries configured with CONCERTIFY_CHART_WARMUP_COUNTRIES, or
+   * all countries in the countries file if it is not set.
+   *
+   * @return The country names, sorted.
+   */
+  private static ArrayList<String> getConfiguredCountries() {
+    String configured = AppConfig.get("CONCERTIFY_CHART_WARMUP_COUNTRIES", "");
+    ArrayList<String> countries = new ArrayList<>();
+
+    if (configured.isBlank()) {
+      countries.addAll(CountriesRetrieval.getCountriesFromDB().keySet());
+    } else {
+      Arrays.stream(configured.split(","))
+          .map(String::trim)
+          .filter(country -> !country.isEmpty())
+          .forEach(countries::add);
+    }
+
+    Collections.sort(countries);
+    return countries;
+  }
+}
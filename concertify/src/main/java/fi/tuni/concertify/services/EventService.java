@@ -1,16 +1,36 @@
 package fi.tuni.concertify.services;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import fi.tuni.concertify.interfaces.EventProvider;
 import fi.tuni.concertify.models.Artist;
 import fi.tuni.concertify.models.Event;
+import fi.tuni.concertify.models.SearchedLocation;
 import fi.tuni.concertify.models.User;
+import fi.tuni.concertify.utilities.AppConfig;
 import fi.tuni.concertify.utilities.ArtistUtils;
+import fi.tuni.concertify.utilities.BackgroundExecutor;
+import fi.tuni.concertify.utilities.CountriesRetrieval;
+import fi.tuni.concertify.utilities.OfflineMode;
+import fi.tuni.concertify.utilities.RequestScheduler;
+import fi.tuni.concertify.utilities.RequestScheduler.Priority;
 
 /**
  * Service class responsible for handling events related to artists and users,
@@ -19,8 +39,11 @@ import fi.tuni.concertify.utilities.ArtistUtils;
  */
 public class EventService extends IOAbstractService {
   private final String ARTIST_DB = "./database/artist.json";
+  public static final String LOOKUP_BY_ID = "ticketmasterId";
+  public static final String LOOKUP_BY_KEYWORD = "keyword";
   private UserService userService = new UserService();
-  private TicketMasterAPIService ticketmasterAPIService = new TicketMasterAPIService();
+  private EventProvider ticketmasterAPIService = Providers.events();
+  private EventStore eventStore = EventStore.getShared();
 
   // Added for testing purposes to allow dependency injection
   public void setUserService(UserService userService) {
@@ -28,16 +51,27 @@ public class EventService extends IOAbstractService {
   }
 
   // Added for testing purposes to allow dependency injection
-  public void setTicketMasterAPIService(TicketMasterAPIService ticketmasterAPIService) {
+  public void setTicketMasterAPIService(EventProvider ticketmasterAPIService) {
     this.ticketmasterAPIService = ticketmasterAPIService;
   }
 
+  // Added for testing purposes to allow dependency injection
+  public void setEventStore(EventStore eventStore) {
+    this.eventStore = eventStore;
+  }
+
   /**
-   * Retrieves a list of events for a given artist name. It first checks if the
-   * artist
-   * has an associated Ticketmaster ID or MusicBrainz ID, and fetches events
-   * accordingly.
-   * If no ID is found, a general keyword search is performed.
+   * Retrieves a list of events for a given artist name. If the artist has an
+   * associated Ticketmaster ID, the events are fetched by the ID. If the
+   * artist's events were found by a keyword search before, the keyword search
+   * is used directly.
+   * 
+   * Otherwise, if the artist has a MusicBrainz ID, the Ticketmaster ID lookup
+   * and a keyword search are made in parallel. The events found by the ID are
+   * used if they arrive within CONCERTIFY_ARTIST_ID_DEADLINE_MS (1500 ms by
+   * default), and the keyword results otherwise. The lookup continues in the
+   * background after the deadline and its outcome is saved on the artist, so
+   * later calls skip straight to the path that works.
    * 
    * @param artistName the name of the artist
    * @return a list of events related to the artist
@@ -51,95 +85,276 @@ public class EventService extends IOAbstractService {
       return getEventsByArtistID(artist.getTicketmasterId());
     }
 
-    if (artist != null && artist.getMusicBrainzId() != null) {
-      String artistID = getArtistIDByArtistName(cachedArtists, artist);
-      if (artistID != null) {
-        return getEventsByArtistID(artistID);
-      }
+    if (artist != null && artist.getMusicBrainzId() != null && !LOOKUP_BY_KEYWORD.equals(artist.getEventLookup())) {
+      return getEventsByArtistSpeculatively(artist);
     }
 
     return getEventsByKeyword(artistName);
   }
 
+  /**
+   * Resolves the events of an artist without a known Ticketmaster ID by making
+   * the ID lookup in the background and the keyword search on the calling
+   * thread at the same time. The calling thread waits for the ID-based result
+   * only until the deadline, so it never blocks on a busy background pool.
+   * 
+   * @param artist the artist, with a MusicBrainz ID
+   * @return a list of events related to the artist
+   */
+  private ArrayList<Event> getEventsByArtistSpeculatively(Artist artist) {
+    long deadline = System.nanoTime()
+        + TimeUnit.MILLISECONDS.toNanos(AppConfig.getLong("CONCERTIFY_ARTIST_ID_DEADLINE_MS", 1500));
+
+    CompletableFuture<ArrayList<Event>> idEvents = BackgroundExecutor.submit(() -> {
+      String artistID = getArtistIDByArtistName(artist);
+      return artistID != null ? getEventsByArtistID(artistID) : null;
+    });
+
+    ArrayList<Event> keywordEvents = getEventsByKeyword(artist.getName());
+
+    try {
+      ArrayList<Event> events = idEvents.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      if (events != null) {
+        return events;
+      }
+    } catch (TimeoutException e) {
+      // The ID was not resolved in time, so the keyword results are used
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      e.printStackTrace();
+    }
+
+    return keywordEvents;
+  }
+
+  /**
+   * Saves how the events of an artist are found, so later searches use that
+   * path directly.
+   * 
+   * @param artist the artist
+   * @param lookup the lookup path, e.g. {@link #LOOKUP_BY_KEYWORD}
+   */
+  private void saveEventLookup(Artist artist, String lookup) {
+    artist.setEventLookup(lookup);
+    updateFile(ARTIST_DB, Artist.class, cachedArtists -> cachedArtists.stream()
+        .filter(cachedArtist -> artist.getName().equals(cachedArtist.getName()))
+        .forEach(cachedArtist -> cachedArtist.setEventLookup(lookup)));
+  }
+
+  /**
+   * Retrieves the events of several artists concurrently, with at most
+   * CONCERTIFY_EVENT_FETCH_PARALLELISM (4 by default) artists fetched at the
+   * same time. The events of each artist are passed to the callback as soon as
+   * they have been retrieved, on a background thread.
+   * 
+   * @param artistNames    the names of the artists
+   * @param onArtistEvents the callback receiving the events of each artist
+   * @return a future completing when the events of all artists have been
+   *         retrieved
+   */
+  public CompletableFuture<Void> getEventsByArtists(List<String> artistNames,
+      Consumer<ArrayList<Event>> onArtistEvents) {
+    int parallelism = (int) AppConfig.getLong("CONCERTIFY_EVENT_FETCH_PARALLELISM", 4);
+
+    return BackgroundExecutor.forEachBounded(artistNames, parallelism,
+        artistName -> onArtistEvents.accept(getEventsByArtist(artistName)));
+  }
+
   /**
    * Retrieves a list of events for a given location (country and city).
+   * Searches made recently are served from the event store.
    * 
    * @param country the country to search for events
    * @param city    the city to search for events
    * @return a list of events in the specified location
    */
   public ArrayList<Event> getEventsByLocation(String country, String city) {
-    JsonArray events = ticketmasterAPIService.searchEvents("", "", country, city);
-
-    if (events == null)
-      return new ArrayList<>();
-
-    ArrayList<Event> searchedEvents = ticketmasterAPIService.getEvents(events);
+    return eventStore.getEvents(EventStore.locationKey(country, city),
+        () -> searchEvents("", "", country, city));
+  }
 
-    return searchedEvents;
+  /**
+   * Retrieves the stored events within the given distance of a point, nearest
+   * first. Only events found by earlier searches are considered, so no
+   * Ticketmaster search is made.
+   * 
+   * @param lat      the latitude of the point
+   * @param lon      the longitude of the point
+   * @param radiusKm the distance in kilometres
+   * @return a list of the stored events within the distance
+   */
+  public ArrayList<Event> getEventsNear(double lat, double lon, double radiusKm) {
+    return new ArrayList<>(eventStore.getEventsNear(lat, lon, radiusKm));
   }
 
   /**
    * Retrieves a list of events for a given keyword (e.g., artist name).
+   * Searches made recently are served from the event store.
    * 
    * @param keyword the keyword to search for events
    * @return a list of events matching the keyword
    */
   private ArrayList<Event> getEventsByKeyword(String keyword) {
-    JsonArray events = ticketmasterAPIService.searchEvents(keyword, "", "", "");
-
-    if (events == null)
-      return new ArrayList<>();
-
-    ArrayList<Event> searchedEvents = ticketmasterAPIService.getEvents(events);
-
-    return searchedEvents;
+    return eventStore.getEvents(EventStore.keywordKey(keyword),
+        () -> searchEvents(keyword, "", "", ""));
   }
 
   /**
    * Retrieves a list of events for a given artist's Ticketmaster ID.
+   * Searches made recently are served from the event store.
    * 
    * @param artistID the Ticketmaster ID of the artist
    * @return a list of events related to the artist's ID
    */
   private ArrayList<Event> getEventsByArtistID(String artistID) {
-    JsonArray events = ticketmasterAPIService.searchEvents("", artistID, "", "");
+    return eventStore.getEvents(EventStore.artistKey(artistID),
+        () -> searchEvents("", artistID, "", ""));
+  }
 
-    if (events == null)
-      return new ArrayList<>();
+  /**
+   * Searches for events on Ticketmaster.
+   * 
+   * @param keyword  the search keyword
+   * @param artistID the Ticketmaster ID of the artist
+   * @param country  the country code
+   * @param city     the city
+   * @return a list of the found events, or null if the request failed
+   */
+  private ArrayList<Event> searchEvents(String keyword, String artistID, String country, String city) {
+    JsonArray events = ticketmasterAPIService.searchEvents(keyword, artistID, country, city);
 
-    ArrayList<Event> searchedEvents = ticketmasterAPIService.getEvents(events);
+    if (events == null)
+      return null;
 
-    return searchedEvents;
+    return ticketmasterAPIService.getEvents(events);
   }
 
   /**
-   * Retrieves the user's favorite events.
+   * Retrieves the user's favorite events from the event store.
    * 
    * @return a list of the user's favorite events
    */
   public ArrayList<Event> getFavoriteEvents() {
+    User currentUser = getLoggedInUser();
+
+    ArrayList<Event> searchedEvents = eventStore.getEvents(currentUser.getFavoriteEventIds());
+
+    return searchedEvents;
+  }
+
+  /**
+   * Retrieves the user's favorite events that have not yet started, earliest
+   * first.
+   * 
+   * @return a list of the user's upcoming favorite events
+   */
+  public ArrayList<Event> getUpcomingFavoriteEvents() {
+    HashSet<String> favoriteIds = new HashSet<>(getLoggedInUser().getFavoriteEventIds());
+
+    return eventStore.getEventsStartingFrom(Instant.now()).stream()
+        .filter(event -> favoriteIds.contains(event.getTicketmasterID()))
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Retrieves the already found events taking place in a city within the given
+   * number of days, starting today, by day.
+   * 
+   * @param city the city of the events
+   * @param days the number of days, including today
+   * @return a list of the events in the city within the days
+   */
+  public ArrayList<Event> getEventsInNextDays(String city, int days) {
+    LocalDate today = LocalDate.now();
+
+    return eventStore.getEventsOnDays(today, today.plusDays(days - 1)).stream()
+        .filter(event -> city == null || city.equalsIgnoreCase(event.getCity()))
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Retrieves the already found events taking place during the given month, by
+   * day.
+   * 
+   * @param month the month of the events
+   * @return a list of the events during the month
+   */
+  public ArrayList<Event> getEventsInMonth(YearMonth month) {
+    return eventStore.getEventsOnDays(month.atDay(1), month.atEndOfMonth()).stream()
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Returns the current user, moving favorite events saved as full copies by
+   * older versions into the event store and converting recently searched
+   * locations saved as strings by older versions into structured locations.
+   * 
+   * @return the current user
+   * @throws IllegalStateException if no user is logged in
+   */
+  private User getLoggedInUser() {
     User currentUser = userService.getCurrentUser();
 
     if (currentUser == null) {
       throw new IllegalStateException("User is not logged in");
     }
 
-    ArrayList<Event> searchedEvents = currentUser.getFavoriteEvents();
+    boolean migrated = false;
 
-    return searchedEvents;
+    if (currentUser.getRecentLocations() == null) {
+      currentUser.setRecentLocations(new ArrayList<>());
+      migrated = true;
+    }
+
+    ArrayList<String> legacyLocations = currentUser.getRecentlySearchedLocations();
+    if (legacyLocations != null && !legacyLocations.isEmpty()) {
+      HashMap<String, String> countryCodes = CountriesRetrieval.getCountriesFromDB();
+      legacyLocations.stream()
+          .map(SearchedLocation::fromLegacyString)
+          .filter(location -> !currentUser.getRecentLocations().contains(location))
+          .forEach(location -> {
+            location.setCountryCode(countryCodes.get(location.getCountry()));
+            currentUser.getRecentLocations().add(location);
+          });
+      legacyLocations.clear();
+      migrated = true;
+    }
+
+    if (currentUser.getFavoriteEventIds() == null) {
+      currentUser.setFavoriteEventIds(new ArrayList<>());
+      migrated = true;
+    }
+
+    ArrayList<Event> legacyEvents = currentUser.getFavoriteEvents();
+    if (legacyEvents != null && !legacyEvents.isEmpty()) {
+      eventStore.putEvents(legacyEvents);
+      legacyEvents.stream()
+          .map(Event::getTicketmasterID)
+          .filter(id -> id != null && !currentUser.getFavoriteEventIds().contains(id))
+          .forEach(currentUser.getFavoriteEventIds()::add);
+      legacyEvents.clear();
+      migrated = true;
+    }
+
+    if (migrated) {
+      userService.updateCurrentUser(currentUser);
+    }
+
+    return currentUser;
   }
 
   /**
    * Retrieves the artist ID from Ticketmaster API based on the artist's
    * MusicBrainz ID.
    * If the artist's Ticketmaster ID is found, it is saved in the artist's record.
+   * If Ticketmaster has no artist with the MusicBrainz ID, the artist is marked
+   * to be searched by keyword from now on.
    * 
-   * @param cachedArtists the list of cached artists
    * @param currentArtist the artist whose ID needs to be retrieved
    * @return the artist's Ticketmaster ID, or null if not found
    */
-  private String getArtistIDByArtistName(ArrayList<Artist> cachedArtists, Artist currentArtist) {
+  private String getArtistIDByArtistName(Artist currentArtist) {
     JsonArray artists = ticketmasterAPIService.searchArtists(currentArtist.getName());
 
     if (artists == null)
@@ -154,10 +369,18 @@ public class EventService extends IOAbstractService {
     if (artistJson != null) {
       String artistId = artistJson.get("id").getAsString();
       currentArtist.setTicketmasterId(artistId);
-      writeToFile(ARTIST_DB, cachedArtists);
+      currentArtist.setEventLookup(LOOKUP_BY_ID);
+      // Other artists' events may be fetched at the same time, so only this artist is updated
+      updateFile(ARTIST_DB, Artist.class, cachedArtists -> cachedArtists.stream()
+          .filter(cachedArtist -> currentArtist.getName().equals(cachedArtist.getName()))
+          .forEach(cachedArtist -> {
+            cachedArtist.setTicketmasterId(artistId);
+            cachedArtist.setEventLookup(LOOKUP_BY_ID);
+          }));
       return artistId;
     }
 
+    saveEventLookup(currentArtist, LOOKUP_BY_KEYWORD);
     return null;
   }
 
@@ -166,16 +389,44 @@ public class EventService extends IOAbstractService {
    * 
    * @return a list of the user's recently searched locations
    */
-  public ArrayList<String> getRecentLocations() {
-    User currentUser = userService.getCurrentUser();
+  public ArrayList<SearchedLocation> getRecentLocations() {
+    User currentUser = getLoggedInUser();
 
-    if (currentUser == null) {
-      throw new IllegalStateException("User is not logged in");
+    ArrayList<SearchedLocation> searchedLocations = currentUser.getRecentLocations();
+
+    return searchedLocations;
+  }
+
+  /**
+   * Fetches the events of the user's recently searched locations in the
+   * background, so switching between the locations is served from the event
+   * store. At most CONCERTIFY_EVENT_FETCH_PARALLELISM (4 by default) locations
+   * are fetched at the same time, and locations searched recently are not
+   * fetched again. The requests have the prefetch priority, so they do not
+   * delay the searches of the user. Does nothing if no user is logged in or if
+   * disabled with CONCERTIFY_LOCATION_PREFETCH=false. While offline, the
+   * prefetch is deferred until the application is online again.
+   * 
+   * @return a future completing when the events of all locations have been
+   *         fetched
+   */
+  public CompletableFuture<Void> prefetchRecentLocations() {
+    if (!AppConfig.getBoolean("CONCERTIFY_LOCATION_PREFETCH", true)) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    if (OfflineMode.isOffline()) {
+      OfflineMode.runWhenOnline(this::prefetchRecentLocations);
+      return CompletableFuture.completedFuture(null);
     }
 
-    ArrayList<String> searchedLocations = currentUser.getRecentlySearchedLocations();
+    int parallelism = (int) AppConfig.getLong("CONCERTIFY_EVENT_FETCH_PARALLELISM", 4);
 
-    return searchedLocations;
+    return BackgroundExecutor.submit(() -> userService.getCurrentUser() != null ? getRecentLocations() : null)
+        .thenCompose(locations -> locations == null
+            ? CompletableFuture.completedFuture(null)
+            : RequestScheduler.withPriority(Priority.PREFETCH, () -> BackgroundExecutor.forEachBounded(locations,
+                parallelism, location -> getEventsByLocation(location.getCountryCode(), location.getCity()))));
   }
 
   /**
@@ -186,24 +437,15 @@ public class EventService extends IOAbstractService {
    * @param country the country to add
    */
   public void addRecentLocation(String city, String country) {
-    User currentUser = userService.getCurrentUser();
-    String location;
+    User currentUser = getLoggedInUser();
 
-    if (currentUser == null) {
-      throw new IllegalStateException("User is not logged in");
-    }
-
-    if (isNotEmpty(city) && isNotEmpty(country)) {
-      location = String.format("City: %s, Country: %s", city, country);
-    } else {
-      location = isNotEmpty(city) ? String.format("City: %s", city)
-          : isNotEmpty(country) ? String.format("Country: %s", country) : null;
-    }
-
-    if (location == null)
+    if (!isNotEmpty(city) && !isNotEmpty(country))
       return;
 
-    ArrayList<String> recentLocations = currentUser.getRecentlySearchedLocations();
+    SearchedLocation location = new SearchedLocation(city, country,
+        isNotEmpty(country) ? CountriesRetrieval.getCountriesFromDB().get(country) : "");
+
+    ArrayList<SearchedLocation> recentLocations = currentUser.getRecentLocations();
     recentLocations.remove(location);
     recentLocations.add(0, location);
 
@@ -215,19 +457,19 @@ public class EventService extends IOAbstractService {
   }
 
   /**
-   * Adds an event to the user's list of favorite events.
+   * Adds an event to the user's list of favorite events. The event is saved in
+   * the event store and the user only references it by its Ticketmaster ID.
    * 
    * @param event the event to add to favorites
    */
   public void addEventToFavorite(Event event) {
-    User currentUser = userService.getCurrentUser();
+    User currentUser = getLoggedInUser();
 
-    if (currentUser == null) {
-      throw new IllegalStateException("User is not logged in");
+    eventStore.putEvents(List.of(event));
+    if (!currentUser.getFavoriteEventIds().contains(event.getTicketmasterID())) {
+      currentUser.getFavoriteEventIds().add(event.getTicketmasterID());
     }
 
-    currentUser.getFavoriteEvents().add(event);
-
     userService.updateCurrentUser(currentUser);
   }
 
@@ -237,13 +479,9 @@ public class EventService extends IOAbstractService {
    * @param event the event to remove from favorites
    */
   public void removeEventFromFavorite(Event event) {
-    User currentUser = userService.getCurrentUser();
-
-    if (currentUser == null) {
-      throw new IllegalStateException("User is not logged in");
-    }
+    User currentUser = getLoggedInUser();
 
-    currentUser.getFavoriteEvents().remove(event);
+    currentUser.getFavoriteEventIds().remove(event.getTicketmasterID());
 
     userService.updateCurrentUser(currentUser);
   }
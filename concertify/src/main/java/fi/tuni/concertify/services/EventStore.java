@@ -0,0 +1,466 @@
+package fi.tuni.concertify.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import fi.tuni.concertify.models.Event;
+import fi.tuni.concertify.models.EventQuery;
+import fi.tuni.concertify.models.User;
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.EventTimeIndex;
+import fi.tuni.concertify.utilities.GeohashIndex;
+import fi.tuni.concertify.utilities.OfflineMode;
+
+/**
+ * Local store of the events found on Ticketmaster, keyed by their Ticketmaster
+ * ID.
+ *
+ * The results of event searches (by artist ID, by keyword or by country and
+ * city) are cached as lists of event IDs, so showing the same events again is
+ * served from memory, or from disk after a restart, until the search expires.
+ * The expiry time is read from CONCERTIFY_EVENT_TTL_MINUTES (30 minutes by
+ * default). Each event is stored once, however many searches found it, and
+ * favorite events only reference the store by ID.
+ *
+ * The stored events are also indexed by location, so the events near a point
+ * or within a map viewport can be found without a Ticketmaster search, and by
+ * start time, for date range queries. Events that took place more than half a
+ * day ago are left out of cached search results and removed from the store
+ * every hour, except for the favorite events of the users.
+ */
+public class EventStore extends IOAbstractService {
+  private static final String EVENT_DB = "./database/event.json";
+  private static final String QUERY_DB = "./database/cache/event_queries.json";
+  public static final long TTL_MILLIS = AppConfig.getLong("CONCERTIFY_EVENT_TTL_MINUTES", 30) * 60 * 1000;
+  private static final long EXPIRY_GRACE_MILLIS = 12 * 60 * 60 * 1000;
+  private static final long EXPIRY_INTERVAL_MILLIS = 60 * 60 * 1000;
+  private static final EventStore shared = new EventStore(EVENT_DB, QUERY_DB);
+
+  private final String eventFile;
+  private final String queryFile;
+  private final ConcurrentHashMap<String, Event> events = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, EventQuery> queries = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Object> queryLocks = new ConcurrentHashMap<>();
+  private final GeohashIndex spatialIndex = new GeohashIndex();
+  private final EventTimeIndex timeIndex = new EventTimeIndex();
+  private Supplier<Collection<String>> retainedIds = EventStore::getFavoriteEventIdsOfAllUsers;
+  private volatile boolean loaded = false;
+  private long lastExpiry = 0;
+
+  /**
+   * Constructs an EventStore backed by the given files.
+   *
+   * @param eventFile The path of the file storing the events.
+   * @param queryFile The path of the file storing the cached searches.
+   */
+  public EventStore(String eventFile, String queryFile) {
+    this.eventFile = eventFile;
+    this.queryFile = queryFile;
+  }
+
+  // Added for testing purposes to allow dependency injection
+  public void setRetainedIds(Supplier<Collection<String>> retainedIds) {
+    this.retainedIds = retainedIds;
+  }
+
+  /**
+   * Returns the event store shared by the whole application.
+   *
+   * @return The shared event store.
+   */
+  public static EventStore getShared() {
+    return shared;
+  }
+
+  /**
+   * Returns the key of a search for the events of an artist.
+   *
+   * @param artistID The Ticketmaster ID of the artist.
+   * @return The key of the search.
+   */
+  public static String artistKey(String artistID) {
+    return "artist:" + artistID;
+  }
+
+  /**
+   * Returns the key of a search for events by keyword.
+   *
+   * @param keyword The keyword.
+   * @return The key of the search.
+   */
+  public static String keywordKey(String keyword) {
+    return "keyword:" + normalize(keyword);
+  }
+
+  /**
+   * Returns the key of a search for the events in a location.
+   *
+   * @param country The country code (may be empty).
+   * @param city    The city (may be empty).
+   * @return The key of the search.
+   */
+  public static String locationKey(String country, String city) {
+    return "location:" + normalize(country) + "|" + normalize(city);
+  }
+
+  /**
+   * Returns the events found by a search. A search made less than the expiry
+   * time ago is served from the store; otherwise the events are fetched, stored
+   * and the search is cached. If the fetch fails, the expired result is
+   * returned if there is one. While offline, the cached result is returned
+   * without fetching, however old it is.
+   *
+   * @param key     The key of the search.
+   * @param fetcher Fetches the events from Ticketmaster, returning null if the
+   *                request fails.
+   * @return The found events, without events that have already taken place.
+   */
+  public ArrayList<Event> getEvents(String key, Supplier<ArrayList<Event>> fetcher) {
+    ensureLoaded();
+
+    EventQuery cached = queries.get(key);
+    if (cached != null && !isExpired(cached)) {
+      return resolveCurrent(cached.getEventIds());
+    }
+
+    synchronized (queryLocks.computeIfAbsent(key, k -> new Object())) {
+      cached = queries.get(key);
+      if (cached != null && !isExpired(cached)) {
+        return resolveCurrent(cached.getEventIds());
+      }
+
+      ArrayList<Event> fetched = OfflineMode.isOffline() ? null : fetcher.get();
+      if (fetched == null) {
+        return cached != null ? resolveCurrent(cached.getEventIds()) : new ArrayList<>();
+      }
+
+      store(fetched);
+      ArrayList<String> eventIds = fetched.stream()
+          .map(Event::getTicketmasterID)
+          .filter(Objects::nonNull)
+          .collect(Collectors.toCollection(ArrayList::new));
+      queries.put(key, new EventQuery(key, System.currentTimeMillis(), eventIds));
+      save();
+
+      // Return the stored events, like for a cached search
+      return resolveCurrent(eventIds);
+    }
+  }
+
+  /**
+   * Returns the stored event with the given Ticketmaster ID.
+   *
+   * @param ticketmasterID The Ticketmaster ID of the event.
+   * @return The event, or null if it is not stored.
+   */
+  public Event getEvent(String ticketmasterID) {
+    ensureLoaded();
+    return ticketmasterID != null ? events.get(ticketmasterID) : null;
+  }
+
+  /**
+   * Returns the stored events with the given Ticketmaster IDs, in the same
+   * order. IDs of events that are not stored are skipped.
+   *
+   * @param ticketmasterIDs The Ticketmaster IDs of the events.
+   * @return The stored events.
+   */
+  public ArrayList<Event> getEvents(List<String> ticketmasterIDs) {
+    ensureLoaded();
+    return resolve(ticketmasterIDs);
+  }
+
+  /**
+   * Adds events to the store, replacing stored events with the same
+   * Ticketmaster ID, and saves the store.
+   *
+   * @param newEvents The events to add.
+   */
+  public void putEvents(Collection<Event> newEvents) {
+    ensureLoaded();
+    store(newEvents);
+    save();
+  }
+
+  /**
+   * Returns the stored events within the given distance of a point, nearest
+   * first, without searching Ticketmaster.
+   *
+   * @param lat      The latitude of the point.
+   * @param lon      The longitude of the point.
+   * @param radiusKm The distance in kilometres.
+   * @return The stored events within the distance.
+   */
+  public List<Event> getEventsNear(double lat, double lon, double radiusKm) {
+    ensureLoaded();
+    return spatialIndex.withinRadius(lat, lon, radiusKm);
+  }
+
+  /**
+   * Returns the stored events within a bounding box, e.g. the viewport of a
+   * map, without searching Ticketmaster.
+   *
+   * @param south The southern latitude of the box.
+   * @param west  The western longitude of the box.
+   * @param north The northern latitude of the box.
+   * @param east  The eastern longitude of the box.
+   * @return The stored events within the box.
+   */
+  public List<Event> getEventsInBounds(double south, double west, double north, double east) {
+    ensureLoaded();
+    return spatialIndex.inBounds(south, west, north, east);
+  }
+
+  /**
+   * Returns the stored events starting at or after the given instant, earliest
+   * first.
+   *
+   * @param from The instant, e.g. now.
+   * @return The upcoming stored events.
+   */
+  public List<Event> getEventsStartingFrom(Instant from) {
+    ensureLoaded();
+    return timeIndex.startingFrom(from);
+  }
+
+  /**
+   * Returns the stored events taking place on the given days, in the local time
+   * of each event.
+   *
+   * @param first The first day (inclusive).
+   * @param last  The last day (inclusive).
+   * @return The stored events on the days, by day.
+   */
+  public List<Event> getEventsOnDays(LocalDate first, LocalDate last) {
+    ensureLoaded();
+    return timeIndex.onDays(first, last);
+  }
+
+  /**
+   * Removes the events that took place more than half a day ago from the store,
+   * except for the retained (favorite) events, and saves the store.
+   *
+   * @return The number of removed events.
+   */
+  public int expirePastEvents() {
+    ensureLoaded();
+
+    synchronized (this) {
+      int removed = removeExpiredEvents();
+      if (removed > 0) {
+        save();
+      }
+      return removed;
+    }
+  }
+
+  /**
+   * Removes all cached searches, so the next searches are fetched again. The
+   * stored events are kept.
+   */
+  public void clearQueries() {
+    ensureLoaded();
+    queries.clear();
+    save();
+  }
+
+  /**
+   * Adds events to the in-memory store and the spatial index.
+   *
+   * @param newEvents The events to add.
+   */
+  private void store(Collection<Event> newEvents) {
+    ArrayList<Event> storable = newEvents.stream()
+        .filter(event -> event.getTicketmasterID() != null)
+        .collect(Collectors.toCollection(ArrayList::new));
+
+    storable.forEach(event -> events.put(event.getTicketmasterID(), event));
+    spatialIndex.addAll(storable);
+    timeIndex.addAll(storable);
+  }
+
+  /**
+   * Removes the events that took place more than half a day ago from the store
+   * and the indexes, except for the retained events. The removed events are also
+   * removed from the cached searches. Must be called holding the store's lock.
+   *
+   * @return The number of removed events.
+   */
+  private int removeExpiredEvents() {
+    lastExpiry = System.currentTimeMillis();
+    HashSet<String> retained = new HashSet<>(retainedIds.get());
+
+    HashSet<String> expiredIds = timeIndex.startingBefore(getExpiryCutoff()).stream()
+        .map(Event::getTicketmasterID)
+        .filter(id -> !retained.contains(id))
+        .collect(Collectors.toCollection(HashSet::new));
+
+    if (expiredIds.isEmpty()) {
+      return 0;
+    }
+
+    expiredIds.forEach(events::remove);
+    spatialIndex.removeAll(expiredIds);
+    timeIndex.removeAll(expiredIds);
+    queries.replaceAll((key, query) -> new EventQuery(key, query.getFetchedAt(), query.getEventIds().stream()
+        .filter(id -> !expiredIds.contains(id))
+        .collect(Collectors.toCollection(ArrayList::new))));
+
+    return expiredIds.size();
+  }
+
+  /**
+   * Returns the instant before which events are considered past.
+   *
+   * @return The expiry cutoff.
+   */
+  private static Instant getExpiryCutoff() {
+    return Instant.now().minusMillis(EXPIRY_GRACE_MILLIS);
+  }
+
+  /**
+   * Returns the Ticketmaster IDs of the favorite events of all users, including
+   * favorites saved as full copies by older versions.
+   *
+   * @return The favorite event IDs.
+   */
+  private static Collection<String> getFavoriteEventIdsOfAllUsers() {
+    HashSet<String> ids = new HashSet<>();
+
+    for (User user : new UserService().getUsers()) {
+      if (user.getFavoriteEventIds() != null) {
+        ids.addAll(user.getFavoriteEventIds());
+      }
+      if (user.getFavoriteEvents() != null) {
+        user.getFavoriteEvents().forEach(event -> ids.add(event.getTicketmasterID()));
+      }
+    }
+
+    return ids;
+  }
+
+  /**
+   * Resolves event IDs to the stored events that have not yet taken place.
+   *
+   * @param ticketmasterIDs The Ticketmaster IDs of the events.
+   * @return The current stored events, in the order of the IDs.
+   */
+  private ArrayList<Event> resolveCurrent(List<String> ticketmasterIDs) {
+    Date cutoff = Date.from(getExpiryCutoff());
+
+    return resolve(ticketmasterIDs).stream()
+        .filter(event -> event.getDateTimeStart() == null || !event.getDateTimeStart().before(cutoff))
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Resolves event IDs to the stored events.
+   *
+   * @param ticketmasterIDs The Ticketmaster IDs of the events.
+   * @return The stored events, in the order of the IDs.
+   */
+  private ArrayList<Event> resolve(List<String> ticketmasterIDs) {
+    return ticketmasterIDs.stream()
+        .filter(Objects::nonNull)
+        .map(events::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Returns whether a cached search has expired.
+   *
+   * @param query The cached search.
+   * @return true if the search was made longer ago than the expiry time.
+   */
+  private static boolean isExpired(EventQuery query) {
+    return System.currentTimeMillis() - query.getFetchedAt() > TTL_MILLIS;
+  }
+
+  /**
+   * Reads the stored events and cached searches from disk on first use.
+   */
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+
+      if (Files.exists(Paths.get(eventFile))) {
+        store(readFromFile(eventFile, Event.class));
+      }
+
+      if (Files.exists(Paths.get(queryFile))) {
+        readFromFile(queryFile, EventQuery.class).stream()
+            .filter(query -> query.getKey() != null && query.getEventIds() != null)
+            .forEach(query -> queries.put(query.getKey(), query));
+      }
+
+      removeExpiredEvents();
+      loaded = true;
+    }
+  }
+
+  /**
+   * Writes the stored events and cached searches to disk. Past events are
+   * removed first if they have not been removed within the last hour.
+   */
+  private synchronized void save() {
+    if (System.currentTimeMillis() - lastExpiry > EXPIRY_INTERVAL_MILLIS) {
+      removeExpiredEvents();
+    }
+
+    try {
+      createParentDirectories(eventFile);
+      createParentDirectories(queryFile);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return;
+    }
+
+    writeToFile(eventFile, new ArrayList<>(events.values()));
+    writeToFile(queryFile, new ArrayList<>(queries.values()));
+  }
+
+  /**
+   * Creates the parent directories of a file if they do not exist.
+   *
+   * @param filePath The path of the file.
+   * @throws IOException If the directories cannot be created.
+   */
+  private static void createParentDirectories(String filePath) throws IOException {
+    Path parent = Paths.get(filePath).getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+  }
+
+  /**
+   * Normalizes a part of a search key, so that searches differing only in case
+   * or surrounding whitespace share a key.
+   *
+   * @param value The value to normalize.
+   * @return The normalized value.
+   */
+  private static String normalize(String value) {
+    return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+  }
+}
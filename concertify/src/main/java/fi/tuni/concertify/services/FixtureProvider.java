@@ -0,0 +1,634 @@
+package fi.tuni.concertify.services;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import fi.tuni.concertify.interfaces.ArtistMetadataProvider;
+import fi.tuni.concertify.interfaces.EventProvider;
+import fi.tuni.concertify.interfaces.IdMappingProvider;
+import fi.tuni.concertify.interfaces.ImageMetadataProvider;
+import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.models.Chart;
+import fi.tuni.concertify.models.ChartEntry;
+import fi.tuni.concertify.models.Event;
+import fi.tuni.concertify.models.Track;
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.ArtistNameIndex;
+import fi.tuni.concertify.utilities.ArtistUtils;
+import fi.tuni.concertify.utilities.RankingEngine;
+
+/**
+ * Provides all external data from local fixture files instead of the HTTP
+ * APIs, so the services can be run, tested and measured reproducibly without
+ * network.
+ *
+ * The fixtures are read from the directory CONCERTIFY_FIXTURE_DIR
+ * (./fixtures by default):
+ * <ul>
+ * <li>artists.json: the artists with their IDs, Spotify details, statistics,
+ * bio and top tracks</li>
+ * <li>charts.json: the top artist and top track charts, in the format of the
+ * chart cache</li>
+ * <li>events.json: the events in the format of the Ticketmaster Discovery
+ * API</li>
+ * </ul>
+ *
+ * Each call simulates one request to an API: it waits
+ * CONCERTIFY_FIXTURE_LATENCY_MS plus a random jitter of up to
+ * CONCERTIFY_FIXTURE_JITTER_MS milliseconds, and fails with the probability
+ * CONCERTIFY_FIXTURE_ERROR_RATE (between 0 and 1). A failed call behaves like a
+ * failed request of the HTTP service it stands in for. The jitter and the
+ * failures are drawn from a random generator seeded with
+ * CONCERTIFY_FIXTURE_SEED, so a run can be repeated exactly.
+ */
+public class FixtureProvider extends IOAbstractService
+    implements ArtistMetadataProvider, EventProvider, ImageMetadataProvider, IdMappingProvider {
+  private static FixtureProvider shared;
+
+  private final String fixtureDir;
+  private final long latencyMillis;
+  private final long jitterMillis;
+  private final double errorRate;
+  private final Random random;
+  private final TicketMasterAPIService eventParser = new TicketMasterAPIService();
+  private ArrayList<FixtureArtist> artists;
+  private ArrayList<Chart> charts;
+  private ArrayList<JsonObject> events;
+
+  /**
+   * Constructs a FixtureProvider.
+   *
+   * @param fixtureDir    The directory of the fixture files.
+   * @param latencyMillis The latency of each call in milliseconds.
+   * @param jitterMillis  The maximum random latency added to each call in
+   *                      milliseconds.
+   * @param errorRate     The probability of a call failing, between 0 and 1.
+   * @param seed          The seed of the random jitter and failures.
+   */
+  public FixtureProvider(String fixtureDir, long latencyMillis, long jitterMillis, double errorRate, long seed) {
+    this.fixtureDir = fixtureDir;
+    this.latencyMillis = Math.max(0, latencyMillis);
+    this.jitterMillis = Math.max(0, jitterMillis);
+    this.errorRate = errorRate;
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Returns the fixture provider configured in the application configuration.
+   *
+   * @return The shared fixture provider.
+   */
+  public static synchronized FixtureProvider getShared() {
+    if (shared == null) {
+      shared = new FixtureProvider(
+          AppConfig.get("CONCERTIFY_FIXTURE_DIR", "./fixtures"),
+          AppConfig.getLong("CONCERTIFY_FIXTURE_LATENCY_MS", 0),
+          AppConfig.getLong("CONCERTIFY_FIXTURE_JITTER_MS", 0),
+          AppConfig.getDouble("CONCERTIFY_FIXTURE_ERROR_RATE", 0),
+          AppConfig.getLong("CONCERTIFY_FIXTURE_SEED", 42));
+    }
+    return shared;
+  }
+
+  /**
+   * Retrieves a list of artists of the fixtures either by search or top chart,
+   * looking up the details of new artists like the Last.fm service does.
+   *
+   * @param artistsFile The list of stored artists.
+   * @param method      The method to use (either "artist.search" or a chart-based
+   *                    method).
+   * @param key         The search key (artist name), or the metric to sort the
+   *                    chart by.
+   * @param country     The country of the chart (null for the global chart).
+   * @return A list of the found artists.
+   */
+  @Override
+  public ArrayList<Artist> getArtists(ArrayList<Artist> artistsFile, String method, String key, String country) {
+    boolean search = method.equals("artist.search");
+    List<ChartEntry> entries;
+
+    try {
+      simulateRequest(method);
+    } catch (IllegalStateException e) {
+      if (search) {
+        return new ArrayList<>();
+      }
+      throw e;
+    }
+
+    if (search) {
+      String keyword = key.toLowerCase(Locale.ROOT);
+      entries = getFixtureArtists().stream()
+          .filter(artist -> artist.name.toLowerCase(Locale.ROOT).contains(keyword))
+          .limit(6)
+          .map(artist -> new ChartEntry(artist.name, artist.listeners, artist.playCount))
+          .collect(Collectors.toList());
+    } else {
+      entries = RankingEngine.topK(findChartEntries("artists", country), key, 10);
+    }
+
+    ArrayList<Artist> foundArtists = new ArrayList<>();
+    HashMap<String, Artist> cachedArtists = ArtistUtils.getCachedArtists(artistsFile);
+
+    for (ChartEntry entry : entries) {
+      Artist artist = cachedArtists.get(entry.getName());
+
+      if (artist != null) {
+        artist.setListeners((int) entry.getListeners());
+        artist.setPlayCount(entry.getPlayCount());
+      } else {
+        artist = createArtist(entry);
+        artistsFile.add(artist);
+      }
+
+      foundArtists.add(artist);
+    }
+
+    ArtistNameIndex.getShared().addAll(foundArtists);
+
+    return foundArtists;
+  }
+
+  /**
+   * Searches the artists of the fixtures for suggestions, without looking up
+   * their Spotify details or storing them.
+   *
+   * @param key   The search key (artist name).
+   * @param limit The maximum number of artists to return.
+   * @return The found artists, or an empty list if the call fails.
+   */
+  @Override
+  public ArrayList<Artist> suggestArtists(String key, int limit) {
+    try {
+      simulateRequest("artist.search");
+    } catch (IllegalStateException e) {
+      return new ArrayList<>();
+    }
+
+    String keyword = key.toLowerCase(Locale.ROOT);
+    return getFixtureArtists().stream()
+        .filter(artist -> artist.name.toLowerCase(Locale.ROOT).contains(keyword))
+        .limit(limit)
+        .map(artist -> artist.mbid == null
+            ? new Artist(artist.name, (int) artist.listeners, artist.playCount)
+            : new Artist(artist.name, artist.mbid, (int) artist.listeners, artist.playCount))
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Completes a suggested artist with its Spotify details from the fixtures.
+   *
+   * @param artist The suggested artist.
+   * @return The completed artist.
+   */
+  @Override
+  public Artist enrichArtist(Artist artist) {
+    return createArtist(new ChartEntry(artist.getName(), artist.getListeners(), artist.getPlayCount()));
+  }
+
+  /**
+   * Retrieves the details of an artist of the fixtures.
+   *
+   * @param name The name of the artist.
+   * @return A map containing the artist's listeners, playcount, and bio.
+   * @throws IllegalStateException If the artist is not in the fixtures or the
+   *                               call fails.
+   */
+  @Override
+  public HashMap<String, String> getArtistInfo(String name) {
+    simulateRequest("artist.getInfo");
+    FixtureArtist artist = findArtist(name);
+
+    if (artist == null) {
+      throw new IllegalStateException("No artist in the fixtures: " + name);
+    }
+
+    HashMap<String, String> artistInfoMap = new HashMap<>();
+    artistInfoMap.put("listeners", String.valueOf(artist.listeners));
+    artistInfoMap.put("playcount", String.valueOf(artist.playCount));
+    artistInfoMap.put("bio", artist.bio != null ? artist.bio : "");
+
+    return artistInfoMap;
+  }
+
+  /**
+   * Retrieves the top tracks of an artist of the fixtures.
+   *
+   * @param key The name of the artist.
+   * @return A list of the artist's top tracks.
+   * @throws IllegalStateException If the artist is not in the fixtures or the
+   *                               call fails.
+   */
+  @Override
+  public ArrayList<Track> getArtistTopTracks(String key) {
+    simulateRequest("artist.gettoptracks");
+    FixtureArtist artist = findArtist(key);
+
+    if (artist == null) {
+      throw new IllegalStateException("No artist in the fixtures: " + key);
+    }
+
+    return artist.topTracks != null ? new ArrayList<>(artist.topTracks) : new ArrayList<>();
+  }
+
+  /**
+   * Retrieves the entries of a chart of the fixtures.
+   *
+   * @param chartType The type of the chart, either "artists" or "tracks".
+   * @param country   The country of the chart (null for the global chart).
+   * @return The chart entries, or an empty list if the call fails.
+   */
+  @Override
+  public ArrayList<ChartEntry> getChartEntries(String chartType, String country) {
+    try {
+      simulateRequest("chart." + chartType);
+    } catch (IllegalStateException e) {
+      return new ArrayList<>();
+    }
+
+    return new ArrayList<>(findChartEntries(chartType, country));
+  }
+
+  /**
+   * Retrieves the top 10 tracks of a track chart of the fixtures.
+   *
+   * @param sortBy  The metric to sort by, either "listeners" or "playcount".
+   * @param country The country of the chart (null for the global chart).
+   * @return A list of the top tracks.
+   * @throws IllegalStateException If the call fails.
+   */
+  @Override
+  public ArrayList<Track> getTopChartTracks(String sortBy, String country) {
+    simulateRequest("chart.gettoptracks");
+
+    return RankingEngine.topK(findChartEntries("tracks", country), sortBy, 10).stream()
+        .map(entry -> new Track(entry.getName(), 0, (int) entry.getListeners()))
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Searches for events in the fixtures. The keyword matches the names of the
+   * events and their artists.
+   *
+   * @param keyword  The search keyword.
+   * @param artistID The Ticketmaster ID of the artist.
+   * @param country  The country code.
+   * @param city     The city name.
+   * @return A JsonArray of at most 20 events, or null if the call fails.
+   */
+  @Override
+  public JsonArray searchEvents(String keyword, String artistID, String country, String city) {
+    try {
+      simulateRequest("events");
+    } catch (IllegalStateException e) {
+      return null;
+    }
+
+    JsonArray foundEvents = new JsonArray();
+    getFixtureEvents().stream()
+        .filter(event -> isEmpty(keyword) || containsIgnoreCase(getString(event, "name"), keyword)
+            || getAttractions(event).stream().anyMatch(
+                attraction -> containsIgnoreCase(getString(attraction, "name"), keyword)))
+        .filter(event -> isEmpty(artistID) || getAttractions(event).stream()
+            .anyMatch(attraction -> artistID.equals(getString(attraction, "id"))))
+        .filter(event -> isEmpty(country) || country.equalsIgnoreCase(getVenueField(event, "country", "countryCode")))
+        .filter(event -> isEmpty(city) || city.equalsIgnoreCase(getVenueField(event, "city", "name")))
+        .limit(20)
+        .forEach(event -> foundEvents.add(event.deepCopy()));
+
+    return foundEvents;
+  }
+
+  /**
+   * Searches for the artists of the fixture events by name.
+   *
+   * @param keyword The search keyword.
+   * @return A JsonArray of at most 20 artists, or null if the call fails.
+   */
+  @Override
+  public JsonArray searchArtists(String keyword) {
+    try {
+      simulateRequest("attractions");
+    } catch (IllegalStateException e) {
+      return null;
+    }
+
+    LinkedHashMap<String, JsonObject> attractions = new LinkedHashMap<>();
+    getFixtureEvents().stream()
+        .flatMap(event -> getAttractions(event).stream())
+        .filter(attraction -> isEmpty(keyword) || containsIgnoreCase(getString(attraction, "name"), keyword))
+        .forEach(attraction -> attractions.putIfAbsent(getString(attraction, "id"), attraction));
+
+    JsonArray foundArtists = new JsonArray();
+    attractions.values().stream()
+        .limit(20)
+        .forEach(attraction -> foundArtists.add(attraction.deepCopy()));
+
+    return foundArtists;
+  }
+
+  /**
+   * Converts a JsonArray of events into a list of Event objects, like the
+   * Ticketmaster service does.
+   *
+   * @param events A JsonArray of events in the Ticketmaster format.
+   * @return A list of the events.
+   */
+  @Override
+  public ArrayList<Event> getEvents(JsonArray events) {
+    return eventParser.getEvents(events);
+  }
+
+  /**
+   * Retrieves the Spotify ID of an artist of the fixtures.
+   *
+   * @param mbid The MusicBrainz ID of the artist.
+   * @return The Spotify ID of the artist, or null if not found or the call
+   *         fails.
+   */
+  @Override
+  public String getSpotifyId(String mbid) {
+    try {
+      simulateRequest("musicbrainz");
+    } catch (IllegalStateException e) {
+      return null;
+    }
+
+    return getFixtureArtists().stream()
+        .filter(artist -> mbid.equals(artist.mbid))
+        .map(artist -> artist.spotifyId)
+        .filter(Objects::nonNull)
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Retrieves the Spotify URL and profile picture URL of an artist of the
+   * fixtures.
+   *
+   * @param spotifyId The Spotify ID of the artist.
+   * @return A HashMap containing the "spotifyUrl" and "profilePicture", or null
+   *         if not found or the call fails.
+   */
+  @Override
+  public HashMap<String, String> getArtistUrlAndAvatar(String spotifyId) {
+    try {
+      simulateRequest("spotify");
+    } catch (IllegalStateException e) {
+      return null;
+    }
+
+    FixtureArtist artist = getFixtureArtists().stream()
+        .filter(fixtureArtist -> spotifyId.equals(fixtureArtist.spotifyId))
+        .findFirst()
+        .orElse(null);
+
+    if (artist == null) {
+      return null;
+    }
+
+    HashMap<String, String> result = new HashMap<>();
+    result.put("spotifyUrl", artist.spotifyUrl);
+    result.put("profilePicture", artist.profilePicture != null ? artist.profilePicture : "/images/music-note.png");
+
+    return result;
+  }
+
+  /**
+   * Simulates a request: waits for the configured latency and jitter, and fails
+   * with the configured probability.
+   *
+   * @param operation The name of the simulated request, for the error message.
+   * @throws IllegalStateException If the request fails.
+   */
+  private void simulateRequest(String operation) {
+    long delay;
+    boolean fails;
+
+    synchronized (random) {
+      delay = latencyMillis + (jitterMillis > 0 ? (long) (random.nextDouble() * (jitterMillis + 1)) : 0);
+      fails = errorRate > 0 && random.nextDouble() < errorRate;
+    }
+
+    if (delay > 0) {
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    if (fails) {
+      throw new IllegalStateException("Injected failure of " + operation);
+    }
+  }
+
+  /**
+   * Creates a new artist from a chart entry, looking up its IDs and Spotify
+   * details like the Last.fm service does.
+   *
+   * @param entry The chart entry of the artist.
+   * @return The new artist.
+   */
+  private Artist createArtist(ChartEntry entry) {
+    FixtureArtist fixture = findArtist(entry.getName());
+    int listeners = (int) entry.getListeners();
+
+    if (fixture == null || fixture.mbid == null) {
+      return new Artist(entry.getName(), listeners, entry.getPlayCount());
+    }
+
+    String spotifyId = getSpotifyId(fixture.mbid);
+    HashMap<String, String> spotifyData = spotifyId != null ? getArtistUrlAndAvatar(spotifyId) : null;
+
+    if (spotifyData == null) {
+      return new Artist(entry.getName(), fixture.mbid, listeners, entry.getPlayCount());
+    }
+
+    return new Artist(entry.getName(), fixture.mbid, spotifyId, spotifyData.get("spotifyUrl"),
+        spotifyData.get("profilePicture"), listeners, entry.getPlayCount());
+  }
+
+  /**
+   * Finds an artist of the fixtures by name.
+   *
+   * @param name The name of the artist.
+   * @return The artist, or null if not found.
+   */
+  private FixtureArtist findArtist(String name) {
+    return getFixtureArtists().stream()
+        .filter(artist -> artist.name.equalsIgnoreCase(name))
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Finds the entries of a chart of the fixtures.
+   *
+   * @param chartType The type of the chart, either "artists" or "tracks".
+   * @param country   The country of the chart (null for the global chart).
+   * @return The entries of the chart, or an empty list if not found.
+   */
+  private List<ChartEntry> findChartEntries(String chartType, String country) {
+    return getFixtureCharts().stream()
+        .filter(chart -> chartType.equals(chart.getChartType()) && Objects.equals(country, chart.getCountry()))
+        .map(Chart::getEntries)
+        .filter(Objects::nonNull)
+        .findFirst()
+        .orElse(new ArrayList<>());
+  }
+
+  /**
+   * Returns the attractions (artists) of an event.
+   *
+   * @param event The event in the Ticketmaster format.
+   * @return The attractions of the event.
+   */
+  private List<JsonObject> getAttractions(JsonObject event) {
+    JsonObject embedded = event.getAsJsonObject("_embedded");
+    JsonArray attractions = embedded != null ? embedded.getAsJsonArray("attractions") : null;
+
+    if (attractions == null) {
+      return new ArrayList<>();
+    }
+
+    return StreamSupport.stream(attractions.spliterator(), false)
+        .map(JsonElement::getAsJsonObject)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns a field of an object of the first venue of an event, e.g. the
+   * country code of the venue's country.
+   *
+   * @param event  The event in the Ticketmaster format.
+   * @param object The name of the object in the venue.
+   * @param field  The name of the field in the object.
+   * @return The value of the field, or null if not found.
+   */
+  private String getVenueField(JsonObject event, String object, String field) {
+    JsonObject embedded = event.getAsJsonObject("_embedded");
+    JsonArray venues = embedded != null ? embedded.getAsJsonArray("venues") : null;
+
+    if (venues == null || venues.size() == 0) {
+      return null;
+    }
+
+    JsonObject venueObject = venues.get(0).getAsJsonObject().getAsJsonObject(object);
+    return venueObject != null ? getString(venueObject, field) : null;
+  }
+
+  /**
+   * Returns a string field of a JSON object.
+   *
+   * @param object The JSON object.
+   * @param field  The name of the field.
+   * @return The value of the field, or null if not found.
+   */
+  private String getString(JsonObject object, String field) {
+    JsonElement element = object.get(field);
+    return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+  }
+
+  /**
+   * Returns whether a search parameter is not given.
+   *
+   * @param value The search parameter.
+   * @return true if the parameter is null or empty, false otherwise.
+   */
+  private boolean isEmpty(String value) {
+    return value == null || value.isEmpty();
+  }
+
+  /**
+   * Returns whether a value contains a keyword, ignoring case.
+   *
+   * @param value   The value, or null.
+   * @param keyword The keyword.
+   * @return true if the value contains the keyword, false otherwise.
+   */
+  private boolean containsIgnoreCase(String value, String keyword) {
+    return value != null && value.toLowerCase(Locale.ROOT).contains(keyword.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * Returns the artists of the fixtures, reading them on first use.
+   *
+   * @return The artists of the fixtures.
+   */
+  private synchronized ArrayList<FixtureArtist> getFixtureArtists() {
+    if (artists == null) {
+      artists = readFixture("artists.json", FixtureArtist.class);
+      artists.removeIf(artist -> artist.name == null);
+    }
+    return artists;
+  }
+
+  /**
+   * Returns the charts of the fixtures, reading them on first use.
+   *
+   * @return The charts of the fixtures.
+   */
+  private synchronized ArrayList<Chart> getFixtureCharts() {
+    if (charts == null) {
+      charts = readFixture("charts.json", Chart.class);
+    }
+    return charts;
+  }
+
+  /**
+   * Returns the events of the fixtures, reading them on first use.
+   *
+   * @return The events of the fixtures.
+   */
+  private synchronized ArrayList<JsonObject> getFixtureEvents() {
+    if (events == null) {
+      events = readFixture("events.json", JsonObject.class);
+    }
+    return events;
+  }
+
+  /**
+   * Reads a fixture file, or returns an empty list if the file does not exist.
+   *
+   * @param fileName  The name of the file in the fixture directory.
+   * @param typeClass The class type of the objects to read.
+   * @return The objects of the fixture.
+   */
+  private <T> ArrayList<T> readFixture(String fileName, Class<T> typeClass) {
+    File file = new File(fixtureDir, fileName);
+
+    if (!file.exists()) {
+      return new ArrayList<>();
+    }
+
+    return readFromFile(file.getPath(), typeClass);
+  }
+
+  /**
+   * An artist of the fixtures.
+   */
+  private static class FixtureArtist {
+    private String name;
+    private String mbid;
+    private String spotifyId;
+    private String spotifyUrl;
+    private String profilePicture;
+    private long listeners;
+    private long playCount;
+    private String bio;
+    private ArrayList<Track> topTracks;
+  }
+}
@@ -5,9 +5,18 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -15,6 +24,9 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 
+import fi.tuni.concertify.utilities.OfflineMode;
+import fi.tuni.concertify.utilities.RequestScheduler;
+
 /**
  * Abstract service class providing methods for reading from and writing to
  * files,
@@ -22,6 +34,8 @@ import com.google.gson.JsonParser;
  */
 public abstract class IOAbstractService {
 
+  private static final ConcurrentHashMap<String, ReentrantReadWriteLock> fileLocks = new ConcurrentHashMap<>();
+
   private final Gson gson;
 
   /**
@@ -42,6 +56,9 @@ public abstract class IOAbstractService {
    * @return The JSON data read from the file as an ArrayList of objects.
    */
   public <T> ArrayList<T> readFromFile(String filePath, Class<T> typeClass) {
+    ReentrantReadWriteLock lock = getFileLock(filePath);
+    lock.readLock().lock();
+
     try (FileReader fileReader = new FileReader(filePath)) {
       JsonElement jsonElement = JsonParser.parseReader(fileReader);
 
@@ -58,47 +75,125 @@ public abstract class IOAbstractService {
     } catch (IOException e) {
       e.printStackTrace();
       return new ArrayList<>();
+    } finally {
+      lock.readLock().unlock();
     }
   }
 
   /**
    * Writes the provided data to a file at the specified file path.
+   * The data is written to a temporary file first, which then replaces the file,
+   * so that readers never see a partially written file.
    *
    * @param filePath The path where the JSON data will be written.
    * @param data     The data to be written to the file.
    */
   public <T> void writeToFile(String filePath, ArrayList<T> data) {
-    try (FileWriter fileWriter = new FileWriter(filePath)) {
-      gson.toJson(data, fileWriter);
+    ReentrantReadWriteLock lock = getFileLock(filePath);
+    lock.writeLock().lock();
+
+    try {
+      Path target = Paths.get(filePath);
+      Path tempFile = Paths.get(filePath + ".tmp");
+
+      try (FileWriter fileWriter = new FileWriter(tempFile.toFile())) {
+        gson.toJson(data, fileWriter);
+      }
+
+      try {
+        Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+      }
     } catch (IOException e) {
       e.printStackTrace();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Reads, modifies and writes back a JSON file as a single atomic operation.
+   * Use this instead of separate reads and writes when the file can be modified
+   * concurrently (e.g. by background searches), so no update is lost.
+   *
+   * @param filePath  The path of the JSON file.
+   * @param typeClass The class type of the objects in the file.
+   * @param update    The modification to apply to the data read from the file.
+   */
+  public <T> void updateFile(String filePath, Class<T> typeClass, Consumer<ArrayList<T>> update) {
+    ReentrantReadWriteLock lock = getFileLock(filePath);
+    lock.writeLock().lock();
+
+    try {
+      ArrayList<T> data = readFromFile(filePath, typeClass);
+      update.accept(data);
+      writeToFile(filePath, data);
+    } finally {
+      lock.writeLock().unlock();
     }
   }
 
+  /**
+   * Returns the lock guarding the file at the given path. All services share
+   * the same lock for a file.
+   *
+   * @param filePath The path of the file.
+   * @return The read-write lock of the file.
+   */
+  private static ReentrantReadWriteLock getFileLock(String filePath) {
+    return fileLocks.computeIfAbsent(Paths.get(filePath).normalize().toString(),
+        path -> new ReentrantReadWriteLock());
+  }
+
   /**
    * Retrieves data from an external API using the provided URL.
+   * The request is scheduled by the priority of the calling thread and waits
+   * for the rate limiter of the API host first (see {@link RequestScheduler}).
+   * While the application is offline the request is not sent, and a request
+   * failing because the network is unreachable switches to offline mode (see
+   * {@link OfflineMode}).
    * 
    * @param apiUrl the URL of the API to fetch data from
    * @return the raw JSON response from the API
-   * @throws IOException if an error occurs while reading from the API
+   * @throws IOException if an error occurs while reading from the API, or an
+   *                     {@link OfflineMode.OfflineException} if the application is offline
    */
   public String retrieveDataFromAPI(String apiUrl) throws IOException {
     URL url = new URL(apiUrl);
-    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-    connection.setRequestMethod("GET");
-    int responseCode = connection.getResponseCode();
-
-    if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
-      BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-      StringBuilder response = new StringBuilder();
-      String line;
-      while ((line = reader.readLine()) != null) {
-        response.append(line);
+    OfflineMode.checkOnline(url.getHost());
+
+    RequestScheduler.Slot slot;
+
+    try {
+      slot = RequestScheduler.getShared().acquire(url.getHost());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the request scheduler.");
+    }
+
+    try {
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setRequestMethod("GET");
+      int responseCode = connection.getResponseCode();
+
+      if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
+        StringBuilder response = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+          response.append(line);
+        }
+        reader.close();
+        connection.disconnect();
+        return response.toString();
       }
-      reader.close();
-      connection.disconnect();
-      return response.toString();
+      throw new IOException("Failed to retrieve data from the API. Response code: " + responseCode);
+    } catch (IOException e) {
+      OfflineMode.reportFailure(url.getHost(), e);
+      throw e;
+    } finally {
+      slot.close();
     }
-    throw new IOException("Failed to retrieve data from the API. Response code: " + responseCode);
   }
 }
\ No newline at end of file
@@ -2,11 +2,7 @@ package fi.tuni.concertify.services;
 
 import java.net.URLEncoder;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
@@ -14,10 +10,18 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
+import fi.tuni.concertify.interfaces.ArtistMetadataProvider;
+import fi.tuni.concertify.interfaces.IdMappingProvider;
+import fi.tuni.concertify.interfaces.ImageMetadataProvider;
 import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.models.ChartEntry;
 import fi.tuni.concertify.models.Track;
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.ArtistNameIndex;
 import fi.tuni.concertify.utilities.ArtistUtils;
-import io.github.cdimascio.dotenv.Dotenv;
+import fi.tuni.concertify.utilities.HttpRecorder;
+import fi.tuni.concertify.utilities.OfflineMode.OfflineException;
+import fi.tuni.concertify.utilities.RankingEngine;
 
 /**
  * Service class to interact with the Last.fm API to fetch data related to
@@ -27,13 +31,13 @@ import io.github.cdimascio.dotenv.Dotenv;
  * The class also enriches the retrieved data with additional information from
  * MusicBrainz and Spotify where possible.
  */
-public class LastFmAPIService extends IOAbstractService {
-  private static final Dotenv dotenv = Dotenv.load();
-  private final String LASTFM_API_PREFIX = "https://ws.audioscrobbler.com/2.0/";
-  private final String LASTFM_API_KEY = dotenv.get("LASTFM_API_KEY");
+public class LastFmAPIService extends IOAbstractService implements ArtistMetadataProvider {
+  private static final String LASTFM_API_PREFIX = AppConfig.get("CONCERTIFY_LASTFM_URL",
+      "https://ws.audioscrobbler.com/2.0/");
+  private final String LASTFM_API_KEY = AppConfig.get("LASTFM_API_KEY");
   private final String LASTFM_API_SUFFIX = String.format("&api_key=%s&format=json", LASTFM_API_KEY);
-  private MusicBrainzAPIService musicBrainzAPIService = new MusicBrainzAPIService();
-  private SpotifyAPIService spotifyAPIService = new SpotifyAPIService();
+  private IdMappingProvider musicBrainzAPIService = new MusicBrainzAPIService();
+  private ImageMetadataProvider spotifyAPIService = new SpotifyAPIService();
 
   /**
    * Fetches data from the Last.fm API based on the provided method, key, and
@@ -65,6 +69,9 @@ public class LastFmAPIService extends IOAbstractService {
       String apiURL = String.format("%s%s&limit=%d%s", LASTFM_API_PREFIX, methodString, limit, LASTFM_API_SUFFIX);
 
       data = retrieveDataFromAPI(apiURL);
+      HttpRecorder.record("lastfm", LASTFM_API_PREFIX, apiURL, data);
+    } catch (OfflineException e) {
+      // The callers answer from the local caches while offline
     } catch (Exception e) {
       e.printStackTrace();
     }
@@ -75,13 +82,14 @@ public class LastFmAPIService extends IOAbstractService {
   /**
    * Searches for artists on Last.fm based on a given search key.
    * 
-   * @param key The search key (artist name).
+   * @param key   The search key (artist name).
+   * @param limit The number of results to return.
    * @return A JSON array of artist results from the Last.fm API, or an empty
    *         array if an error occurs.
    */
-  private JsonArray searchArtists(String key) {
+  private JsonArray searchArtists(String key, int limit) {
     try {
-      String data = getDataOnLastFM("artist.search", key, 6);
+      String data = getDataOnLastFM("artist.search", key, limit);
       JsonObject jsonObject = new Gson().fromJson(data, JsonObject.class);
       JsonObject results = jsonObject.getAsJsonObject("results");
       JsonObject artistmatches = results.getAsJsonObject("artistmatches");
@@ -110,19 +118,71 @@ public class LastFmAPIService extends IOAbstractService {
     JsonObject chart = jsonObject.getAsJsonObject(country == null ? "artists" : "topartists");
     JsonArray artists = chart.getAsJsonArray("artist");
 
-    List<JsonObject> sortedList = StreamSupport.stream(artists.spliterator(), false)
-        .map(JsonElement::getAsJsonObject)
-        .sorted(Comparator.comparing(
-            o -> sortBy.equals("listeners")
-                ? Integer.parseInt(o.get(sortBy).getAsString())
-                : Long.parseLong(o.get(sortBy).getAsString()),
-            Comparator.reverseOrder()))
-        .collect(Collectors.toList());
+    return selectTop(artists, sortBy, 10);
+  }
+
+  /**
+   * Selects the items of a chart with the highest value of the given metric.
+   * The metric is parsed once per item and the top items are selected with the
+   * RankingEngine instead of sorting the whole chart.
+   * 
+   * @param items  The items of the chart.
+   * @param sortBy The metric to sort by, either "listeners" or "playcount".
+   * @param limit  The maximum number of items to select.
+   * @return A JSON array of the top items, highest value first.
+   */
+  private JsonArray selectTop(JsonArray items, String sortBy, int limit) {
+    long[] values = new long[items.size()];
+    for (int i = 0; i < values.length; i++) {
+      JsonElement value = items.get(i).getAsJsonObject().get(sortBy);
+      values[i] = value != null ? Long.parseLong(value.getAsString()) : 0;
+    }
+
+    JsonArray topItems = new JsonArray();
+    for (int index : RankingEngine.topIndices(values, limit)) {
+      topItems.add(items.get(index));
+    }
+
+    return topItems;
+  }
+
+  /**
+   * Retrieves the raw entries of a top artist or top track chart, either global
+   * or for a country, in the order returned by Last.fm. The entries are not
+   * enriched or sorted, so the same chart can be sorted by any metric without
+   * being fetched again.
+   * 
+   * @param chartType The type of the chart, either "artists" or "tracks".
+   * @param country   The country of the chart (null for the global chart).
+   * @return The chart entries, or an empty list if an error occurs.
+   */
+  @Override
+  public ArrayList<ChartEntry> getChartEntries(String chartType, String country) {
+    ArrayList<ChartEntry> entries = new ArrayList<>();
+    boolean artists = chartType.equals("artists");
+    String method = (country == null ? "chart.gettop" : "geo.gettop") + chartType;
 
-    JsonArray sortedArtists = new JsonArray();
-    sortedList.stream().limit(10).forEach(sortedArtists::add);
+    try {
+      String data = getDataOnLastFM(method, country == null ? "" : country, 50);
+      JsonObject jsonObject = new Gson().fromJson(data, JsonObject.class);
+      JsonObject chart = jsonObject.getAsJsonObject(artists && country != null ? "topartists" : chartType);
+      JsonArray items = chart.getAsJsonArray(artists ? "artist" : "track");
+
+      items.forEach(element -> {
+        JsonObject item = element.getAsJsonObject();
+        JsonElement listenerEl = item.get("listeners");
+        JsonElement playCountEl = item.get("playcount");
+
+        entries.add(new ChartEntry(
+            item.get("name").getAsString(),
+            listenerEl != null ? Long.parseLong(listenerEl.getAsString()) : 0,
+            playCountEl != null ? Long.parseLong(playCountEl.getAsString()) : 0));
+      });
+    } catch (Exception e) {
+      e.printStackTrace();
+    }
 
-    return sortedArtists;
+    return entries;
   }
 
   /**
@@ -138,61 +198,111 @@ public class LastFmAPIService extends IOAbstractService {
    * @return A list of Artist objects containing enriched information from
    *         Last.fm, MusicBrainz, and Spotify.
    */
+  @Override
   public ArrayList<Artist> getArtists(ArrayList<Artist> artistsFile, String method, String key, String country) {
-    JsonArray artists = method.equals("artist.search") ? searchArtists(key) : getTopChartArtist(key, country);
+    JsonArray artists = method.equals("artist.search") ? searchArtists(key, 6) : getTopChartArtist(key, country);
     ArrayList<Artist> searchArtists = new ArrayList<>();
     HashMap<String, Artist> cachedArtists = ArtistUtils.getCachedArtists(artistsFile);
 
     artists.forEach(element -> {
-      Artist newArtist;
-      JsonObject artistJson = element.getAsJsonObject();
-      String name = artistJson.get("name").getAsString();
-
-      JsonElement listenerEl = artistJson.get("listeners");
-      JsonElement playCountEl = artistJson.get("playcount");
-
-      int listeners = listenerEl != null ? Integer.parseInt(listenerEl.getAsString()) : 0;
-      long playCount = playCountEl != null ? Long.parseLong(playCountEl.getAsString()) : 0;
+      // Stop enriching the remaining artists if the search has been cancelled
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
 
-      Artist cached = cachedArtists.get(name);
+      Artist newArtist = parseArtist(element.getAsJsonObject());
+      Artist cached = cachedArtists.get(newArtist.getName());
 
       if (cached != null) {
+        cached.setListeners(newArtist.getListeners());
+        cached.setPlayCount(newArtist.getPlayCount());
         newArtist = cached;
-        newArtist.setListeners(listeners);
-        newArtist.setPlayCount(playCount);
       } else {
-        String mbid = artistJson.has("mbid") && !artistJson.get("mbid").getAsString().isEmpty()
-            ? artistJson.get("mbid").getAsString()
-            : null;
-        if (mbid == null) {
-          newArtist = new Artist(name, listeners, playCount);
-        } else {
-          String spotifyId = musicBrainzAPIService.getSpotifyId(mbid);
-          if (spotifyId == null) {
-            newArtist = new Artist(name, mbid, listeners, playCount);
-          } else {
-            HashMap<String, String> spotifyData = spotifyAPIService.getArtistUrlAndAvatar(spotifyId);
-            String spotifyUrl = spotifyData.get("spotifyUrl");
-            String profilePicture = spotifyData.get("profilePicture");
-
-            newArtist = new Artist(name, mbid, spotifyId, spotifyUrl, profilePicture, listeners, playCount);
-          }
-        }
+        newArtist = enrichArtist(newArtist);
         artistsFile.add(newArtist);
       }
 
       searchArtists.add(newArtist);
     });
 
+    ArtistNameIndex.getShared().addAll(searchArtists);
+
     return searchArtists;
   }
 
+  /**
+   * Searches for artists on Last.fm for suggestions, without looking up their
+   * Spotify details or storing them.
+   * 
+   * @param key   The search key (artist name).
+   * @param limit The maximum number of artists to return.
+   * @return The found artists.
+   */
+  @Override
+  public ArrayList<Artist> suggestArtists(String key, int limit) {
+    ArrayList<Artist> suggestedArtists = new ArrayList<>();
+    searchArtists(key, limit).forEach(element -> suggestedArtists.add(parseArtist(element.getAsJsonObject())));
+    return suggestedArtists;
+  }
+
+  /**
+   * Completes an artist with its Spotify ID, URL and profile picture, looked up
+   * through its MusicBrainz ID. An artist without a MusicBrainz ID or Spotify
+   * profile is returned as is.
+   * 
+   * @param artist The artist found on Last.fm.
+   * @return The artist with its Spotify details.
+   */
+  @Override
+  public Artist enrichArtist(Artist artist) {
+    String mbid = artist.getMusicBrainzId();
+
+    if (mbid == null) {
+      return artist;
+    }
+
+    String spotifyId = musicBrainzAPIService.getSpotifyId(mbid);
+    HashMap<String, String> spotifyData = spotifyId != null
+        ? spotifyAPIService.getArtistUrlAndAvatar(spotifyId)
+        : null;
+
+    if (spotifyData == null) {
+      return artist;
+    }
+
+    return new Artist(artist.getName(), mbid, spotifyId, spotifyData.get("spotifyUrl"),
+        spotifyData.get("profilePicture"), artist.getListeners(), artist.getPlayCount());
+  }
+
+  /**
+   * Parses an artist of a Last.fm search or chart result.
+   * 
+   * @param artistJson The artist of the result.
+   * @return The artist with its name, statistics and MusicBrainz ID.
+   */
+  private Artist parseArtist(JsonObject artistJson) {
+    String name = artistJson.get("name").getAsString();
+
+    JsonElement listenerEl = artistJson.get("listeners");
+    JsonElement playCountEl = artistJson.get("playcount");
+
+    int listeners = listenerEl != null ? Integer.parseInt(listenerEl.getAsString()) : 0;
+    long playCount = playCountEl != null ? Long.parseLong(playCountEl.getAsString()) : 0;
+
+    String mbid = artistJson.has("mbid") && !artistJson.get("mbid").getAsString().isEmpty()
+        ? artistJson.get("mbid").getAsString()
+        : null;
+
+    return mbid == null ? new Artist(name, listeners, playCount) : new Artist(name, mbid, listeners, playCount);
+  }
+
   /**
    * Retrieves detailed information about an artist from Last.fm.
    * 
    * @param name The name of the artist.
    * @return A map containing the artist's listeners, playcount, and bio.
    */
+  @Override
   public HashMap<String, String> getArtistInfo(String name) {
     HashMap<String, String> artistInfoMap = new HashMap<>();
 
@@ -220,6 +330,7 @@ public class LastFmAPIService extends IOAbstractService {
    *         artist.
    *         Each track contains the track name, playcount, and listeners.
    */
+  @Override
   public ArrayList<Track> getArtistTopTracks(String key) {
     ArrayList<Track> topTracks = new ArrayList<>();
 
@@ -255,6 +366,7 @@ public class LastFmAPIService extends IOAbstractService {
    * @return A list of Track objects representing the top tracks.
    *         Each track contains the track name and number of listeners.
    */
+  @Override
   public ArrayList<Track> getTopChartTracks(String sortBy, String country) {
     ArrayList<Track> topTracks = new ArrayList<>();
 
@@ -266,17 +378,7 @@ public class LastFmAPIService extends IOAbstractService {
     JsonObject chart = jsonObject.getAsJsonObject("tracks");
     JsonArray tracks = chart.getAsJsonArray("track");
 
-    List<JsonObject> sortedList = StreamSupport.stream(tracks.spliterator(), false)
-        .map(JsonElement::getAsJsonObject)
-        .sorted(Comparator.comparing(
-            o -> sortBy.equals("listeners")
-                ? Integer.parseInt(o.get(sortBy).getAsString())
-                : Long.parseLong(o.get(sortBy).getAsString()),
-            Comparator.reverseOrder()))
-        .collect(Collectors.toList());
-
-    JsonArray sortedTracks = new JsonArray();
-    sortedList.stream().limit(10).forEach(sortedTracks::add);
+    JsonArray sortedTracks = selectTop(tracks, sortBy, 10);
 
     sortedTracks.forEach(trackElement -> {
       JsonObject trackObject = trackElement.getAsJsonObject();
@@ -5,12 +5,18 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import fi.tuni.concertify.interfaces.IdMappingProvider;
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.HttpRecorder;
+import fi.tuni.concertify.utilities.OfflineMode.OfflineException;
+
 /**
  * Service class for interacting with the MusicBrainz API.
  * This class provides methods to retrieve artist information and Spotify IDs.
  */
-public class MusicBrainzAPIService extends IOAbstractService {
-  private static final String MUSICBRAINZ_API_PREFIX = "https://musicbrainz.org/ws/2/artist/";
+public class MusicBrainzAPIService extends IOAbstractService implements IdMappingProvider {
+  private static final String MUSICBRAINZ_API_PREFIX = AppConfig.get("CONCERTIFY_MUSICBRAINZ_URL",
+      "https://musicbrainz.org/ws/2/artist/");
   private static final String MUSICBRAINZ_API_SUFFIX = "?inc=url-rels&fmt=json";
 
   /**
@@ -40,6 +46,9 @@ public class MusicBrainzAPIService extends IOAbstractService {
 
     try {
       data = retrieveDataFromAPI(apiURL);
+      HttpRecorder.record("musicbrainz", MUSICBRAINZ_API_PREFIX, apiURL, data);
+    } catch (OfflineException e) {
+      // The callers answer from the local caches while offline
     } catch (Exception e) {
       e.printStackTrace();
     }
@@ -53,6 +62,7 @@ public class MusicBrainzAPIService extends IOAbstractService {
    * @param mbid The MusicBrainz ID of the artist.
    * @return The Spotify ID of the artist, or null if not found.
    */
+  @Override
   public String getSpotifyId(String mbid) {
     String data = getDataOnMusicBrainz("get-artist-info", mbid, 0);
 
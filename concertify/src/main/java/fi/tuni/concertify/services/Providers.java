@@ -0,0 +1,69 @@
+package fi.tuni.concertify.services;
+
+import fi.tuni.concertify.interfaces.ArtistMetadataProvider;
+import fi.tuni.concertify.interfaces.EventProvider;
+import fi.tuni.concertify.interfaces.IdMappingProvider;
+import fi.tuni.concertify.interfaces.ImageMetadataProvider;
+import fi.tuni.concertify.utilities.AppConfig;
+
+/**
+ * Creates the providers of the external data used by the services.
+ *
+ * By default the data is fetched over HTTP from Last.fm, Ticketmaster,
+ * MusicBrainz and Spotify. With CONCERTIFY_PROVIDERS=fixture (or
+ * -Dconcertify.providers=fixture) all data is read from the local fixture
+ * files instead (see {@link FixtureProvider}), so the services can be run and
+ * measured without network.
+ */
+public class Providers {
+  private static final boolean FIXTURE = AppConfig.get("CONCERTIFY_PROVIDERS", "http").trim()
+      .equalsIgnoreCase("fixture");
+
+  private Providers() {
+  }
+
+  /**
+   * Returns whether the fixture providers are used instead of the HTTP APIs.
+   *
+   * @return true if the fixture providers are used, false otherwise.
+   */
+  public static boolean isFixture() {
+    return FIXTURE;
+  }
+
+  /**
+   * Returns a provider of artist statistics and charts.
+   *
+   * @return The Last.fm service, or the fixture provider.
+   */
+  public static ArtistMetadataProvider artistMetadata() {
+    return FIXTURE ? FixtureProvider.getShared() : new LastFmAPIService();
+  }
+
+  /**
+   * Returns a provider of events.
+   *
+   * @return The Ticketmaster service, or the fixture provider.
+   */
+  public static EventProvider events() {
+    return FIXTURE ? FixtureProvider.getShared() : new TicketMasterAPIService();
+  }
+
+  /**
+   * Returns a provider of artist profile pictures and links.
+   *
+   * @return The Spotify service, or the fixture provider.
+   */
+  public static ImageMetadataProvider imageMetadata() {
+    return FIXTURE ? FixtureProvider.getShared() : new SpotifyAPIService();
+  }
+
+  /**
+   * Returns a provider of artist ID mappings.
+   *
+   * @return The MusicBrainz service, or the fixture provider.
+   */
+  public static IdMappingProvider idMapping() {
+    return FIXTURE ? FixtureProvider.getShared() : new MusicBrainzAPIService();
+  }
+}
@@ -1,6 +1,8 @@
 package fi.tuni.concertify.services;
 
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
@@ -12,26 +14,33 @@ import java.util.HashMap;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import io.github.cdimascio.dotenv.Dotenv;
+
+import fi.tuni.concertify.interfaces.ImageMetadataProvider;
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.HttpRecorder;
+import fi.tuni.concertify.utilities.OfflineMode;
+import fi.tuni.concertify.utilities.OfflineMode.OfflineException;
+import fi.tuni.concertify.utilities.RequestScheduler;
 
 /**
  * Service class for interacting with the Spotify API.
  * This class provides methods to retrieve artist information and handle access
  * token management.
  */
-public class SpotifyAPIService extends IOAbstractService {
+public class SpotifyAPIService extends IOAbstractService implements ImageMetadataProvider {
   private final String SPOTIFY_TOKEN_DB = "./database/spotify_token.json";
-  private final String SPOTIFY_TOKEN_URL = "https://accounts.spotify.com/api/token";
-  private final String SPOTIFY_ARTIST_API = "https://api.spotify.com/v1/artists/";
 
-  private static final Dotenv dotenv = Dotenv.load();
-  private static final String SPOTIFY_CLIENT_ID = System.getenv("SPOTIFY_CLIENT_ID");
-  private static final String SPOTIFY_CLIENT_SECRET = dotenv.get("SPOTIFY_CLIENT_SECRET");
+  private static final String SPOTIFY_TOKEN_URL = AppConfig.get("CONCERTIFY_SPOTIFY_TOKEN_URL",
+      "https://accounts.spotify.com/api/token");
+  private static final String SPOTIFY_ARTIST_API = AppConfig.get("CONCERTIFY_SPOTIFY_URL",
+      "https://api.spotify.com/v1/artists/");
+  private static final String SPOTIFY_CLIENT_ID = AppConfig.get("SPOTIFY_CLIENT_ID");
+  private static final String SPOTIFY_CLIENT_SECRET = AppConfig.get("SPOTIFY_CLIENT_SECRET");
 
   private final Gson gson = new Gson();
-  private ArrayList<AccessToken> savedTokens = readFromFile(SPOTIFY_TOKEN_DB, AccessToken.class);
-  public String accessToken = savedTokens.size() > 0 ? savedTokens.get(0).getAccessToken() : null;
-  private long tokenExpirationTime = savedTokens.size() > 0 ? savedTokens.get(0).getTokenExpirationTime() : 0;
+  private boolean savedTokenLoaded = false;
+  public String accessToken;
+  private long tokenExpirationTime;
 
   /**
    * Retrieves information about an artist from Spotify using their artist ID.
@@ -41,22 +50,34 @@ public class SpotifyAPIService extends IOAbstractService {
    * @throws Exception If an error occurs during the API call.
    */
   public String getArtist(String artistId) throws Exception {
-    ensureValidAccessToken();
-
     URL url = new URL(SPOTIFY_ARTIST_API + artistId);
-    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-    conn.setRequestMethod("GET");
-    conn.setRequestProperty("Authorization", "Bearer " + accessToken);
+    OfflineMode.checkOnline(url.getHost());
+    ensureValidAccessToken();
 
-    BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
     StringBuilder content = new StringBuilder();
-    String inputLine;
-    while ((inputLine = in.readLine()) != null) {
-      content.append(inputLine);
+
+    RequestScheduler.Slot slot = RequestScheduler.getShared().acquire(url.getHost());
+
+    try {
+      HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+      conn.setRequestMethod("GET");
+      conn.setRequestProperty("Authorization", "Bearer " + accessToken);
+
+      BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
+      String inputLine;
+      while ((inputLine = in.readLine()) != null) {
+        content.append(inputLine);
+      }
+      in.close();
+      conn.disconnect();
+    } catch (IOException e) {
+      OfflineMode.reportFailure(url.getHost(), e);
+      throw e;
+    } finally {
+      slot.close();
     }
-    in.close();
-    conn.disconnect();
 
+    HttpRecorder.record("spotify", SPOTIFY_ARTIST_API, url.toString(), content.toString());
     return content.toString();
   }
 
@@ -64,8 +85,10 @@ public class SpotifyAPIService extends IOAbstractService {
    * Retrieves the Spotify URL and profile picture URL of an artist.
    * 
    * @param spotifyId The Spotify ID of the artist.
-   * @return A HashMap containing the Spotify URL and profile picture URL.
+   * @return A HashMap containing the Spotify URL and profile picture URL, or
+   *         null if the request failed.
    */
+  @Override
   public HashMap<String, String> getArtistUrlAndAvatar(String spotifyId) {
     try {
       String jsonResponse = getArtist(spotifyId);
@@ -83,6 +106,8 @@ public class SpotifyAPIService extends IOAbstractService {
       result.put("profilePicture", profilePicture);
 
       return result;
+    } catch (OfflineException e) {
+      return null;
     } catch (Exception e) {
       e.printStackTrace();
       return null;
@@ -140,11 +165,32 @@ public class SpotifyAPIService extends IOAbstractService {
    *                   process.
    */
   public void ensureValidAccessToken() throws Exception {
+    loadSavedToken();
+
     if (accessToken == null || System.currentTimeMillis() >= tokenExpirationTime) {
       refreshAccessToken();
     }
   }
 
+  /**
+   * Loads the access token saved by a previous session. The token file is read
+   * only when the token is first needed, not when the service is created.
+   */
+  private synchronized void loadSavedToken() {
+    if (savedTokenLoaded) {
+      return;
+    }
+    savedTokenLoaded = true;
+
+    if (accessToken == null && new File(SPOTIFY_TOKEN_DB).exists()) {
+      ArrayList<AccessToken> savedTokens = readFromFile(SPOTIFY_TOKEN_DB, AccessToken.class);
+      if (savedTokens.size() > 0) {
+        accessToken = savedTokens.get(0).getAccessToken();
+        tokenExpirationTime = savedTokens.get(0).getTokenExpirationTime();
+      }
+    }
+  }
+
   /**
    * Helper class representing an access token response from Spotify.
    */
@@ -16,18 +16,21 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 
+import fi.tuni.concertify.interfaces.EventProvider;
 import fi.tuni.concertify.models.Event;
-import io.github.cdimascio.dotenv.Dotenv;
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.HttpRecorder;
+import fi.tuni.concertify.utilities.OfflineMode.OfflineException;
 
 /**
  * Service class for interacting with the TicketMaster API.
  * This class provides methods to search for events and artists, and parse event
  * data.
  */
-public class TicketMasterAPIService extends IOAbstractService {
-  private static final Dotenv dotenv = Dotenv.load();
-  private static final String TICKETMASTER_API_KEY = dotenv.get("TICKETMASTER_API_KEY");
-  private static final String TICKETMASTER_API_PREFIX = "https://app.ticketmaster.com/discovery/v2/";
+public class TicketMasterAPIService extends IOAbstractService implements EventProvider {
+  private static final String TICKETMASTER_API_KEY = AppConfig.get("TICKETMASTER_API_KEY");
+  private static final String TICKETMASTER_API_PREFIX = AppConfig.get("CONCERTIFY_TICKETMASTER_URL",
+      "https://app.ticketmaster.com/discovery/v2/");
   private static final String TICKETMASTER_API_SUFFIX = String.format("&classificationName=Music&apikey=%s&locale=*",
       TICKETMASTER_API_KEY);
 
@@ -47,6 +50,9 @@ public class TicketMasterAPIService extends IOAbstractService {
           TICKETMASTER_API_SUFFIX);
 
       data = retrieveDataFromAPI(apiURL);
+      HttpRecorder.record("ticketmaster", TICKETMASTER_API_PREFIX, apiURL, data);
+    } catch (OfflineException e) {
+      // The callers answer from the local caches while offline
     } catch (Exception e) {
       e.printStackTrace();
     }
@@ -61,8 +67,10 @@ public class TicketMasterAPIService extends IOAbstractService {
    * @param artistID The ID of the artist (optional).
    * @param country  The country code (optional).
    * @param city     The city name (optional).
-   * @return A JsonArray of events matching the search criteria.
+   * @return A JsonArray of events matching the search criteria, or null if the
+   *         request failed.
    */
+  @Override
   public JsonArray searchEvents(String keyword, String artistID, String country, String city) {
     String parameters = Stream.of(
         keyword == null || keyword.isEmpty() ? null : "keyword=" + URLEncoder.encode(keyword, StandardCharsets.UTF_8),
@@ -75,6 +83,8 @@ public class TicketMasterAPIService extends IOAbstractService {
         .collect(Collectors.joining("&"));
 
     String data = getDataFromTicketMaster("events", parameters, 20);
+    if (data == null)
+      return null;
 
     try {
       JsonObject jsonObject = new Gson().fromJson(data, JsonObject.class);
@@ -94,10 +104,14 @@ public class TicketMasterAPIService extends IOAbstractService {
    * Searches for artists based on a keyword.
    * 
    * @param keyword The search keyword (e.g., artist name).
-   * @return A JsonArray of artists matching the search criteria.
+   * @return A JsonArray of artists matching the search criteria, or null if the
+   *         request failed.
    */
+  @Override
   public JsonArray searchArtists(String keyword) {
     String data = getDataFromTicketMaster("attractions", String.format("keyword=%s", keyword), 20);
+    if (data == null)
+      return null;
 
     try {
       JsonObject jsonObject = new Gson().fromJson(data, JsonObject.class);
@@ -134,6 +148,7 @@ public class TicketMasterAPIService extends IOAbstractService {
    * @param events A JsonArray of events retrieved from the TicketMaster API.
    * @return A list of Event objects created from the JsonArray.
    */
+  @Override
   public ArrayList<Event> getEvents(JsonArray events) {
     ArrayList<Event> searchedEvents = new ArrayList<>();
 
@@ -2,6 +2,7 @@ package fi.tuni.concertify.services;
 
 import java.util.ArrayList;
 
+import fi.tuni.concertify.interfaces.ArtistMetadataProvider;
 import fi.tuni.concertify.models.Track;
 
 /**
@@ -11,7 +12,7 @@ import fi.tuni.concertify.models.Track;
  */
 public class TrackService {
 
-  private LastFmAPIService lastFmAPIService = new LastFmAPIService();
+  private ArtistMetadataProvider lastFmAPIService = Providers.artistMetadata();
 
   /**
    * Retrieves the top tracks sorted by a given criteria.
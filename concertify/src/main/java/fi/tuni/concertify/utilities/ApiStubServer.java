@@ -0,0 +1,268 @@
+package fi.tuni.concertify.utilities;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves the responses recorded by the {@link HttpRecorder} locally, standing
+ * in for Last.fm, Ticketmaster, MusicBrainz and Spotify, so the application
+ * and its benchmarks can run without network and against the same data every
+ * time.
+ *
+ * Each API is served under its own path, e.g. http://localhost:8089/lastfm/,
+ * which is set as the base URL of the API (CONCERTIFY_LASTFM_URL and so on,
+ * printed when the server starts). Spotify access tokens are answered with a
+ * fake token. A request that has not been recorded is answered with 404.
+ *
+ * The recordings are read from CONCERTIFY_STUB_DIR (./fixtures/http by
+ * default) and the server listens on CONCERTIFY_STUB_PORT (8089 by default).
+ * Every response is delayed by a latency drawn from
+ * CONCERTIFY_STUB_LATENCY, or CONCERTIFY_STUB_LATENCY_&lt;API&gt; for one API
+ * (see {@link LatencyDistribution}), with a random generator seeded with
+ * CONCERTIFY_STUB_SEED.
+ */
+public class ApiStubServer {
+  public static final String[] APIS = { "lastfm", "ticketmaster", "musicbrainz", "spotify" };
+  private static final String TOKEN_PATH = "spotify-accounts";
+  private static final String TOKEN_RESPONSE = "{\"access_token\":\"stub-token\",\"token_type\":\"Bearer\","
+      + "\"expires_in\":60}";
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final Path recordingDir;
+  private final Map<String, LatencyDistribution> latencies;
+  private final Random random;
+
+  /**
+   * Constructs an ApiStubServer. The server is not started yet.
+   *
+   * @param port         The port to listen on, or 0 for any free port.
+   * @param recordingDir The directory of the recordings.
+   * @param latencies    The latency distribution of each API.
+   * @param seed         The seed of the random latencies.
+   * @throws IOException If the port cannot be bound.
+   */
+  public ApiStubServer(int port, Path recordingDir, Map<String, LatencyDistribution> latencies, long seed)
+      throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+    this.recordingDir = recordingDir;
+    this.latencies = latencies;
+    this.random = new Random(seed);
+
+    for (String api : APIS) {
+      server.createContext("/" + api + "/", exchange -> serveRecording(exchange, api));
+    }
+    server.createContext("/" + TOKEN_PATH + "/", exchange -> respond(exchange, 200, TOKEN_RESPONSE));
+    server.setExecutor(executor);
+  }
+
+  /**
+   * Starts the stub server configured in the application configuration and
+   * prints the base URLs to configure in the application.
+   *
+   * @param args Not used.
+   * @throws IOException If the server cannot be started.
+   */
+  public static void main(String[] args) throws IOException {
+    LatencyDistribution defaultLatency = LatencyDistribution.parse(AppConfig.get("CONCERTIFY_STUB_LATENCY", "0"));
+    Map<String, LatencyDistribution> latencies = new HashMap<>();
+
+    for (String api : APIS) {
+      String spec = AppConfig.get("CONCERTIFY_STUB_LATENCY_" + api.toUpperCase(Locale.ROOT));
+      latencies.put(api, spec != null && !spec.isEmpty() ? LatencyDistribution.parse(spec) : defaultLatency);
+    }
+
+    ApiStubServer stub = new ApiStubServer(
+        (int) AppConfig.getLong("CONCERTIFY_STUB_PORT", 8089),
+        Paths.get(AppConfig.get("CONCERTIFY_STUB_DIR", "./fixtures/http")),
+        latencies,
+        AppConfig.getLong("CONCERTIFY_STUB_SEED", 42));
+    stub.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(stub::stop));
+
+    String baseUrl = stub.getBaseUrl();
+    System.out.println("Serving the recordings of " + stub.recordingDir + " at " + baseUrl
+        + ". Configure the application with:");
+    System.out.println("CONCERTIFY_LASTFM_URL=" + baseUrl + "lastfm/");
+    System.out.println("CONCERTIFY_TICKETMASTER_URL=" + baseUrl + "ticketmaster/");
+    System.out.println("CONCERTIFY_MUSICBRAINZ_URL=" + baseUrl + "musicbrainz/");
+    System.out.println("CONCERTIFY_SPOTIFY_URL=" + baseUrl + "spotify/");
+    System.out.println("CONCERTIFY_SPOTIFY_TOKEN_URL=" + baseUrl + TOKEN_PATH + "/");
+  }
+
+  /**
+   * Starts serving requests.
+   */
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * Stops serving requests.
+   */
+  public void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Returns the URL of the server, to which the path of an API is appended.
+   *
+   * @return The URL of the server, ending with a slash.
+   */
+  public String getBaseUrl() {
+    return "http://localhost:" + server.getAddress().getPort() + "/";
+  }
+
+  /**
+   * Answers a request with its recorded response after the latency of the API.
+   *
+   * @param exchange The request.
+   * @param api      The name of the API.
+   * @throws IOException If the response cannot be sent.
+   */
+  private void serveRecording(HttpExchange exchange, String api) throws IOException {
+    URI uri = exchange.getRequestURI();
+    String path = uri.getRawPath().substring(exchange.getHttpContext().getPath().length());
+    String request = uri.getRawQuery() != null ? path + "?" + uri.getRawQuery() : path;
+    String body = HttpRecorder.readRecording(recordingDir, api, request);
+
+    LatencyDistribution latency = latencies.get(api);
+    if (latency != null) {
+      long delay;
+      synchronized (random) {
+        delay = latency.sample(random);
+      }
+
+      try {
+        Thread.sleep(delay);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    if (body == null) {
+      respond(exchange, 404, "{\"error\":\"Not recorded\"}");
+      return;
+    }
+
+    respond(exchange, 200, body);
+  }
+
+  /**
+   * Sends a JSON response.
+   *
+   * @param exchange The request.
+   * @param status   The status code.
+   * @param body     The body of the response.
+   * @throws IOException If the response cannot be sent.
+   */
+  private void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+
+  /**
+   * A distribution of response latencies, in milliseconds. Parsed from one of
+   * <ul>
+   * <li>fixed:&lt;ms&gt; (or just &lt;ms&gt;): always the same latency</li>
+   * <li>uniform:&lt;min&gt;-&lt;max&gt;: evenly between min and max</li>
+   * <li>normal:&lt;mean&gt;,&lt;deviation&gt;: normally distributed, at least
+   * 0</li>
+   * <li>lognormal:&lt;median&gt;,&lt;sigma&gt;: log-normally distributed, with
+   * the long tail of real services</li>
+   * </ul>
+   */
+  public static class LatencyDistribution {
+    private final String type;
+    private final double first;
+    private final double second;
+
+    /**
+     * Constructs a LatencyDistribution.
+     *
+     * @param type   The type of the distribution.
+     * @param first  The first parameter of the distribution.
+     * @param second The second parameter of the distribution.
+     */
+    private LatencyDistribution(String type, double first, double second) {
+      this.type = type;
+      this.first = first;
+      this.second = second;
+    }
+
+    /**
+     * Parses a latency distribution.
+     *
+     * @param spec The distribution, e.g. "uniform:20-200".
+     * @return The distribution.
+     * @throws IllegalArgumentException If the distribution cannot be parsed.
+     */
+    public static LatencyDistribution parse(String spec) {
+      String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":", 2);
+      String type = parts.length == 2 ? parts[0] : "fixed";
+      String[] parameters = parts[parts.length - 1].split("[-,]");
+
+      try {
+        switch (type) {
+          case "fixed":
+            return new LatencyDistribution(type, Double.parseDouble(parameters[0]), 0);
+          case "uniform":
+          case "normal":
+          case "lognormal":
+            return new LatencyDistribution(type, Double.parseDouble(parameters[0]),
+                Double.parseDouble(parameters[1]));
+          default:
+            throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        }
+      } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+        throw new IllegalArgumentException("Invalid latency distribution: " + spec, e);
+      }
+    }
+
+    /**
+     * Draws a latency from the distribution.
+     *
+     * @param random The random generator to use.
+     * @return The latency in milliseconds, at least 0.
+     */
+    public long sample(Random random) {
+      double latency;
+
+      switch (type) {
+        case "uniform":
+          latency = first + random.nextDouble() * (second - first);
+          break;
+        case "normal":
+          latency = first + random.nextGaussian() * second;
+          break;
+        case "lognormal":
+          latency = first * Math.exp(random.nextGaussian() * second);
+          break;
+        default:
+          latency = first;
+      }
+
+      return Math.max(0, Math.round(latency));
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package fi.tuni.concertify.utilities;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+/**
+ * Utility class providing access to the application configuration.
+ * The configuration is read from the .env file (and the environment) only once,
+ * the first time a value is requested, and is shared by all services.
+ *
+ * A value can be overridden with a JVM system property whose name is the key in
+ * lower case with underscores replaced by dots, e.g. the key CONCERTIFY_WARMUP
+ * can be set with -Dconcertify.warmup=false.
+ */
+public class AppConfig {
+  private static Dotenv dotenv;
+
+  /**
+   * Returns the shared Dotenv instance, loading it on first use.
+   *
+   * @return The loaded Dotenv instance.
+   */
+  private static synchronized Dotenv getDotenv() {
+    if (dotenv == null) {
+      dotenv = Dotenv.configure().ignoreIfMissing().load();
+    }
+    return dotenv;
+  }
+
+  /**
+   * Retrieves a configuration value.
+   *
+   * @param key The key of the value (e.g. "LASTFM_API_KEY").
+   * @return The value, or null if it is not configured.
+   */
+  public static String get(String key) {
+    String propertyValue = System.getProperty(key.toLowerCase().replace('_', '.'));
+
+    if (propertyValue != null) {
+      return propertyValue;
+    }
+
+    return getDotenv().get(key);
+  }
+
+  /**
+   * Retrieves a configuration value, falling back to a default value.
+   *
+   * @param key          The key of the value.
+   * @param defaultValue The value to return if the key is not configured.
+   * @return The configured value, or the default value.
+   */
+  public static String get(String key, String defaultValue) {
+    String value = get(key);
+    return value != null && !value.isEmpty() ? value : defaultValue;
+  }
+
+  /**
+   * Retrieves a boolean configuration value.
+   *
+   * @param key          The key of the value.
+   * @param defaultValue The value to return if the key is not configured.
+   * @return The configured value, or the default value.
+   */
+  public static boolean getBoolean(String key, boolean defaultValue) {
+    String value = get(key);
+    return value != null && !value.isEmpty() ? Boolean.parseBoolean(value.trim()) : defaultValue;
+  }
+
+  /**
+   * Retrieves a numeric configuration value.
+   *
+   * @param key          The key of the value.
+   * @param defaultValue The value to return if the key is not configured or is
+   *                     not a number.
+   * @return The configured value, or the default value.
+   */
+  public static long getLong(String key, long defaultValue) {
+    String value = get(key);
+
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Retrieves a decimal configuration value.
+   *
+   * @param key          The key of the value.
+   * @param defaultValue The value to return if the key is not configured or is
+   *                     not a number.
+   * @return The configured value, or the default value.
+   */
+  public static double getDouble(String key, double defaultValue) {
+    String value = get(key);
+
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+
+    try {
+      return Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+}
@@ -0,0 +1,360 @@
+package fi.tuni.concertify.utilities;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import fi.tuni.concertify.models.Artist;
+
+/**
+ * In-memory autocomplete index over artist names.
+ *
+ * Names are normalized to lower case without diacritics, so "beyonce" finds
+ * "Beyoncé". A query matches an artist if it is a prefix of the artist's name
+ * or of any word in the name (found with a sorted token map), or, when there
+ * are not enough prefix matches, if it is within a small edit distance of a
+ * prefix of the name or of one of its words. The typo-tolerant candidates are
+ * found through a trigram index and verified with a bounded edit distance.
+ * Results are ranked by match quality and then by listeners.
+ *
+ * The index is built from the artist cache and updated incrementally whenever
+ * new artists are fetched, so suggestions never need a network call.
+ */
+public class ArtistNameIndex {
+  private static final ArtistNameIndex shared = new ArtistNameIndex();
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private static final int TIER_EXACT = 0;
+  private static final int TIER_NAME_PREFIX = 1;
+  private static final int TIER_WORD_PREFIX = 2;
+  private static final int TIER_FUZZY = 3;
+
+  private final ArrayList<Artist> artists = new ArrayList<>();
+  private final ArrayList<String> normalizedNames = new ArrayList<>();
+  private final HashMap<String, Integer> idsByName = new HashMap<>();
+  private final TreeMap<String, IntList> tokens = new TreeMap<>();
+  private final HashMap<String, IntList> trigrams = new HashMap<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private volatile boolean loaded = false;
+
+  /**
+   * Returns the index shared by the whole application.
+   *
+   * @return The shared artist name index.
+   */
+  public static ArtistNameIndex getShared() {
+    return shared;
+  }
+
+  /**
+   * Returns whether the initial set of artists has been loaded into the index.
+   *
+   * @return true if {@link #load(Collection)} has been called, false otherwise.
+   */
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  /**
+   * Loads the initial set of artists (e.g. the artist cache) into the index.
+   * Artists added before the load are kept.
+   *
+   * @param initialArtists The artists to load.
+   */
+  public void load(Collection<Artist> initialArtists) {
+    addAll(initialArtists);
+    loaded = true;
+  }
+
+  /**
+   * Adds artists to the index. An artist that is already indexed (by name) is
+   * replaced, which updates its listeners.
+   *
+   * @param newArtists The artists to add.
+   */
+  public void addAll(Collection<Artist> newArtists) {
+    lock.writeLock().lock();
+
+    try {
+      for (Artist artist : newArtists) {
+        if (artist == null || artist.getName() == null) {
+          continue;
+        }
+
+        Integer existingId = idsByName.get(artist.getName());
+
+        if (existingId != null) {
+          artists.set(existingId, artist);
+        } else {
+          index(artist);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of indexed artists.
+   *
+   * @return The number of artists.
+   */
+  public int size() {
+    lock.readLock().lock();
+
+    try {
+      return artists.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the artists best matching the query.
+   *
+   * @param query The typed text.
+   * @param limit The maximum number of artists to return.
+   * @return The matching artists, best match first.
+   */
+  public List<Artist> search(String query, int limit) {
+    String normalizedQuery = normalize(query);
+
+    if (normalizedQuery.isEmpty() || limit <= 0) {
+      return new ArrayList<>();
+    }
+
+    lock.readLock().lock();
+
+    try {
+      HashMap<Integer, int[]> matches = new HashMap<>();
+      findPrefixMatches(normalizedQuery, matches);
+
+      if (matches.size() < limit && normalizedQuery.length() >= 3) {
+        findFuzzyMatches(normalizedQuery, matches);
+      }
+
+      ArrayList<Map.Entry<Integer, int[]>> ranked = new ArrayList<>(matches.entrySet());
+      ranked.sort(Comparator
+          .<Map.Entry<Integer, int[]>>comparingInt(match -> match.getValue()[0])
+          .thenComparingInt(match -> match.getValue()[1])
+          .thenComparing(match -> artists.get(match.getKey()).getListeners(), Comparator.reverseOrder()));
+
+      ArrayList<Artist> results = new ArrayList<>();
+      for (int i = 0; i < ranked.size() && i < limit; i++) {
+        results.add(artists.get(ranked.get(i).getKey()));
+      }
+
+      return results;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Normalizes a name for indexing and searching: diacritics are removed, the
+   * name is lower-cased and any run of punctuation or whitespace becomes a single
+   * space.
+   *
+   * @param name The name to normalize.
+   * @return The normalized name.
+   */
+  public static String normalize(String name) {
+    if (name == null) {
+      return "";
+    }
+
+    String folded = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("")
+        .toLowerCase(Locale.ROOT)
+        .replace("ø", "o")
+        .replace("æ", "ae")
+        .replace("œ", "oe")
+        .replace("ß", "ss")
+        .replace("ł", "l")
+        .replace("đ", "d");
+
+    return SEPARATORS.matcher(folded).replaceAll(" ").trim();
+  }
+
+  /**
+   * Returns the edit distance between the query and the closest prefix of the
+   * text, or a value greater than the maximum if it exceeds the maximum.
+   *
+   * @param query       The normalized query.
+   * @param text        The normalized text.
+   * @param maxDistance The maximum distance of interest.
+   * @return The bounded prefix edit distance.
+   */
+  static int prefixDistance(String query, String text, int maxDistance) {
+    int columns = Math.min(text.length(), query.length() + maxDistance);
+    int[] previous = new int[columns + 1];
+    int[] current = new int[columns + 1];
+
+    for (int j = 0; j <= columns; j++) {
+      previous[j] = j;
+    }
+
+    for (int i = 1; i <= query.length(); i++) {
+      current[0] = i;
+      int rowMin = current[0];
+
+      for (int j = 1; j <= columns; j++) {
+        int cost = query.charAt(i - 1) == text.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+        rowMin = Math.min(rowMin, current[j]);
+      }
+
+      if (rowMin > maxDistance) {
+        return maxDistance + 1;
+      }
+
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+
+    return Arrays.stream(previous).min().orElse(query.length());
+  }
+
+  /**
+   * Adds a new artist to the index.
+   *
+   * @param artist The artist to add.
+   */
+  private void index(Artist artist) {
+    int id = artists.size();
+    String normalizedName = normalize(artist.getName());
+
+    artists.add(artist);
+    normalizedNames.add(normalizedName);
+    idsByName.put(artist.getName(), id);
+
+    if (normalizedName.isEmpty()) {
+      return;
+    }
+
+    tokens.computeIfAbsent(normalizedName, key -> new IntList()).addUnique(id);
+    for (String word : normalizedName.split(" ")) {
+      tokens.computeIfAbsent(word, key -> new IntList()).addUnique(id);
+    }
+
+    for (int i = 0; i + 3 <= normalizedName.length(); i++) {
+      trigrams.computeIfAbsent(normalizedName.substring(i, i + 3), key -> new IntList()).addUnique(id);
+    }
+  }
+
+  /**
+   * Finds the artists whose name, or a word of whose name, starts with the
+   * query.
+   *
+   * @param query   The normalized query.
+   * @param matches The matches found so far, by artist id, as {tier, distance}.
+   */
+  private void findPrefixMatches(String query, HashMap<Integer, int[]> matches) {
+    for (Map.Entry<String, IntList> token : tokens.subMap(query, true, query + Character.MAX_VALUE, true)
+        .entrySet()) {
+      IntList ids = token.getValue();
+
+      for (int i = 0; i < ids.size; i++) {
+        int id = ids.values[i];
+        String name = normalizedNames.get(id);
+        int tier = name.equals(query) ? TIER_EXACT : name.startsWith(query) ? TIER_NAME_PREFIX : TIER_WORD_PREFIX;
+        addMatch(matches, id, tier, 0);
+      }
+    }
+  }
+
+  /**
+   * Finds the artists whose name, or a word of whose name, starts with a text
+   * within a small edit distance of the query. Candidates must share enough
+   * trigrams with the query: a single edit changes at most three trigrams.
+   *
+   * @param query   The normalized query.
+   * @param matches The matches found so far, by artist id, as {tier, distance}.
+   */
+  private void findFuzzyMatches(String query, HashMap<Integer, int[]> matches) {
+    int maxDistance = query.length() <= 5 ? 1 : 2;
+    int queryTrigrams = query.length() - 2;
+    int minSharedTrigrams = Math.max(1, queryTrigrams - 3 * maxDistance);
+
+    HashMap<Integer, Integer> sharedTrigrams = new HashMap<>();
+    for (int i = 0; i + 3 <= query.length(); i++) {
+      IntList ids = trigrams.get(query.substring(i, i + 3));
+
+      if (ids != null) {
+        for (int j = 0; j < ids.size; j++) {
+          sharedTrigrams.merge(ids.values[j], 1, Integer::sum);
+        }
+      }
+    }
+
+    sharedTrigrams.forEach((id, shared) -> {
+      if (shared < minSharedTrigrams || matches.containsKey(id)) {
+        return;
+      }
+
+      String name = normalizedNames.get(id);
+      int distance = prefixDistance(query, name, maxDistance);
+
+      for (String word : name.split(" ")) {
+        distance = Math.min(distance, prefixDistance(query, word, maxDistance));
+      }
+
+      if (distance <= maxDistance) {
+        addMatch(matches, id, TIER_FUZZY, distance);
+      }
+    });
+  }
+
+  /**
+   * Records a match, keeping the best match for each artist.
+   *
+   * @param matches  The matches found so far.
+   * @param id       The id of the matching artist.
+   * @param tier     The quality tier of the match.
+   * @param distance The edit distance of the match.
+   */
+  private static void addMatch(HashMap<Integer, int[]> matches, int id, int tier, int distance) {
+    int[] existing = matches.get(id);
+
+    if (existing == null || tier < existing[0] || (tier == existing[0] && distance < existing[1])) {
+      matches.put(id, new int[] { tier, distance });
+    }
+  }
+
+  /**
+   * A compact growable list of artist ids.
+   */
+  private static class IntList {
+    private int[] values = new int[2];
+    private int size = 0;
+
+    void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    /**
+     * Adds a value unless it was the last value added. Ids are added in
+     * increasing order, so this keeps the list free of duplicates.
+     *
+     * @param value The value to add.
+     */
+    void addUnique(int value) {
+      if (size == 0 || values[size - 1] != value) {
+        add(value);
+      }
+    }
+  }
+}
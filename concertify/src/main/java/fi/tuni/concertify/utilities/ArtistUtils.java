@@ -2,6 +2,7 @@ package fi.tuni.concertify.utilities;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import com.google.gson.JsonArray;
@@ -32,6 +33,83 @@ public class ArtistUtils {
             HashMap::new));
   }
 
+  /**
+   * Merges updated artists into a list of artists. An artist already in the list
+   * is updated field by field with the fields the updated artist with the same
+   * name has, so details stored meanwhile by other updates (e.g. the biography
+   * or the Ticketmaster ID) are kept. New artists are appended to the list.
+   * 
+   * @param artists        The list of artists to update.
+   * @param updatedArtists The updated or new artists.
+   */
+  public static void mergeArtists(ArrayList<Artist> artists, List<Artist> updatedArtists) {
+    HashMap<String, Integer> indexes = new HashMap<>();
+
+    for (int i = 0; i < artists.size(); i++) {
+      indexes.putIfAbsent(artists.get(i).getName(), i);
+    }
+
+    for (Artist artist : updatedArtists) {
+      Integer index = indexes.get(artist.getName());
+
+      if (index != null) {
+        mergeArtist(artists.get(index), artist);
+      } else {
+        indexes.put(artist.getName(), artists.size());
+        artists.add(artist);
+      }
+    }
+  }
+
+  /**
+   * Copies the fields an updated artist has into a stored artist. Missing
+   * fields of the updated artist (null, empty or 0) do not overwrite the stored
+   * ones, and the fetch times are only moved forward.
+   * 
+   * @param artist  The stored artist.
+   * @param updated The updated artist with the same name.
+   */
+  private static void mergeArtist(Artist artist, Artist updated) {
+    if (artist == updated) {
+      return;
+    }
+
+    if (updated.getMusicBrainzId() != null) {
+      artist.setMusicBrainzId(updated.getMusicBrainzId());
+    }
+    if (updated.getSpotifyId() != null) {
+      artist.setSpotifyId(updated.getSpotifyId());
+    }
+    if (updated.getSpotifyUrl() != null) {
+      artist.setSpotifyUrl(updated.getSpotifyUrl());
+    }
+    if (updated.getProfilePicture() != null) {
+      artist.setProfilePicture(updated.getProfilePicture());
+    }
+    if (updated.getBio() != null) {
+      artist.setBio(updated.getBio());
+    }
+    if (updated.getTicketmasterId() != null) {
+      artist.setTicketmasterId(updated.getTicketmasterId());
+    }
+    if (updated.getEventLookup() != null) {
+      artist.setEventLookup(updated.getEventLookup());
+    }
+    if (updated.getTopTracks() != null && !updated.getTopTracks().isEmpty()) {
+      artist.setTopTracks(updated.getTopTracks());
+    }
+    if (updated.getListeners() > 0) {
+      artist.setListeners(updated.getListeners());
+    }
+    if (updated.getPlayCount() > 0) {
+      artist.setPlayCount(updated.getPlayCount());
+    }
+
+    artist.setInfoFetchedAt(Math.max(artist.getInfoFetchedAt(), updated.getInfoFetchedAt()));
+    artist.setTopTracksFetchedAt(Math.max(artist.getTopTracksFetchedAt(), updated.getTopTracksFetchedAt()));
+    artist.setLastRefreshedAt(Math.max(artist.getLastRefreshedAt(), updated.getLastRefreshedAt()));
+  }
+
   /**
    * Retrieves the MusicBrainz ID from a given JSON object.
    * 
@@ -0,0 +1,112 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Utility class running blocking work (network requests and file access) off
+ * the JavaFX application thread.
+ *
+ * The tasks run on a shared pool of daemon threads, so pending tasks do not
+ * keep the application running after the window is closed. Results should be
+ * passed back to the UI with Platform.runLater. The tasks keep the request
+ * priority of the thread submitting them (see {@link RequestScheduler}).
+ */
+public class BackgroundExecutor {
+  private static final AtomicInteger threadCount = new AtomicInteger();
+  private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors());
+  private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 0,
+      TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "background-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * Runs a task in the background.
+   *
+   * @param task The task to run.
+   * @return A future completing with the result of the task.
+   */
+  public static <T> CompletableFuture<T> submit(Supplier<T> task) {
+    RequestScheduler.Priority priority = RequestScheduler.getPriority();
+    return CompletableFuture.supplyAsync(() -> RequestScheduler.withPriority(priority, task), executor);
+  }
+
+  /**
+   * Runs a cancellable task in the background. Unlike a CompletableFuture, the
+   * returned future interrupts the task when cancelled, so a long-running task
+   * can stop early by checking the interrupted status of its thread.
+   *
+   * @param task The task to run.
+   * @return A future that can be used to cancel the task.
+   */
+  public static Future<?> execute(Runnable task) {
+    RequestScheduler.Priority priority = RequestScheduler.getPriority();
+    return executor.submit(() -> RequestScheduler.runWithPriority(priority, task));
+  }
+
+  /**
+   * Runs an action for each item in the background, with at most the given
+   * number of items processed at the same time. Each worker takes the next
+   * item once it has finished its previous one, so no thread of the pool waits
+   * for a free slot. An exception thrown for one item is reported and does not
+   * stop the other items.
+   *
+   * @param items       The items to process.
+   * @param parallelism The maximum number of items processed at the same time.
+   * @param action      The action to run for each item.
+   * @return A future completing when all items have been processed.
+   */
+  public static <T> CompletableFuture<Void> forEachBounded(Collection<T> items, int parallelism,
+      Consumer<T> action) {
+    ConcurrentLinkedQueue<T> queue = new ConcurrentLinkedQueue<>(items);
+    RequestScheduler.Priority priority = RequestScheduler.getPriority();
+    int workers = Math.max(1, Math.min(parallelism, items.size()));
+
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+    for (int i = 0; i < workers; i++) {
+      futures[i] = CompletableFuture.runAsync(() -> RequestScheduler.runWithPriority(priority, () -> {
+        T item;
+        while ((item = queue.poll()) != null) {
+          try {
+            action.accept(item);
+          } catch (Exception e) {
+            e.printStackTrace();
+          }
+        }
+      }), executor);
+    }
+
+    return CompletableFuture.allOf(futures);
+  }
+
+  /**
+   * Returns the number of tasks that are running or waiting to run. Background
+   * jobs with their own threads use this to give way to the requests made for
+   * the user.
+   *
+   * @return The number of pending tasks.
+   */
+  public static int getPendingTaskCount() {
+    return executor.getActiveCount() + executor.getQueue().size();
+  }
+
+  /**
+   * Returns the shared executor, for tasks that need to be submitted directly.
+   *
+   * @return The shared background executor.
+   */
+  public static ExecutorService getExecutor() {
+    return executor;
+  }
+}
@@ -0,0 +1,191 @@
+package fi.tuni.concertify.utilities;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A persistent, size-capped cache of binary files (e.g. map tiles) stored in a
+ * directory.
+ *
+ * Entries are kept in least recently used order. The last-modified time of a
+ * file is updated whenever it is read, so the order survives restarts: the
+ * existing files are loaded oldest first when the cache is created. When the
+ * total size exceeds the limit, the least recently used files are deleted.
+ */
+public class DiskCache {
+  private final Path directory;
+  private final long maxBytes;
+  private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalBytes;
+
+  /**
+   * Constructs a cache in the given directory, loading the files already in it.
+   *
+   * @param directory The directory of the cache. Created if it does not exist.
+   * @param maxBytes  The maximum total size of the cached files in bytes.
+   */
+  public DiskCache(Path directory, long maxBytes) {
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+
+    try {
+      Files.createDirectories(directory);
+
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.filter(Files::isRegularFile)
+            .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+            .sorted(Comparator.comparingLong(DiskCache::lastModified))
+            .forEach(file -> {
+              long size = file.toFile().length();
+              entries.put(directory.relativize(file).toString().replace('\\', '/'), size);
+              totalBytes += size;
+            });
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+
+    evict();
+  }
+
+  /**
+   * Returns the cached data for a key.
+   *
+   * @param key The relative path of the entry (e.g. "12/2331/1185.png").
+   * @return The cached data, or null if the key is not cached.
+   */
+  public byte[] get(String key) {
+    synchronized (this) {
+      if (entries.get(key) == null) {
+        return null;
+      }
+    }
+
+    Path file = directory.resolve(key);
+
+    try {
+      byte[] data = Files.readAllBytes(file);
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+      return data;
+    } catch (IOException e) {
+      synchronized (this) {
+        Long size = entries.remove(key);
+        totalBytes -= size != null ? size : 0;
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Returns the file of a cached entry, for readers that load the file
+   * themselves (e.g. images loaded in the background by JavaFX). The entry is
+   * marked as used.
+   *
+   * @param key The relative path of the entry.
+   * @return The path of the cached file, or null if the key is not cached.
+   */
+  public Path getPath(String key) {
+    synchronized (this) {
+      if (entries.get(key) == null) {
+        return null;
+      }
+    }
+
+    Path file = directory.resolve(key);
+
+    try {
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+      return file;
+    } catch (IOException e) {
+      synchronized (this) {
+        Long size = entries.remove(key);
+        totalBytes -= size != null ? size : 0;
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Returns whether a key is cached.
+   *
+   * @param key The relative path of the entry.
+   * @return true if the key is cached, false otherwise.
+   */
+  public synchronized boolean contains(String key) {
+    return entries.containsKey(key);
+  }
+
+  /**
+   * Stores data in the cache. The file is written to a temporary file first and
+   * then moved in place, so a partially written file is never served.
+   *
+   * @param key  The relative path of the entry.
+   * @param data The data to store.
+   */
+  public void put(String key, byte[] data) {
+    Path file = directory.resolve(key);
+
+    try {
+      Files.createDirectories(file.getParent());
+      Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      Files.write(tempFile, data);
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return;
+    }
+
+    synchronized (this) {
+      Long previousSize = entries.put(key, (long) data.length);
+      totalBytes += data.length - (previousSize != null ? previousSize : 0);
+      evict();
+    }
+  }
+
+  /**
+   * Returns the total size of the cached files.
+   *
+   * @return The total size in bytes.
+   */
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  /**
+   * Deletes the least recently used files until the cache is within its size
+   * limit.
+   */
+  private synchronized void evict() {
+    Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+
+    while (totalBytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<String, Long> eldest = iterator.next();
+      iterator.remove();
+      totalBytes -= eldest.getValue();
+
+      try {
+        Files.deleteIfExists(directory.resolve(eldest.getKey()));
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Returns the last-modified time of a file.
+   *
+   * @param file The file.
+   * @return The last-modified time in milliseconds, or 0 if it cannot be read.
+   */
+  private static long lastModified(Path file) {
+    return file.toFile().lastModified();
+  }
+}
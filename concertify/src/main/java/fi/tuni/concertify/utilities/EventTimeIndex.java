@@ -0,0 +1,261 @@
+package fi.tuni.concertify.utilities;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import fi.tuni.concertify.models.Event;
+
+/**
+ * Index of events ordered by their start time, answering date range queries
+ * without scanning all events.
+ *
+ * Events are kept in a sorted map by start instant, for queries such as
+ * "upcoming events", and in per-day buckets by the local date of the event in
+ * its own timezone, for queries such as "events in the next 7 days" or "events
+ * this month", so an event late in the evening belongs to the day it takes
+ * place on locally. Events without a start time are not indexed.
+ */
+public class EventTimeIndex {
+  private final TreeMap<Instant, ArrayList<Event>> eventsByStart = new TreeMap<>();
+  private final TreeMap<LocalDate, ArrayList<Event>> eventsByDay = new TreeMap<>();
+  private final HashMap<String, Event> eventsById = new HashMap<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * Constructs an empty index.
+   */
+  public EventTimeIndex() {
+  }
+
+  /**
+   * Constructs an index of the given events.
+   *
+   * @param events The events to index.
+   */
+  public EventTimeIndex(Collection<Event> events) {
+    addAll(events);
+  }
+
+  /**
+   * Adds events to the index. An event that is already indexed (by Ticketmaster
+   * ID) is replaced.
+   *
+   * @param events The events to add.
+   */
+  public void addAll(Collection<Event> events) {
+    lock.writeLock().lock();
+
+    try {
+      for (Event event : events) {
+        if (event.getTicketmasterID() == null) {
+          continue;
+        }
+
+        removeById(event.getTicketmasterID());
+
+        if (event.getDateTimeStart() != null) {
+          eventsByStart.computeIfAbsent(event.getDateTimeStart().toInstant(), key -> new ArrayList<>()).add(event);
+          eventsByDay.computeIfAbsent(getLocalDate(event), key -> new ArrayList<>()).add(event);
+          eventsById.put(event.getTicketmasterID(), event);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes events from the index.
+   *
+   * @param ticketmasterIDs The Ticketmaster IDs of the events to remove.
+   */
+  public void removeAll(Collection<String> ticketmasterIDs) {
+    lock.writeLock().lock();
+
+    try {
+      ticketmasterIDs.forEach(this::removeById);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of indexed events.
+   *
+   * @return The number of events with a start time.
+   */
+  public int size() {
+    lock.readLock().lock();
+
+    try {
+      return eventsById.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the events starting at or after the given instant, earliest first.
+   *
+   * @param from The instant, e.g. now.
+   * @return The upcoming events.
+   */
+  public List<Event> startingFrom(Instant from) {
+    lock.readLock().lock();
+
+    try {
+      return flatten(eventsByStart.tailMap(from, true));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the events starting before the given instant, earliest first.
+   *
+   * @param to The instant.
+   * @return The events starting before the instant.
+   */
+  public List<Event> startingBefore(Instant to) {
+    lock.readLock().lock();
+
+    try {
+      return flatten(eventsByStart.headMap(to, false));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the events starting within a time range, earliest first.
+   *
+   * @param from The start of the range (inclusive).
+   * @param to   The end of the range (exclusive).
+   * @return The events starting within the range.
+   */
+  public List<Event> between(Instant from, Instant to) {
+    if (!from.isBefore(to)) {
+      return new ArrayList<>();
+    }
+
+    lock.readLock().lock();
+
+    try {
+      return flatten(eventsByStart.subMap(from, true, to, false));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the events taking place on the given local days, by day and in
+   * order of addition within a day.
+   *
+   * @param first The first day (inclusive).
+   * @param last  The last day (inclusive).
+   * @return The events on the days.
+   */
+  public List<Event> onDays(LocalDate first, LocalDate last) {
+    if (last.isBefore(first)) {
+      return new ArrayList<>();
+    }
+
+    lock.readLock().lock();
+
+    try {
+      return flatten(eventsByDay.subMap(first, true, last, true));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the events taking place during the given month.
+   *
+   * @param month The month.
+   * @return The events during the month.
+   */
+  public List<Event> inMonth(YearMonth month) {
+    return onDays(month.atDay(1), month.atEndOfMonth());
+  }
+
+  /**
+   * Returns the local date an event takes place on, in the event's timezone, or
+   * in UTC if the event has no valid timezone.
+   *
+   * @param event The event.
+   * @return The local date of the event.
+   */
+  public static LocalDate getLocalDate(Event event) {
+    return event.getDateTimeStart().toInstant().atZone(getZone(event)).toLocalDate();
+  }
+
+  /**
+   * Returns the timezone of an event.
+   *
+   * @param event The event.
+   * @return The timezone of the event, or UTC if it has no valid timezone.
+   */
+  public static ZoneId getZone(Event event) {
+    try {
+      return event.getTimezone() != null ? ZoneId.of(event.getTimezone()) : ZoneOffset.UTC;
+    } catch (DateTimeException e) {
+      return ZoneOffset.UTC;
+    }
+  }
+
+  /**
+   * Collects the events of a range of buckets into a list.
+   *
+   * @param buckets The buckets.
+   * @return The events of the buckets, in order.
+   */
+  private static List<Event> flatten(NavigableMap<?, ArrayList<Event>> buckets) {
+    ArrayList<Event> result = new ArrayList<>();
+    buckets.values().forEach(result::addAll);
+    return result;
+  }
+
+  /**
+   * Removes an event from the index. Must be called with the write lock held.
+   *
+   * @param ticketmasterID The Ticketmaster ID of the event.
+   */
+  private void removeById(String ticketmasterID) {
+    Event event = eventsById.remove(ticketmasterID);
+
+    if (event != null) {
+      removeFromBucket(eventsByStart, event.getDateTimeStart().toInstant(), ticketmasterID);
+      removeFromBucket(eventsByDay, getLocalDate(event), ticketmasterID);
+    }
+  }
+
+  /**
+   * Removes an event from a bucket, removing the bucket if it becomes empty.
+   *
+   * @param buckets        The buckets.
+   * @param key            The key of the bucket.
+   * @param ticketmasterID The Ticketmaster ID of the event.
+   */
+  private static <K> void removeFromBucket(TreeMap<K, ArrayList<Event>> buckets, K key, String ticketmasterID) {
+    ArrayList<Event> bucket = buckets.get(key);
+
+    if (bucket != null) {
+      bucket.removeIf(event -> ticketmasterID.equals(event.getTicketmasterID()));
+      if (bucket.isEmpty()) {
+        buckets.remove(key);
+      }
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package fi.tuni.concertify.utilities;
+
+import javafx.application.Platform;
+
+/**
+ * Utility class for updating the JavaFX scene graph from the background
+ * threads of the services.
+ */
+public class FxUtils {
+
+  private FxUtils() {
+  }
+
+  /**
+   * Runs an update on the JavaFX application thread, or directly if the JavaFX
+   * toolkit is not running (e.g. in tests).
+   *
+   * @param update The update to run.
+   */
+  public static void runOnFxThread(Runnable update) {
+    if (Platform.isFxApplicationThread()) {
+      update.run();
+      return;
+    }
+
+    try {
+      Platform.runLater(update);
+    } catch (IllegalStateException e) {
+      update.run();
+    }
+  }
+}
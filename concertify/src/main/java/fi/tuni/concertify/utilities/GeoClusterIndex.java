@@ -0,0 +1,369 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+import fi.tuni.concertify.models.Event;
+
+/**
+ * Spatial index grouping events into grid clusters for each zoom level of a
+ * web map.
+ *
+ * Events are projected to Web Mercator coordinates and assigned to square grid
+ * cells whose size is a fixed number of screen pixels at each zoom level, so
+ * nearby events merge into a single cluster when zoomed out and split up when
+ * zoomed in. The clusters of a zoom level are computed the first time the level
+ * is queried and cached afterwards. Events without valid coordinates are left
+ * out of the index when it is built. Events arriving later can be added to the
+ * index, which adds them to the clusters already computed.
+ */
+public class GeoClusterIndex {
+  public static final int MIN_ZOOM = 1;
+  public static final int MAX_ZOOM = 15;
+  private static final int TILE_SIZE = 256;
+  private static final int CELL_SIZE = 64;
+  private static final double MAX_LATITUDE = 85.05112878;
+
+  private final ArrayList<Event> events = new ArrayList<>();
+  private double[] xs = new double[0];
+  private double[] ys = new double[0];
+  private int invalidCount = 0;
+  private final HashMap<Integer, HashMap<Long, Cluster>> clustersByZoom = new HashMap<>();
+
+  /**
+   * Builds an index of the given events.
+   *
+   * @param allEvents The events to index. Events without valid coordinates are
+   *                  counted but not indexed.
+   */
+  public GeoClusterIndex(Collection<Event> allEvents) {
+    addAll(allEvents);
+  }
+
+  /**
+   * Adds events to the index. The new events are added to the clusters of the
+   * zoom levels already computed, so the other zoom levels and the clusters
+   * without new events are not rebuilt.
+   *
+   * @param newEvents The events to add. Events without valid coordinates are
+   *                  counted but not indexed.
+   */
+  public void addAll(Collection<Event> newEvents) {
+    int start = events.size();
+
+    for (Event event : newEvents) {
+      if (event.getLat() != 0 && event.getLon() != 0) {
+        events.add(event);
+      } else {
+        invalidCount++;
+      }
+    }
+
+    xs = Arrays.copyOf(xs, events.size());
+    ys = Arrays.copyOf(ys, events.size());
+
+    for (int i = start; i < events.size(); i++) {
+      xs[i] = projectX(events.get(i).getLon());
+      ys[i] = projectY(events.get(i).getLat());
+    }
+
+    clustersByZoom.forEach((zoom, clusters) -> addToClusters(zoom, clusters, start));
+  }
+
+  /**
+   * Returns the number of indexed events, i.e. events with valid coordinates.
+   *
+   * @return The number of indexed events.
+   */
+  public int size() {
+    return events.size();
+  }
+
+  /**
+   * Returns the number of events left out of the index because of invalid
+   * coordinates.
+   *
+   * @return The number of events without valid coordinates.
+   */
+  public int getInvalidCount() {
+    return invalidCount;
+  }
+
+  /**
+   * Returns the bounds of all indexed events.
+   *
+   * @return The bounds as {south, west, north, east}, or null if the index is
+   *         empty.
+   */
+  public double[] getBounds() {
+    if (events.isEmpty()) {
+      return null;
+    }
+
+    double[] bounds = { 90, 180, -90, -180 };
+
+    for (Event event : events) {
+      bounds[0] = Math.min(bounds[0], event.getLat());
+      bounds[1] = Math.min(bounds[1], event.getLon());
+      bounds[2] = Math.max(bounds[2], event.getLat());
+      bounds[3] = Math.max(bounds[3], event.getLon());
+    }
+
+    return bounds;
+  }
+
+  /**
+   * Returns the clusters of a zoom level that intersect the given viewport.
+   * When the viewport covers fewer grid cells than there are clusters, only the
+   * cells within the viewport are looked up instead of checking every cluster.
+   *
+   * @param zoom  The zoom level. Values outside the supported range are clamped.
+   * @param south The southern latitude of the viewport.
+   * @param west  The western longitude of the viewport.
+   * @param north The northern latitude of the viewport.
+   * @param east  The eastern longitude of the viewport.
+   * @return The clusters within the viewport.
+   */
+  public List<Cluster> query(int zoom, double south, double west, double north, double east) {
+    int clampedZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+    HashMap<Long, Cluster> clusters = getClusters(clampedZoom);
+    ArrayList<Cluster> result = new ArrayList<>();
+
+    if (east - west >= 360) {
+      west = -180;
+      east = 180;
+    } else {
+      west = wrapLongitude(west);
+      east = wrapLongitude(east);
+    }
+
+    double cellsPerAxis = TILE_SIZE * Math.pow(2, clampedZoom) / CELL_SIZE;
+    long minCellY = cellIndex(projectY(north), cellsPerAxis);
+    long maxCellY = cellIndex(projectY(south), cellsPerAxis);
+    long[][] columnRanges = west <= east
+        ? new long[][] { { cellIndex(projectX(west), cellsPerAxis), cellIndex(projectX(east), cellsPerAxis) } }
+        : new long[][] { { cellIndex(projectX(west), cellsPerAxis), cellIndex(1, cellsPerAxis) },
+            { 0, cellIndex(projectX(east), cellsPerAxis) } };
+
+    long visibleCells = 0;
+    for (long[] columns : columnRanges) {
+      visibleCells += (columns[1] - columns[0] + 1) * (maxCellY - minCellY + 1);
+    }
+
+    if (visibleCells < clusters.size()) {
+      for (long[] columns : columnRanges) {
+        for (long cellX = columns[0]; cellX <= columns[1]; cellX++) {
+          for (long cellY = minCellY; cellY <= maxCellY; cellY++) {
+            Cluster cluster = clusters.get((cellX << 32) | cellY);
+            if (cluster != null && cluster.intersects(south, west, north, east)) {
+              result.add(cluster);
+            }
+          }
+        }
+      }
+    } else {
+      for (Cluster cluster : clusters.values()) {
+        if (cluster.intersects(south, west, north, east)) {
+          result.add(cluster);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the clusters of a zoom level, computing them on first use.
+   *
+   * @param zoom The zoom level.
+   * @return The clusters of the zoom level, keyed by grid cell.
+   */
+  private HashMap<Long, Cluster> getClusters(int zoom) {
+    return clustersByZoom.computeIfAbsent(zoom, key -> {
+      HashMap<Long, Cluster> clusters = new HashMap<>();
+      addToClusters(zoom, clusters, 0);
+      return clusters;
+    });
+  }
+
+  /**
+   * Adds the indexed events from the given position on to the clusters of a
+   * zoom level.
+   *
+   * @param zoom     The zoom level.
+   * @param clusters The clusters of the zoom level, keyed by grid cell.
+   * @param start    The position of the first event to add.
+   */
+  private void addToClusters(int zoom, HashMap<Long, Cluster> clusters, int start) {
+    double cellsPerAxis = TILE_SIZE * Math.pow(2, zoom) / CELL_SIZE;
+
+    for (int i = start; i < events.size(); i++) {
+      long cellX = cellIndex(xs[i], cellsPerAxis);
+      long cellY = cellIndex(ys[i], cellsPerAxis);
+      long cell = (cellX << 32) | cellY;
+
+      clusters.computeIfAbsent(cell, c -> new Cluster(zoom, cellX, cellY)).add(events.get(i));
+    }
+  }
+
+  /**
+   * Projects a longitude to a Web Mercator x coordinate between 0 and 1.
+   *
+   * @param lon The longitude.
+   * @return The projected x coordinate.
+   */
+  private static double projectX(double lon) {
+    return (lon + 180) / 360;
+  }
+
+  /**
+   * Projects a latitude to a Web Mercator y coordinate between 0 and 1.
+   *
+   * @param lat The latitude.
+   * @return The projected y coordinate.
+   */
+  private static double projectY(double lat) {
+    double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat));
+    double sin = Math.sin(Math.toRadians(clamped));
+    return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+  }
+
+  /**
+   * Returns the grid cell containing a projected coordinate.
+   *
+   * @param projected    The projected coordinate between 0 and 1.
+   * @param cellsPerAxis The number of grid cells per axis.
+   * @return The cell index, clamped to the grid.
+   */
+  private static long cellIndex(double projected, double cellsPerAxis) {
+    return Math.max(0, Math.min((long) cellsPerAxis - 1, (long) Math.floor(projected * cellsPerAxis)));
+  }
+
+  /**
+   * Wraps a longitude into the range from -180 to 180.
+   *
+   * @param lon The longitude.
+   * @return The wrapped longitude.
+   */
+  private static double wrapLongitude(double lon) {
+    double wrapped = ((lon + 180) % 360 + 360) % 360 - 180;
+    return wrapped == -180 && lon > 0 ? 180 : wrapped;
+  }
+
+  /**
+   * A group of events within one grid cell of a zoom level.
+   */
+  public static class Cluster {
+    private final int zoom;
+    private final long cellX;
+    private final long cellY;
+    private final ArrayList<Event> events = new ArrayList<>();
+    private double latSum;
+    private double lonSum;
+    private double south = 90;
+    private double west = 180;
+    private double north = -90;
+    private double east = -180;
+
+    /**
+     * Constructs an empty cluster for a grid cell.
+     *
+     * @param zoom  The zoom level of the cluster.
+     * @param cellX The column of the grid cell.
+     * @param cellY The row of the grid cell.
+     */
+    Cluster(int zoom, long cellX, long cellY) {
+      this.zoom = zoom;
+      this.cellX = cellX;
+      this.cellY = cellY;
+    }
+
+    /**
+     * Adds an event to the cluster.
+     *
+     * @param event The event to add.
+     */
+    void add(Event event) {
+      events.add(event);
+      latSum += event.getLat();
+      lonSum += event.getLon();
+      south = Math.min(south, event.getLat());
+      west = Math.min(west, event.getLon());
+      north = Math.max(north, event.getLat());
+      east = Math.max(east, event.getLon());
+    }
+
+    /**
+     * Returns whether the cluster intersects a viewport. The viewport crosses
+     * the antimeridian if west is greater than east.
+     *
+     * @param south The southern latitude of the viewport.
+     * @param west  The western longitude of the viewport.
+     * @param north The northern latitude of the viewport.
+     * @param east  The eastern longitude of the viewport.
+     * @return true if the cluster intersects the viewport, false otherwise.
+     */
+    boolean intersects(double south, double west, double north, double east) {
+      boolean latitudeMatches = this.north >= south && this.south <= north;
+      boolean longitudeMatches = west <= east
+          ? this.east >= west && this.west <= east
+          : this.east >= west || this.west <= east;
+
+      return latitudeMatches && longitudeMatches;
+    }
+
+    /**
+     * Returns whether all events of the cluster take place at the same
+     * coordinates, in which case the cluster is shown as a single location.
+     *
+     * @return true if the cluster covers a single location, false otherwise.
+     */
+    public boolean isSingleLocation() {
+      return south == north && west == east;
+    }
+
+    /**
+     * Returns an identifier of the cluster. Single locations have the same
+     * identifier at every zoom level, so they are not replaced on the map when
+     * the zoom level changes.
+     *
+     * @return The identifier of the cluster.
+     */
+    public String getId() {
+      return isSingleLocation()
+          ? "location:" + south + "," + west
+          : "cluster:" + zoom + ":" + cellX + ":" + cellY;
+    }
+
+    public List<Event> getEvents() {
+      return events;
+    }
+
+    public double getLat() {
+      return latSum / events.size();
+    }
+
+    public double getLon() {
+      return lonSum / events.size();
+    }
+
+    public double getSouth() {
+      return south;
+    }
+
+    public double getWest() {
+      return west;
+    }
+
+    public double getNorth() {
+      return north;
+    }
+
+    public double getEast() {
+      return east;
+    }
+  }
+}
@@ -0,0 +1,347 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import fi.tuni.concertify.models.Event;
+
+/**
+ * Spatial index over events, answering radius and bounding box queries without
+ * scanning all events.
+ *
+ * Each event is stored under the geohash of its coordinates in a sorted map.
+ * Geohashes of nearby points share a prefix, so all events within a geohash
+ * cell are a contiguous range of the map. A query covers its area with a small
+ * number of cells of a suitable precision and reads only the ranges of those
+ * cells, and the events found are then checked against the exact area. Events
+ * without valid coordinates are not indexed.
+ */
+public class GeohashIndex {
+  private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+  private static final int PRECISION = 9;
+  private static final int MAX_QUERY_CELLS = 32;
+  private static final double EARTH_RADIUS_KM = 6371.0088;
+  private static final double KM_PER_DEGREE = 111.32;
+
+  private final TreeMap<String, ArrayList<Event>> eventsByHash = new TreeMap<>();
+  private final HashMap<String, String> hashesById = new HashMap<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * Constructs an empty index.
+   */
+  public GeohashIndex() {
+  }
+
+  /**
+   * Constructs an index of the given events.
+   *
+   * @param events The events to index.
+   */
+  public GeohashIndex(Collection<Event> events) {
+    addAll(events);
+  }
+
+  /**
+   * Adds events to the index. An event that is already indexed (by Ticketmaster
+   * ID) is replaced.
+   *
+   * @param events The events to add.
+   */
+  public void addAll(Collection<Event> events) {
+    lock.writeLock().lock();
+
+    try {
+      for (Event event : events) {
+        if (event.getTicketmasterID() == null) {
+          continue;
+        }
+
+        removeById(event.getTicketmasterID());
+
+        if (event.getLat() != 0 && event.getLon() != 0) {
+          String hash = encode(event.getLat(), event.getLon(), PRECISION);
+          eventsByHash.computeIfAbsent(hash, key -> new ArrayList<>()).add(event);
+          hashesById.put(event.getTicketmasterID(), hash);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes events from the index.
+   *
+   * @param ticketmasterIDs The Ticketmaster IDs of the events to remove.
+   */
+  public void removeAll(Collection<String> ticketmasterIDs) {
+    lock.writeLock().lock();
+
+    try {
+      ticketmasterIDs.forEach(this::removeById);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of indexed events.
+   *
+   * @return The number of events with valid coordinates.
+   */
+  public int size() {
+    lock.readLock().lock();
+
+    try {
+      return hashesById.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the events within the given distance of a point, nearest first.
+   *
+   * @param lat      The latitude of the point.
+   * @param lon      The longitude of the point.
+   * @param radiusKm The distance in kilometres.
+   * @return The events within the distance.
+   */
+  public List<Event> withinRadius(double lat, double lon, double radiusKm) {
+    double latDelta = radiusKm / KM_PER_DEGREE;
+    double cosLat = Math.cos(Math.toRadians(lat));
+    double lonDelta = cosLat < 1e-6 ? 180 : radiusKm / (KM_PER_DEGREE * cosLat);
+    double south = Math.max(-90, lat - latDelta);
+    double north = Math.min(90, lat + latDelta);
+
+    // Near the poles the circle covers every longitude.
+    boolean allLongitudes = lonDelta >= 180 || north == 90 || south == -90;
+    List<Event> candidates = allLongitudes
+        ? inBounds(south, -180, north, 180)
+        : inBounds(south, lon - lonDelta, north, lon + lonDelta);
+
+    ArrayList<Event> result = new ArrayList<>();
+    HashMap<Event, Double> distances = new HashMap<>();
+
+    for (Event event : candidates) {
+      double distance = distanceKm(lat, lon, event.getLat(), event.getLon());
+      if (distance <= radiusKm) {
+        result.add(event);
+        distances.put(event, distance);
+      }
+    }
+
+    result.sort(Comparator.comparingDouble(distances::get));
+    return result;
+  }
+
+  /**
+   * Returns the events within a bounding box, e.g. the viewport of a map. The
+   * box may cross the antimeridian (west greater than east).
+   *
+   * @param south The southern latitude of the box.
+   * @param west  The western longitude of the box.
+   * @param north The northern latitude of the box.
+   * @param east  The eastern longitude of the box.
+   * @return The events within the box.
+   */
+  public List<Event> inBounds(double south, double west, double north, double east) {
+    if (east - west >= 360) {
+      west = -180;
+      east = 180;
+    } else {
+      west = wrapLongitude(west);
+      east = wrapLongitude(east);
+    }
+
+    ArrayList<Event> result = new ArrayList<>();
+
+    lock.readLock().lock();
+
+    try {
+      if (west <= east) {
+        collect(south, west, north, east, result);
+      } else {
+        collect(south, west, north, 180, result);
+        collect(south, -180, north, east, result);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    return result;
+  }
+
+  /**
+   * Encodes coordinates as a geohash.
+   *
+   * @param lat       The latitude.
+   * @param lon       The longitude.
+   * @param precision The number of characters of the geohash.
+   * @return The geohash.
+   */
+  public static String encode(double lat, double lon, int precision) {
+    double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+    StringBuilder hash = new StringBuilder(precision);
+    boolean lonBit = true;
+    int bits = 0;
+    int value = 0;
+
+    while (hash.length() < precision) {
+      if (lonBit) {
+        double mid = (minLon + maxLon) / 2;
+        value = value << 1 | (lon >= mid ? 1 : 0);
+        if (lon >= mid) {
+          minLon = mid;
+        } else {
+          maxLon = mid;
+        }
+      } else {
+        double mid = (minLat + maxLat) / 2;
+        value = value << 1 | (lat >= mid ? 1 : 0);
+        if (lat >= mid) {
+          minLat = mid;
+        } else {
+          maxLat = mid;
+        }
+      }
+
+      lonBit = !lonBit;
+
+      if (++bits == 5) {
+        hash.append(BASE32.charAt(value));
+        bits = 0;
+        value = 0;
+      }
+    }
+
+    return hash.toString();
+  }
+
+  /**
+   * Returns the great-circle distance between two points.
+   *
+   * @param lat1 The latitude of the first point.
+   * @param lon1 The longitude of the first point.
+   * @param lat2 The latitude of the second point.
+   * @param lon2 The longitude of the second point.
+   * @return The distance in kilometres.
+   */
+  public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  /**
+   * Collects the events within a box that does not cross the antimeridian. The
+   * box is covered with the geohash cells of the finest precision that needs at
+   * most a few cells, and the events of those cells are checked against the
+   * box.
+   *
+   * @param south  The southern latitude of the box.
+   * @param west   The western longitude of the box.
+   * @param north  The northern latitude of the box.
+   * @param east   The eastern longitude of the box.
+   * @param result The list the events are added to.
+   */
+  private void collect(double south, double west, double north, double east, List<Event> result) {
+    int precision = PRECISION;
+    long[] cells = getCellRange(south, west, north, east, precision);
+
+    while (precision > 1 && (cells[2] - cells[0] + 1) * (cells[3] - cells[1] + 1) > MAX_QUERY_CELLS) {
+      cells = getCellRange(south, west, north, east, --precision);
+    }
+
+    int lonBits = (5 * precision + 1) / 2;
+    int latBits = 5 * precision / 2;
+    double cellWidth = 360 / Math.pow(2, lonBits);
+    double cellHeight = 180 / Math.pow(2, latBits);
+
+    for (long x = cells[0]; x <= cells[2]; x++) {
+      for (long y = cells[1]; y <= cells[3]; y++) {
+        String prefix = encode(-90 + (y + 0.5) * cellHeight, -180 + (x + 0.5) * cellWidth, precision);
+
+        for (Map.Entry<String, ArrayList<Event>> entry : eventsByHash
+            .subMap(prefix, true, prefix + Character.MAX_VALUE, true).entrySet()) {
+          for (Event event : entry.getValue()) {
+            if (event.getLat() >= south && event.getLat() <= north
+                && event.getLon() >= west && event.getLon() <= east) {
+              result.add(event);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the range of geohash grid cells of a precision covering a box.
+   *
+   * @param south     The southern latitude of the box.
+   * @param west      The western longitude of the box.
+   * @param north     The northern latitude of the box.
+   * @param east      The eastern longitude of the box.
+   * @param precision The geohash precision.
+   * @return The cell range as {minX, minY, maxX, maxY}.
+   */
+  private static long[] getCellRange(double south, double west, double north, double east, int precision) {
+    long columns = 1L << ((5 * precision + 1) / 2);
+    long rows = 1L << (5 * precision / 2);
+
+    return new long[] {
+        cellIndex((west + 180) / 360, columns),
+        cellIndex((Math.max(-90, south) + 90) / 180, rows),
+        cellIndex((east + 180) / 360, columns),
+        cellIndex((Math.min(90, north) + 90) / 180, rows)
+    };
+  }
+
+  /**
+   * Returns the index of the cell containing a relative position.
+   *
+   * @param position The position between 0 and 1.
+   * @param cells    The number of cells.
+   * @return The cell index, clamped to the grid.
+   */
+  private static long cellIndex(double position, long cells) {
+    return Math.max(0, Math.min(cells - 1, (long) Math.floor(position * cells)));
+  }
+
+  /**
+   * Removes an event from the index. Must be called with the write lock held.
+   *
+   * @param ticketmasterID The Ticketmaster ID of the event.
+   */
+  private void removeById(String ticketmasterID) {
+    String hash = hashesById.remove(ticketmasterID);
+
+    if (hash != null) {
+      ArrayList<Event> bucket = eventsByHash.get(hash);
+      bucket.removeIf(event -> ticketmasterID.equals(event.getTicketmasterID()));
+      if (bucket.isEmpty()) {
+        eventsByHash.remove(hash);
+      }
+    }
+  }
+
+  /**
+   * Wraps a longitude into the range from -180 to 180.
+   *
+   * @param lon The longitude.
+   * @return The wrapped longitude.
+   */
+  private static double wrapLongitude(double lon) {
+    double wrapped = ((lon + 180) % 360 + 360) % 360 - 180;
+    return wrapped == -180 && lon > 0 ? 180 : wrapped;
+  }
+}
@@ -0,0 +1,159 @@
+package fi.tuni.concertify.utilities;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+/**
+ * Records the responses of the external APIs, so they can be replayed later
+ * by the {@link ApiStubServer} without network.
+ *
+ * Recording is switched on by setting CONCERTIFY_RECORD_DIR (e.g.
+ * ./fixtures/http). Each successful response is then saved to
+ * &lt;directory&gt;/&lt;api&gt;/&lt;request hash&gt;.json together with its
+ * request. A request is identified by its path and query relative to the base
+ * URL of the API, with the API keys removed, so the recordings contain no
+ * secrets and match the requests made with any key or base URL.
+ */
+public class HttpRecorder {
+  private static final String RECORD_DIR = AppConfig.get("CONCERTIFY_RECORD_DIR");
+  private static final String[] SECRET_PARAMETERS = { "api_key", "apikey" };
+  private static final Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+  private HttpRecorder() {
+  }
+
+  /**
+   * Returns whether the responses of the APIs are recorded.
+   *
+   * @return true if recording, false otherwise.
+   */
+  public static boolean isRecording() {
+    return RECORD_DIR != null && !RECORD_DIR.isEmpty();
+  }
+
+  /**
+   * Records a response of an API if recording is switched on. Failing to save
+   * the recording does not fail the request.
+   *
+   * @param api     The name of the API (e.g. "lastfm").
+   * @param baseUrl The base URL of the API.
+   * @param url     The URL of the request.
+   * @param body    The body of the response.
+   */
+  public static void record(String api, String baseUrl, String url, String body) {
+    if (!isRecording() || body == null) {
+      return;
+    }
+
+    try {
+      record(Paths.get(RECORD_DIR), api, baseUrl, url, body);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Saves a response of an API to a recording directory.
+   *
+   * @param directory The recording directory.
+   * @param api       The name of the API (e.g. "lastfm").
+   * @param baseUrl   The base URL of the API.
+   * @param url       The URL of the request.
+   * @param body      The body of the response.
+   * @throws IOException If the recording cannot be written.
+   */
+  static void record(Path directory, String api, String baseUrl, String url, String body) throws IOException {
+    String request = requestKey(url.startsWith(baseUrl) ? url.substring(baseUrl.length()) : url);
+    Path file = getRecordingPath(directory, api, request);
+
+    JsonObject recording = new JsonObject();
+    recording.addProperty("request", request);
+    recording.addProperty("body", body);
+
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, gson.toJson(recording), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads the recorded response of a request.
+   *
+   * @param directory The recording directory.
+   * @param api       The name of the API (e.g. "lastfm").
+   * @param request   The path and query of the request relative to the base
+   *                  URL of the API.
+   * @return The body of the recorded response, or null if the request has not
+   *         been recorded.
+   */
+  public static String readRecording(Path directory, String api, String request) {
+    Path file = getRecordingPath(directory, api, requestKey(request));
+
+    if (!Files.exists(file)) {
+      return null;
+    }
+
+    try {
+      JsonObject recording = gson.fromJson(Files.readString(file, StandardCharsets.UTF_8), JsonObject.class);
+      return recording.get("body").getAsString();
+    } catch (IOException | JsonParseException | NullPointerException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+
+  /**
+   * Returns the key identifying a request: its path and query with the API
+   * keys removed.
+   *
+   * @param request The path and query of the request relative to the base URL
+   *                of the API.
+   * @return The key of the request.
+   */
+  static String requestKey(String request) {
+    int queryStart = request.indexOf('?');
+
+    if (queryStart < 0) {
+      return request;
+    }
+
+    String query = Arrays.stream(request.substring(queryStart + 1).split("&"))
+        .filter(parameter -> !parameter.isEmpty() && !isSecret(parameter))
+        .collect(Collectors.joining("&"));
+
+    return request.substring(0, queryStart) + (query.isEmpty() ? "" : "?" + query);
+  }
+
+  /**
+   * Returns whether a query parameter holds an API key.
+   *
+   * @param parameter The query parameter, as name=value.
+   * @return true if the parameter is an API key, false otherwise.
+   */
+  private static boolean isSecret(String parameter) {
+    String name = parameter.split("=", 2)[0];
+    return Arrays.stream(SECRET_PARAMETERS).anyMatch(name::equalsIgnoreCase);
+  }
+
+  /**
+   * Returns the file of the recording of a request.
+   *
+   * @param directory The recording directory.
+   * @param api       The name of the API.
+   * @param key       The key of the request.
+   * @return The path of the recording.
+   */
+  private static Path getRecordingPath(Path directory, String api, String key) {
+    String fileName = UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".json";
+    return directory.resolve(api).resolve(fileName);
+  }
+}
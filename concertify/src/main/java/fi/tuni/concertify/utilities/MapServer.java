@@ -0,0 +1,336 @@
+package fi.tuni.concertify.utilities;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import fi.tuni.concertify.utilities.GeoClusterIndex.Cluster;
+
+/**
+ * Local loopback HTTP server for the event map.
+ *
+ * The map page is served from the server instead of the classpath so that it
+ * can load Leaflet and the map tiles through the server:
+ * <ul>
+ * <li>/map.html is served from the classpath.</li>
+ * <li>/leaflet/... is served from the Leaflet bundled in the classpath
+ * resources under /leaflet. A file missing from the bundle is downloaded from
+ * unpkg once and kept in ./database/cache/leaflet.</li>
+ * <li>/tiles/{z}/{x}/{y}.png is served from a persistent, size-capped tile
+ * cache in ./database/cache/tiles, and fetched from OpenStreetMap on a cache
+ * miss.</li>
+ * </ul>
+ * Once the tiles have been viewed, the map works offline, and tiles that are
+ * not cached are not requested while offline. The tile cache size can be
+ * configured in megabytes with CONCERTIFY_TILE_CACHE_MB. Tiles are only
+ * downloaded when the map shows them, unless prefetching is switched on with
+ * CONCERTIFY_TILE_PREFETCH=true (only for a tile server that allows bulk
+ * downloads, which the OpenStreetMap tile servers do not).
+ */
+public class MapServer {
+  private static final String MAP_PAGE = "/map.html";
+  private static final String LEAFLET_URL = "https://unpkg.com/leaflet@1.9.4/dist/";
+  private static final String TILE_URL = "https://tile.openstreetmap.org/%d/%d/%d.png";
+  private static final String USER_AGENT = "Concertify/1.0 (desktop event map)";
+  private static final Pattern TILE_PATH = Pattern.compile("/tiles/(\\d+)/(\\d+)/(\\d+)\\.png");
+  private static final Pattern LEAFLET_PATH = Pattern.compile("/leaflet/([\\w\\-]+(/[\\w\\-]+)*\\.(js|css|png))");
+  private static final int MAX_PREFETCH_TILES = 96;
+  private static final boolean PREFETCH_ENABLED = AppConfig.getBoolean("CONCERTIFY_TILE_PREFETCH", false);
+
+  private static HttpServer server;
+  private static DiskCache tileCache;
+  private static DiskCache leafletCache;
+  private static ExecutorService prefetchExecutor;
+  private static final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+  private static final HttpClient httpClient = HttpClient.newBuilder()
+      .connectTimeout(Duration.ofSeconds(5))
+      .followRedirects(HttpClient.Redirect.NORMAL)
+      .build();
+
+  /**
+   * Returns the URL of the map page served by the local server, starting the
+   * server on first use.
+   *
+   * @return The URL of the map page, or null if the server could not be started.
+   */
+  public static synchronized String getMapUrl() {
+    if (server == null && !start()) {
+      return null;
+    }
+
+    return "http://127.0.0.1:" + server.getAddress().getPort() + MAP_PAGE;
+  }
+
+  /**
+   * Starts the server on a free loopback port.
+   *
+   * @return true if the server was started, false otherwise.
+   */
+  private static boolean start() {
+    try {
+      tileCache = new DiskCache(Paths.get("./database/cache/tiles"),
+          AppConfig.getLong("CONCERTIFY_TILE_CACHE_MB", 200) * 1024 * 1024);
+      leafletCache = new DiskCache(Paths.get("./database/cache/leaflet"), Long.MAX_VALUE);
+      prefetchExecutor = Executors.newSingleThreadExecutor(MapServer::createDaemonThread);
+
+      server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+      server.setExecutor(Executors.newFixedThreadPool(8, MapServer::createDaemonThread));
+      server.createContext("/", MapServer::handle);
+      server.start();
+      return true;
+    } catch (IOException e) {
+      e.printStackTrace();
+      server = null;
+      return false;
+    }
+  }
+
+  /**
+   * Prefetches the tiles covering the given events in the background: the
+   * tiles of the zoom level at which the map initially shows the events and the
+   * next level, and the tiles around each cluster at the level where clicking
+   * the cluster zooms to. Does nothing unless CONCERTIFY_TILE_PREFETCH is
+   * switched on.
+   *
+   * @param index The index of the events displayed on the map.
+   */
+  public static void prefetch(GeoClusterIndex index) {
+    double[] bounds = index.getBounds();
+
+    if (!PREFETCH_ENABLED || server == null || bounds == null) {
+      return;
+    }
+
+    prefetchExecutor.execute(() -> {
+      HashSet<String> tiles = new HashSet<>();
+      int zoom = getFittingZoom(bounds);
+
+      for (int z = zoom; z <= Math.min(zoom + 1, GeoClusterIndex.MAX_ZOOM); z++) {
+        addTiles(tiles, z, bounds[0], bounds[1], bounds[2], bounds[3]);
+      }
+
+      int clusterZoom = Math.min(zoom + 2, GeoClusterIndex.MAX_ZOOM);
+      List<Cluster> clusters = index.query(clusterZoom, bounds[0], bounds[1], bounds[2], bounds[3]);
+
+      for (Cluster cluster : clusters) {
+        addTiles(tiles, clusterZoom, cluster.getLat(), cluster.getLon(), cluster.getLat(), cluster.getLon());
+      }
+
+      tiles.stream().limit(MAX_PREFETCH_TILES).forEach(tile -> {
+        if (!tileCache.contains(tile)) {
+          fetch(tile, String.format(TILE_URL, parseTile(tile)), tileCache).join();
+        }
+      });
+    });
+  }
+
+  /**
+   * Handles a request to the server.
+   *
+   * @param exchange The HTTP exchange.
+   * @throws IOException If the response cannot be written.
+   */
+  private static void handle(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    byte[] body = null;
+
+    try {
+      Matcher tileMatcher = TILE_PATH.matcher(path);
+      Matcher leafletMatcher = LEAFLET_PATH.matcher(path);
+
+      if (path.equals(MAP_PAGE)) {
+        body = readResource(MAP_PAGE);
+      } else if (tileMatcher.matches()) {
+        String key = tileMatcher.group(1) + "/" + tileMatcher.group(2) + "/" + tileMatcher.group(3) + ".png";
+        body = tileCache.get(key);
+
+        if (body == null) {
+          body = fetch(key, String.format(TILE_URL, parseTile(key)), tileCache).join();
+        }
+      } else if (leafletMatcher.matches()) {
+        String file = leafletMatcher.group(1);
+        body = readResource("/leaflet/" + file);
+
+        if (body == null) {
+          body = leafletCache.get(file);
+        }
+        if (body == null) {
+          body = fetch(file, LEAFLET_URL + file, leafletCache).join();
+        }
+      }
+    } catch (RuntimeException e) {
+      body = null;
+    }
+
+    if (body == null) {
+      exchange.sendResponseHeaders(404, -1);
+      exchange.close();
+      return;
+    }
+
+    exchange.getResponseHeaders().set("Content-Type", getContentType(path));
+    if (!path.equals(MAP_PAGE)) {
+      exchange.getResponseHeaders().set("Cache-Control", "max-age=86400");
+    }
+    exchange.sendResponseHeaders(200, body.length);
+
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(body);
+    }
+  }
+
+  /**
+   * Downloads a file and stores it in a cache. Concurrent requests for the same
+   * file share a single download.
+   *
+   * @param key   The cache key of the file.
+   * @param url   The URL to download the file from.
+   * @param cache The cache to store the file in.
+   * @return A future completing with the downloaded data, or with null if the
+   *         download failed or the application is offline.
+   */
+  private static CompletableFuture<byte[]> fetch(String key, String url, DiskCache cache) {
+    if (OfflineMode.isOffline()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    CompletableFuture<byte[]> future = new CompletableFuture<>();
+    CompletableFuture<byte[]> existing = inFlight.putIfAbsent(url, future);
+
+    if (existing != null) {
+      return existing;
+    }
+
+    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+        .header("User-Agent", USER_AGENT)
+        .timeout(Duration.ofSeconds(10))
+        .build();
+
+    httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+        .thenApply(response -> {
+          if (response.statusCode() != 200) {
+            return null;
+          }
+          cache.put(key, response.body());
+          return response.body();
+        })
+        .exceptionally(e -> null)
+        .thenAccept(data -> {
+          inFlight.remove(url);
+          future.complete(data);
+        });
+
+    return future;
+  }
+
+  /**
+   * Returns the zoom level at which the bounds fit in a map of roughly 800 by
+   * 400 pixels.
+   *
+   * @param bounds The bounds as {south, west, north, east}.
+   * @return The fitting zoom level.
+   */
+  private static int getFittingZoom(double[] bounds) {
+    double lonSpan = Math.max(bounds[3] - bounds[1], 0.01);
+    double latSpan = Math.max(bounds[2] - bounds[0], 0.01);
+    double zoom = Math.min(Math.log(800 * 360 / (256 * lonSpan)), Math.log(400 * 170 / (256 * latSpan)))
+        / Math.log(2);
+
+    return (int) Math.max(GeoClusterIndex.MIN_ZOOM, Math.min(12, Math.floor(zoom)));
+  }
+
+  /**
+   * Adds the tiles of a zoom level covering the given bounds, with a margin of
+   * one tile, to a set of tile keys.
+   *
+   * @param tiles The set of tile keys.
+   * @param zoom  The zoom level.
+   * @param south The southern latitude.
+   * @param west  The western longitude.
+   * @param north The northern latitude.
+   * @param east  The eastern longitude.
+   */
+  private static void addTiles(HashSet<String> tiles, int zoom, double south, double west, double north,
+      double east) {
+    int max = (1 << zoom) - 1;
+    int minX = Math.max(0, getTileX(west, zoom) - 1);
+    int maxX = Math.min(max, getTileX(east, zoom) + 1);
+    int minY = Math.max(0, getTileY(north, zoom) - 1);
+    int maxY = Math.min(max, getTileY(south, zoom) + 1);
+
+    for (int x = minX; x <= maxX && tiles.size() < MAX_PREFETCH_TILES; x++) {
+      for (int y = minY; y <= maxY && tiles.size() < MAX_PREFETCH_TILES; y++) {
+        tiles.add(zoom + "/" + x + "/" + y + ".png");
+      }
+    }
+  }
+
+  private static int getTileX(double lon, int zoom) {
+    return (int) Math.floor((lon + 180) / 360 * (1 << zoom));
+  }
+
+  private static int getTileY(double lat, int zoom) {
+    double latRad = Math.toRadians(Math.max(-85.0511, Math.min(85.0511, lat)));
+    return (int) Math.floor((1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * (1 << zoom));
+  }
+
+  /**
+   * Parses a tile key into its zoom level and coordinates.
+   *
+   * @param key The tile key (e.g. "12/2331/1185.png").
+   * @return The zoom level, x and y of the tile.
+   */
+  private static Object[] parseTile(String key) {
+    String[] parts = key.replace(".png", "").split("/");
+    return new Object[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]) };
+  }
+
+  /**
+   * Reads a classpath resource.
+   *
+   * @param path The absolute classpath path of the resource.
+   * @return The contents of the resource, or null if it does not exist.
+   * @throws IOException If the resource cannot be read.
+   */
+  private static byte[] readResource(String path) throws IOException {
+    try (InputStream stream = MapServer.class.getResourceAsStream(path)) {
+      return stream != null ? stream.readAllBytes() : null;
+    }
+  }
+
+  private static String getContentType(String path) {
+    if (path.endsWith(".html")) {
+      return "text/html; charset=utf-8";
+    } else if (path.endsWith(".js")) {
+      return "application/javascript";
+    } else if (path.endsWith(".css")) {
+      return "text/css";
+    }
+    return "image/png";
+  }
+
+  private static Thread createDaemonThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, "map-server");
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -0,0 +1,295 @@
+package fi.tuni.concertify.utilities;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+
+/**
+ * Tracks whether the application is offline, so the services answer from the
+ * local caches instead of waiting for requests that cannot succeed.
+ *
+ * Offline mode is switched on manually with CONCERTIFY_OFFLINE=true (or
+ * -Dconcertify.offline=true) or from the navigation bar. Otherwise each host
+ * is tracked separately: a host is unreachable once a request to it fails
+ * because it cannot be connected to, and requests to it fail immediately with
+ * an {@link OfflineException}, while the other hosts are still used. An
+ * unreachable host is probed every CONCERTIFY_OFFLINE_PROBE_SECONDS (30 by
+ * default) until it can be connected to again. The application is detected to
+ * be offline only when all the hosts it has sent requests to are unreachable.
+ * Work that needs the network can be deferred with {@link #runWhenOnline};
+ * it runs in the background once the application is online again.
+ */
+public class OfflineMode {
+  private static final long PROBE_INTERVAL_SECONDS = Math.max(1,
+      AppConfig.getLong("CONCERTIFY_OFFLINE_PROBE_SECONDS", 30));
+  private static final int PROBE_TIMEOUT_MILLIS = 3000;
+
+  private static final ReadOnlyBooleanWrapper offline = new ReadOnlyBooleanWrapper();
+  private static final ConcurrentLinkedQueue<Runnable> deferred = new ConcurrentLinkedQueue<>();
+  private static final Set<String> knownHosts = ConcurrentHashMap.newKeySet();
+  private static final ConcurrentHashMap<String, ScheduledFuture<?>> unreachableHosts = new ConcurrentHashMap<>();
+  private static volatile boolean manual = AppConfig.getBoolean("CONCERTIFY_OFFLINE", false);
+  private static volatile boolean detected = false;
+  private static ScheduledExecutorService prober;
+
+  static {
+    offline.set(manual);
+  }
+
+  private OfflineMode() {
+  }
+
+  /**
+   * Returns whether the application is offline, either switched manually or
+   * because all the hosts were detected to be unreachable.
+   *
+   * @return true if offline, false otherwise.
+   */
+  public static boolean isOffline() {
+    return manual || detected;
+  }
+
+  /**
+   * Returns whether offline mode has been switched on manually.
+   *
+   * @return true if switched on manually, false otherwise.
+   */
+  public static boolean isManual() {
+    return manual;
+  }
+
+  /**
+   * Returns the property of whether the application is offline, updated on the
+   * JavaFX application thread.
+   *
+   * @return The offline property.
+   */
+  public static ReadOnlyBooleanProperty offlineProperty() {
+    return offline.getReadOnlyProperty();
+  }
+
+  /**
+   * Switches the manual offline mode on or off. The deferred work is run when
+   * the application goes back online.
+   *
+   * @param enabled Whether the application should stay offline.
+   */
+  public static void setManual(boolean enabled) {
+    manual = enabled;
+    onStateChanged();
+  }
+
+  /**
+   * Returns whether a host is reachable, i.e. its last request did not fail
+   * because it could not be connected to.
+   *
+   * @param host The host name of the API.
+   * @return true if the host is reachable, false otherwise.
+   */
+  public static boolean isReachable(String host) {
+    return !unreachableHosts.containsKey(host);
+  }
+
+  /**
+   * Checks that a request to an external API may be sent.
+   *
+   * @param host The host name of the API.
+   * @throws OfflineException If the application is offline or the host is
+   *                          unreachable.
+   */
+  public static void checkOnline(String host) throws OfflineException {
+    knownHosts.add(host);
+
+    if (isOffline() || !isReachable(host)) {
+      throw new OfflineException();
+    }
+  }
+
+  /**
+   * Reports a failed request. If the failure shows that the host cannot be
+   * connected to, the host is probed until it can be reached again, and the
+   * application goes offline if no other host is reachable either.
+   *
+   * @param host  The host name of the API.
+   * @param error The error of the request.
+   */
+  public static void reportFailure(String host, IOException error) {
+    if (!isNetworkFailure(error)) {
+      return;
+    }
+
+    synchronized (OfflineMode.class) {
+      if (!isReachable(host)) {
+        return;
+      }
+
+      knownHosts.add(host);
+      unreachableHosts.put(host, startProbing(host));
+
+      if (!updateDetected()) {
+        return;
+      }
+    }
+
+    onStateChanged();
+  }
+
+  /**
+   * Forgets the hosts and their reachability, used for testing purposes.
+   */
+  static synchronized void reset() {
+    unreachableHosts.values().forEach(probe -> probe.cancel(false));
+    unreachableHosts.clear();
+    knownHosts.clear();
+    detected = false;
+  }
+
+  /**
+   * Runs work that needs the network in the background, right away if the
+   * application is online, otherwise once it is online again.
+   *
+   * @param task The work to run.
+   */
+  public static void runWhenOnline(Runnable task) {
+    deferred.add(task);
+
+    if (!isOffline()) {
+      runDeferred();
+    }
+  }
+
+  /**
+   * Returns the number of deferred tasks waiting for the network.
+   *
+   * @return The number of deferred tasks.
+   */
+  public static int getDeferredCount() {
+    return deferred.size();
+  }
+
+  /**
+   * Returns whether an error of a request means that the network is
+   * unreachable, rather than that the request itself failed.
+   *
+   * @param error The error of the request.
+   * @return true if the network is unreachable, false otherwise.
+   */
+  static boolean isNetworkFailure(IOException error) {
+    if (error instanceof OfflineException) {
+      return false;
+    }
+
+    return error instanceof UnknownHostException || error instanceof ConnectException
+        || error instanceof NoRouteToHostException || error instanceof HttpConnectTimeoutException
+        || (error instanceof SocketTimeoutException && error.getMessage() != null
+            && error.getMessage().contains("connect"));
+  }
+
+  /**
+   * Updates whether the application is detected to be offline, i.e. whether
+   * all the known hosts are unreachable. Must be called while holding the lock
+   * of the class.
+   *
+   * @return true if the state changed, false otherwise.
+   */
+  private static boolean updateDetected() {
+    boolean allUnreachable = !unreachableHosts.isEmpty() && unreachableHosts.keySet().containsAll(knownHosts);
+    boolean changed = allUnreachable != detected;
+
+    detected = allUnreachable;
+    return changed;
+  }
+
+  /**
+   * Starts probing a host in the background until it can be reached. Must be
+   * called while holding the lock of the class.
+   *
+   * @param host The host name to probe.
+   * @return The scheduled probe.
+   */
+  private static ScheduledFuture<?> startProbing(String host) {
+    if (prober == null) {
+      prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "offline-probe");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+      });
+    }
+
+    return prober.scheduleWithFixedDelay(() -> {
+      try (Socket socket = new Socket()) {
+        socket.connect(new InetSocketAddress(host, 443), PROBE_TIMEOUT_MILLIS);
+      } catch (IOException e) {
+        return;
+      }
+
+      boolean changed;
+      synchronized (OfflineMode.class) {
+        ScheduledFuture<?> probe = unreachableHosts.remove(host);
+        if (probe != null) {
+          probe.cancel(false);
+        }
+        changed = updateDetected();
+      }
+
+      if (changed) {
+        onStateChanged();
+      }
+    }, PROBE_INTERVAL_SECONDS, PROBE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Publishes the offline state and runs the deferred work if the application
+   * is online.
+   */
+  private static void onStateChanged() {
+    boolean isOffline = isOffline();
+
+    FxUtils.runOnFxThread(() -> offline.set(isOffline));
+
+    if (!isOffline) {
+      runDeferred();
+    }
+  }
+
+  /**
+   * Runs the deferred work in the background.
+   */
+  private static void runDeferred() {
+    Runnable task;
+
+    while ((task = deferred.poll()) != null) {
+      BackgroundExecutor.execute(task);
+    }
+  }
+
+  /**
+   * Thrown instead of sending a request while the application is offline.
+   */
+  public static class OfflineException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs an OfflineException.
+     */
+    public OfflineException() {
+      super("Offline, the request was not sent.");
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import fi.tuni.concertify.models.ChartEntry;
+
+/**
+ * Utility class for ranking chart entries.
+ *
+ * The values to rank by are read once into a primitive array, and the top
+ * entries are selected with a bounded heap of indices, so selecting the top k
+ * of n entries takes O(n log k) comparisons of longs instead of a full sort.
+ * Entries with equal values keep their original order.
+ *
+ * Rankings of several charts (e.g. the charts of several countries) can be
+ * merged into a single ranking, where an entry appearing in several charts is
+ * ranked by the sum of its values.
+ */
+public class RankingEngine {
+
+  /**
+   * Returns the indices of the k highest values, highest first. Equal values
+   * are ordered by index.
+   *
+   * @param values The values to rank.
+   * @param k      The maximum number of indices to return.
+   * @return The indices of the top values.
+   */
+  public static int[] topIndices(long[] values, int k) {
+    int size = Math.min(k, values.length);
+    if (size <= 0) {
+      return new int[0];
+    }
+
+    // Min-heap of the best indices found so far; the worst of them is at the root.
+    int[] heap = new int[size];
+    int heapSize = 0;
+
+    for (int i = 0; i < values.length; i++) {
+      if (heapSize < size) {
+        heap[heapSize] = i;
+        siftUp(heap, heapSize++, values);
+      } else if (isBetter(i, heap[0], values)) {
+        heap[0] = i;
+        siftDown(heap, heapSize, values);
+      }
+    }
+
+    // Removing the root repeatedly yields the indices from worst to best.
+    int[] result = new int[size];
+    for (int i = size - 1; i >= 0; i--) {
+      result[i] = heap[0];
+      heap[0] = heap[--heapSize];
+      siftDown(heap, heapSize, values);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the k entries with the highest value of the given metric, highest
+   * first.
+   *
+   * @param entries The entries to rank.
+   * @param metric  The metric to rank by, either "listeners" or "playcount".
+   * @param k       The maximum number of entries to return.
+   * @return The top entries.
+   */
+  public static ArrayList<ChartEntry> topK(List<ChartEntry> entries, String metric, int k) {
+    long[] values = new long[entries.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = entries.get(i).getMetric(metric);
+    }
+
+    ArrayList<ChartEntry> result = new ArrayList<>();
+    for (int index : topIndices(values, k)) {
+      result.add(entries.get(index));
+    }
+
+    return result;
+  }
+
+  /**
+   * Merges several rankings into one and returns its top k entries. Entries
+   * with the same name are combined by summing their listeners and play counts,
+   * so an entry appearing in several rankings ranks higher.
+   *
+   * @param rankings The rankings to merge.
+   * @param metric   The metric to rank by, either "listeners" or "playcount".
+   * @param k        The maximum number of entries to return.
+   * @return The top entries of the merged ranking.
+   */
+  public static ArrayList<ChartEntry> merge(List<? extends List<ChartEntry>> rankings, String metric, int k) {
+    HashMap<String, Integer> ids = new HashMap<>();
+    ArrayList<String> names = new ArrayList<>();
+    int capacity = rankings.stream().mapToInt(List::size).sum();
+    long[] listeners = new long[capacity];
+    long[] playCounts = new long[capacity];
+
+    for (List<ChartEntry> ranking : rankings) {
+      for (ChartEntry entry : ranking) {
+        int id = ids.computeIfAbsent(entry.getName(), name -> {
+          names.add(name);
+          return names.size() - 1;
+        });
+
+        listeners[id] += entry.getListeners();
+        playCounts[id] += entry.getPlayCount();
+      }
+    }
+
+    long[] values = Arrays.copyOf(metric.equals("listeners") ? listeners : playCounts, names.size());
+
+    ArrayList<ChartEntry> result = new ArrayList<>();
+    for (int id : topIndices(values, k)) {
+      result.add(new ChartEntry(names.get(id), listeners[id], playCounts[id]));
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns whether the value at index a ranks above the value at index b.
+   *
+   * @param a      The first index.
+   * @param b      The second index.
+   * @param values The values.
+   * @return true if a ranks above b, false otherwise.
+   */
+  private static boolean isBetter(int a, int b, long[] values) {
+    return values[a] > values[b] || (values[a] == values[b] && a < b);
+  }
+
+  /**
+   * Moves the element at the given position of the heap up to its place.
+   *
+   * @param heap     The heap of indices.
+   * @param position The position of the element.
+   * @param values   The values the indices refer to.
+   */
+  private static void siftUp(int[] heap, int position, long[] values) {
+    int index = heap[position];
+
+    while (position > 0) {
+      int parent = (position - 1) / 2;
+      if (!isBetter(heap[parent], index, values)) {
+        break;
+      }
+      heap[position] = heap[parent];
+      position = parent;
+    }
+
+    heap[position] = index;
+  }
+
+  /**
+   * Moves the root of the heap down to its place.
+   *
+   * @param heap   The heap of indices.
+   * @param size   The number of elements in the heap.
+   * @param values The values the indices refer to.
+   */
+  private static void siftDown(int[] heap, int size, long[] values) {
+    if (size == 0) {
+      return;
+    }
+
+    int index = heap[0];
+    int position = 0;
+
+    while (2 * position + 1 < size) {
+      int child = 2 * position + 1;
+      if (child + 1 < size && isBetter(heap[child], heap[child + 1], values)) {
+        child++;
+      }
+      if (!isBetter(index, heap[child], values)) {
+        break;
+      }
+      heap[position] = heap[child];
+      position = child;
+    }
+
+    heap[position] = index;
+  }
+}
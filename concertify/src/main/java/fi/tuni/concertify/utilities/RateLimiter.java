@@ -0,0 +1,115 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter for requests to an API host.
+ *
+ * Each host has its own bucket, shared by all services, which allows short
+ * bursts but keeps the average rate at most the number of requests per second
+ * allowed by the API: 1 for MusicBrainz and 5 for Last.fm, Ticketmaster and
+ * Spotify. The rate of an API can be changed with
+ * CONCERTIFY_RATE_LIMIT_&lt;API&gt; (e.g. CONCERTIFY_RATE_LIMIT_MUSICBRAINZ),
+ * and the rate of other hosts, such as a local stub server, with
+ * CONCERTIFY_RATE_LIMIT_PER_SECOND (5 by default).
+ */
+public class RateLimiter {
+  private static final ConcurrentHashMap<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+  private static final Map<String, String> API_DOMAINS = Map.of(
+      "audioscrobbler.com", "LASTFM",
+      "musicbrainz.org", "MUSICBRAINZ",
+      "ticketmaster.com", "TICKETMASTER",
+      "spotify.com", "SPOTIFY");
+  private static final Map<String, Double> API_RATES = Map.of(
+      "LASTFM", 5.0,
+      "MUSICBRAINZ", 1.0,
+      "TICKETMASTER", 5.0,
+      "SPOTIFY", 5.0);
+
+  private final double permitsPerSecond;
+  private final double capacity;
+  private double tokens;
+  private long lastRefill = System.nanoTime();
+
+  /**
+   * Constructs a rate limiter with the given rate and burst size. The bucket
+   * starts full.
+   *
+   * @param permitsPerSecond The average number of requests allowed per second.
+   * @param capacity         The maximum number of requests allowed in a burst.
+   */
+  public RateLimiter(double permitsPerSecond, double capacity) {
+    this.permitsPerSecond = permitsPerSecond;
+    this.capacity = capacity;
+    this.tokens = capacity;
+  }
+
+  /**
+   * Returns the rate limiter shared by all requests to the given host.
+   *
+   * @param host The host name of the API.
+   * @return The rate limiter of the host.
+   */
+  public static RateLimiter forHost(String host) {
+    return limiters.computeIfAbsent(host, key -> {
+      double rate = getRate(key);
+      return new RateLimiter(rate, Math.max(1, rate));
+    });
+  }
+
+  /**
+   * Returns the number of requests per second allowed to a host: the
+   * configured or documented rate of the API served by the host, or the
+   * general rate for other hosts.
+   *
+   * @param host The host name of the API.
+   * @return The number of requests allowed per second.
+   */
+  static double getRate(String host) {
+    double rate = AppConfig.getDouble("CONCERTIFY_RATE_LIMIT_PER_SECOND", 5);
+
+    for (Map.Entry<String, String> domain : API_DOMAINS.entrySet()) {
+      if (host.equals(domain.getKey()) || host.endsWith("." + domain.getKey())) {
+        String api = domain.getValue();
+        rate = AppConfig.getDouble("CONCERTIFY_RATE_LIMIT_" + api, API_RATES.get(api));
+        break;
+      }
+    }
+
+    return rate > 0 ? rate : 1;
+  }
+
+  /**
+   * Waits until a request is allowed and takes a permit for it.
+   *
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  public void acquire() throws InterruptedException {
+    long waitNanos;
+
+    while ((waitNanos = tryAcquire()) > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+
+  /**
+   * Takes a permit if one is available.
+   *
+   * @return 0 if a permit was taken, otherwise the time in nanoseconds until the
+   *         next permit is available.
+   */
+  synchronized long tryAcquire() {
+    long now = System.nanoTime();
+    tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerSecond / 1e9);
+    lastRefill = now;
+
+    if (tokens >= 1) {
+      tokens -= 1;
+      return 0;
+    }
+
+    return (long) ((1 - tokens) * 1e9 / permitsPerSecond);
+  }
+}
@@ -0,0 +1,381 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Schedules the requests to the external APIs by priority, so requests made
+ * for the user are not queued behind prefetching and background jobs.
+ *
+ * Each request has the priority of the thread making it: interactive by
+ * default, or prefetch or background when run with
+ * {@link #withPriority(Priority, Supplier)}. Tasks submitted to the
+ * {@link BackgroundExecutor} keep the priority of the code submitting them.
+ *
+ * Requests to a host (a provider) wait in one queue, ordered by priority and
+ * then by arrival, and each takes a permit of the host's rate limiter when it
+ * is its turn. A new request therefore overtakes the queued requests of lower
+ * priority, and low priority requests only use the rate limit budget left
+ * over by the others. Each host also has a bulkhead: at most
+ * CONCERTIFY_REQUEST_MAX_CONCURRENT_PER_HOST requests (4 by default) run at the
+ * same time, of which at most half may be prefetch requests and one a
+ * background request, so slow low priority requests cannot take all the
+ * connections. The queueing of each priority class is recorded in its
+ * {@link Metrics}.
+ */
+public class RequestScheduler {
+  private static final RequestScheduler shared = new RequestScheduler(
+      (int) AppConfig.getLong("CONCERTIFY_REQUEST_MAX_CONCURRENT_PER_HOST", 4), RateLimiter::forHost);
+  private static final ThreadLocal<Priority> currentPriority = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+
+  private final int maxConcurrent;
+  private final Function<String, RateLimiter> rateLimiters;
+  private final ConcurrentHashMap<String, Provider> providers = new ConcurrentHashMap<>();
+  private final EnumMap<Priority, Metrics> metrics = new EnumMap<>(Priority.class);
+  private final AtomicLong sequence = new AtomicLong();
+
+  /**
+   * The priority classes of requests, from the most to the least urgent.
+   */
+  public enum Priority {
+    /** Requests made for something the user is waiting for. */
+    INTERACTIVE,
+    /** Requests made in advance for something the user is likely to need. */
+    PREFETCH,
+    /** Requests of background jobs keeping the stored data fresh. */
+    BACKGROUND
+  }
+
+  /**
+   * Constructs a RequestScheduler.
+   *
+   * @param maxConcurrent The maximum number of requests running at the same
+   *                      time per host.
+   * @param rateLimiters  Returns the rate limiter of a host.
+   */
+  public RequestScheduler(int maxConcurrent, Function<String, RateLimiter> rateLimiters) {
+    this.maxConcurrent = Math.max(1, maxConcurrent);
+    this.rateLimiters = rateLimiters;
+
+    for (Priority priority : Priority.values()) {
+      metrics.put(priority, new Metrics());
+    }
+  }
+
+  /**
+   * Returns the scheduler shared by all requests of the application.
+   *
+   * @return The shared scheduler.
+   */
+  public static RequestScheduler getShared() {
+    return shared;
+  }
+
+  /**
+   * Returns the priority of the requests made by the current thread.
+   *
+   * @return The current priority.
+   */
+  public static Priority getPriority() {
+    return currentPriority.get();
+  }
+
+  /**
+   * Runs a task with the given priority for the requests it makes.
+   *
+   * @param priority The priority of the requests.
+   * @param task     The task to run.
+   * @return The result of the task.
+   */
+  public static <T> T withPriority(Priority priority, Supplier<T> task) {
+    Priority previous = currentPriority.get();
+    currentPriority.set(priority);
+
+    try {
+      return task.get();
+    } finally {
+      currentPriority.set(previous);
+    }
+  }
+
+  /**
+   * Runs a task with the given priority for the requests it makes.
+   *
+   * @param priority The priority of the requests.
+   * @param task     The task to run.
+   */
+  public static void runWithPriority(Priority priority, Runnable task) {
+    withPriority(priority, () -> {
+      task.run();
+      return null;
+    });
+  }
+
+  /**
+   * Waits until a request to the given host may be sent, with the priority of
+   * the current thread. The returned slot must be closed when the request has
+   * finished.
+   *
+   * @param host The host name of the API.
+   * @return The slot of the request.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  public Slot acquire(String host) throws InterruptedException {
+    Priority priority = getPriority();
+    Provider provider = providers.computeIfAbsent(host, key -> new Provider(rateLimiters.apply(key)));
+    Metrics classMetrics = metrics.get(priority);
+    Ticket ticket = new Ticket(priority, sequence.incrementAndGet());
+    long queuedAt = System.nanoTime();
+
+    synchronized (provider) {
+      provider.queue.forEach(queued -> {
+        if (queued.priority.compareTo(priority) > 0) {
+          metrics.get(queued.priority).preempted.incrementAndGet();
+        }
+      });
+      provider.queue.add(ticket);
+      classMetrics.queued.incrementAndGet();
+      // A lower priority request waiting for a permit must let this one go first
+      provider.notifyAll();
+
+      try {
+        while (true) {
+          if (provider.queue.peek() == ticket && provider.hasFreeSlot(priority)) {
+            long waitNanos = provider.rateLimiter.tryAcquire();
+            if (waitNanos == 0) {
+              break;
+            }
+            TimeUnit.NANOSECONDS.timedWait(provider, waitNanos);
+          } else {
+            provider.wait();
+          }
+        }
+      } catch (InterruptedException e) {
+        provider.queue.remove(ticket);
+        classMetrics.queued.decrementAndGet();
+        provider.notifyAll();
+        throw e;
+      }
+
+      provider.queue.poll();
+      provider.running[priority.ordinal()]++;
+      classMetrics.queued.decrementAndGet();
+      // The next request may be able to run as well
+      provider.notifyAll();
+    }
+
+    classMetrics.recordAdmission(System.nanoTime() - queuedAt);
+    return new Slot(provider, priority);
+  }
+
+  /**
+   * Returns the metrics of a priority class.
+   *
+   * @param priority The priority class.
+   * @return The metrics of the class.
+   */
+  public Metrics getMetrics(Priority priority) {
+    return metrics.get(priority);
+  }
+
+  /**
+   * Returns a report of the metrics of all priority classes, for printing.
+   *
+   * @return The metrics report.
+   */
+  public String getReport() {
+    StringBuilder report = new StringBuilder("Request scheduler:");
+
+    for (Priority priority : Priority.values()) {
+      Metrics classMetrics = metrics.get(priority);
+      report.append(String.format("%n  %-11s %5d requests, average wait %6.1f ms, max wait %6.1f ms, %d overtaken",
+          priority.name().toLowerCase(), classMetrics.getRequests(), classMetrics.getAverageWaitMillis(),
+          classMetrics.getMaxWaitMillis(), classMetrics.getPreempted()));
+    }
+
+    return report.toString();
+  }
+
+  /**
+   * The request queue and running requests of one host.
+   */
+  private class Provider {
+    private final RateLimiter rateLimiter;
+    private final PriorityQueue<Ticket> queue = new PriorityQueue<>(
+        Comparator.comparing((Ticket ticket) -> ticket.priority).thenComparingLong(ticket -> ticket.sequence));
+    private final int[] running = new int[Priority.values().length];
+
+    /**
+     * Constructs a Provider.
+     *
+     * @param rateLimiter The rate limiter of the host.
+     */
+    private Provider(RateLimiter rateLimiter) {
+      this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Returns whether a request of the given priority fits in the bulkhead of
+     * the host. Must be called while holding the lock of the provider.
+     *
+     * @param priority The priority of the request.
+     * @return true if the request may run now, false otherwise.
+     */
+    private boolean hasFreeSlot(Priority priority) {
+      int total = 0;
+      for (int count : running) {
+        total += count;
+      }
+
+      return total < maxConcurrent && running[priority.ordinal()] < getClassLimit(priority);
+    }
+
+    /**
+     * Returns the maximum number of running requests of a priority class.
+     *
+     * @param priority The priority class.
+     * @return The limit of the class.
+     */
+    private int getClassLimit(Priority priority) {
+      switch (priority) {
+        case PREFETCH:
+          return Math.max(1, maxConcurrent / 2);
+        case BACKGROUND:
+          return 1;
+        default:
+          return maxConcurrent;
+      }
+    }
+  }
+
+  /**
+   * A queued request.
+   */
+  private static class Ticket {
+    private final Priority priority;
+    private final long sequence;
+
+    /**
+     * Constructs a Ticket.
+     *
+     * @param priority The priority of the request.
+     * @param sequence The arrival order of the request.
+     */
+    private Ticket(Priority priority, long sequence) {
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+  }
+
+  /**
+   * The slot of a running request, released when closed.
+   */
+  public class Slot implements AutoCloseable {
+    private final Provider provider;
+    private final Priority priority;
+    private boolean closed = false;
+
+    /**
+     * Constructs a Slot.
+     *
+     * @param provider The provider of the request.
+     * @param priority The priority of the request.
+     */
+    private Slot(Provider provider, Priority priority) {
+      this.provider = provider;
+      this.priority = priority;
+    }
+
+    /**
+     * Releases the slot, letting the next queued request run.
+     */
+    @Override
+    public void close() {
+      synchronized (provider) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        provider.running[priority.ordinal()]--;
+        provider.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * The metrics of one priority class: the number of requests sent, the time
+   * they waited in the queue, the number of requests waiting now and how many
+   * times a queued request was overtaken by a request of a higher priority.
+   */
+  public static class Metrics {
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong preempted = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Records a request that has been let through.
+     *
+     * @param waitNanos The time the request waited, in nanoseconds.
+     */
+    private void recordAdmission(long waitNanos) {
+      requests.incrementAndGet();
+      totalWaitNanos.addAndGet(waitNanos);
+      maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Returns the number of requests sent.
+     *
+     * @return The number of requests.
+     */
+    public long getRequests() {
+      return requests.get();
+    }
+
+    /**
+     * Returns the number of requests waiting in the queues.
+     *
+     * @return The number of queued requests.
+     */
+    public long getQueued() {
+      return queued.get();
+    }
+
+    /**
+     * Returns the number of times a queued request was overtaken by a request
+     * of a higher priority.
+     *
+     * @return The number of times overtaken.
+     */
+    public long getPreempted() {
+      return preempted.get();
+    }
+
+    /**
+     * Returns the average time the requests waited in the queue.
+     *
+     * @return The average wait in milliseconds.
+     */
+    public double getAverageWaitMillis() {
+      long count = requests.get();
+      return count == 0 ? 0 : totalWaitNanos.get() / 1e6 / count;
+    }
+
+    /**
+     * Returns the longest time a request waited in the queue.
+     *
+     * @return The maximum wait in milliseconds.
+     */
+    public double getMaxWaitMillis() {
+      return maxWaitNanos.get() / 1e6;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
+/**
+ * A cached value served with the stale-while-revalidate strategy.
+ *
+ * The cached value is available immediately together with the time it was
+ * fetched, even if it is older than its freshness budget. In that case a fresh
+ * value is fetched in the background, and it replaces the cached value when it
+ * arrives. The value, its fetch time and whether it is being refreshed are
+ * JavaFX properties, updated on the JavaFX application thread, so views can
+ * bind to them or listen to them and show the fresh value without waiting for
+ * it first.
+ */
+public class RevalidatingValue<T> {
+  private final ReadOnlyObjectWrapper<T> value;
+  private final ReadOnlyLongWrapper fetchedAt;
+  private final ReadOnlyBooleanWrapper refreshing = new ReadOnlyBooleanWrapper(false);
+  private final CompletableFuture<T> completion = new CompletableFuture<>();
+
+  /**
+   * Constructs a value with the given cached value.
+   *
+   * @param cachedValue The cached value, or null if nothing is cached.
+   * @param fetchedAt   The time the cached value was fetched, in milliseconds
+   *                    since the epoch.
+   */
+  private RevalidatingValue(T cachedValue, long fetchedAt) {
+    this.value = new ReadOnlyObjectWrapper<>(cachedValue);
+    this.fetchedAt = new ReadOnlyLongWrapper(fetchedAt);
+  }
+
+  /**
+   * Returns a value serving the cached value immediately. If there is no cached
+   * value, or it is older than the freshness budget, a fresh value is fetched
+   * in the background. A fetch that fails (throws or returns null) keeps the
+   * cached value, and nothing is fetched while the application is offline (see
+   * {@link OfflineMode}). A cached value is revalidated with the prefetch request
+   * priority, as it is already shown; without one, the fetch keeps the priority
+   * of the caller.
+   *
+   * @param cachedValue     The cached value, or null if nothing is cached.
+   * @param fetchedAt       The time the cached value was fetched, in
+   *                        milliseconds since the epoch.
+   * @param freshnessBudget The age in milliseconds up to which the cached value
+   *                        is used without fetching it again.
+   * @param fetcher         Fetches a fresh value, or returns null on failure.
+   * @return The value.
+   */
+  public static <T> RevalidatingValue<T> of(T cachedValue, long fetchedAt, long freshnessBudget,
+      Supplier<T> fetcher) {
+    RevalidatingValue<T> result = new RevalidatingValue<>(cachedValue, fetchedAt);
+
+    if ((cachedValue != null && System.currentTimeMillis() - fetchedAt <= freshnessBudget)
+        || OfflineMode.isOffline()) {
+      result.completion.complete(cachedValue);
+      return result;
+    }
+
+    result.refreshing.set(true);
+    RequestScheduler.Priority priority = cachedValue != null
+        ? RequestScheduler.Priority.PREFETCH
+        : RequestScheduler.getPriority();
+
+    BackgroundExecutor.submit(() -> RequestScheduler.withPriority(priority, fetcher)).whenComplete((fresh, error) -> {
+      if (error != null) {
+        error.printStackTrace();
+      }
+
+      boolean refreshed = error == null && fresh != null;
+      long refreshedAt = System.currentTimeMillis();
+
+      FxUtils.runOnFxThread(() -> {
+        if (refreshed) {
+          result.fetchedAt.set(refreshedAt);
+          result.value.set(fresh);
+        }
+        result.refreshing.set(false);
+      });
+
+      // Completed here rather than on the JavaFX thread, so it can be waited for on that thread
+      result.completion.complete(refreshed ? fresh : cachedValue);
+    });
+
+    return result;
+  }
+
+  /**
+   * Returns the current value.
+   *
+   * @return The cached or refreshed value, or null if nothing has been fetched
+   *         yet.
+   */
+  public T get() {
+    return value.get();
+  }
+
+  /**
+   * Returns the property of the current value.
+   *
+   * @return The value property.
+   */
+  public ReadOnlyObjectProperty<T> valueProperty() {
+    return value.getReadOnlyProperty();
+  }
+
+  /**
+   * Returns the time the current value was fetched.
+   *
+   * @return The fetch time in milliseconds since the epoch, or 0 if unknown.
+   */
+  public long getFetchedAt() {
+    return fetchedAt.get();
+  }
+
+  /**
+   * Returns the property of the time the current value was fetched.
+   *
+   * @return The fetch time property.
+   */
+  public ReadOnlyLongProperty fetchedAtProperty() {
+    return fetchedAt.getReadOnlyProperty();
+  }
+
+  /**
+   * Returns the age of the current value.
+   *
+   * @return The age in milliseconds.
+   */
+  public long getAgeMillis() {
+    return System.currentTimeMillis() - fetchedAt.get();
+  }
+
+  /**
+   * Returns whether a fresh value is being fetched.
+   *
+   * @return true if the value is being refreshed, false otherwise.
+   */
+  public boolean isRefreshing() {
+    return refreshing.get();
+  }
+
+  /**
+   * Returns the property of whether a fresh value is being fetched.
+   *
+   * @return The refreshing property.
+   */
+  public ReadOnlyBooleanProperty refreshingProperty() {
+    return refreshing.getReadOnlyProperty();
+  }
+
+  /**
+   * Returns a future completing with the final value: the cached value if it
+   * was fresh, otherwise the refreshed value, or the cached value if the
+   * refresh failed.
+   *
+   * @return The completion future.
+   */
+  public CompletableFuture<T> getCompletion() {
+    return completion;
+  }
+
+  /**
+   * Describes the age of the current value for display, e.g. "5 min ago".
+   *
+   * @return The age of the value.
+   */
+  public String describeAge() {
+    long minutes = getAgeMillis() / 60000;
+
+    if (minutes < 1) {
+      return "just now";
+    } else if (minutes < 60) {
+      return minutes + " min ago";
+    } else if (minutes < 48 * 60) {
+      return minutes / 60 + " h ago";
+    }
+
+    return minutes / (24 * 60) + " days ago";
+  }
+}
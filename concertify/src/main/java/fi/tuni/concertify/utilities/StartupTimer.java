@@ -0,0 +1,57 @@
+package fi.tuni.concertify.utilities;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utility class for measuring the startup time of the application.
+ * Milestones are recorded with {@link #mark(String)} and are measured from the
+ * start of the JVM, so the report also covers class loading and the JavaFX
+ * toolkit startup before the main method runs.
+ */
+public class StartupTimer {
+  private static final long JVM_START = ManagementFactory.getRuntimeMXBean().getStartTime();
+  private static final LinkedHashMap<String, Long> marks = new LinkedHashMap<>();
+
+  /**
+   * Records a startup milestone. Only the first occurrence of a milestone is
+   * kept.
+   *
+   * @param name The name of the milestone (e.g. "first-frame").
+   */
+  public static synchronized void mark(String name) {
+    marks.putIfAbsent(name, System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the time from the JVM start to the given milestone.
+   *
+   * @param name The name of the milestone.
+   * @return The elapsed time in milliseconds, or -1 if the milestone has not
+   *         been recorded.
+   */
+  public static synchronized long getElapsed(String name) {
+    Long time = marks.get(name);
+    return time != null ? time - JVM_START : -1;
+  }
+
+  /**
+   * Returns a report of all recorded milestones, with the time elapsed since the
+   * JVM start and since the previous milestone.
+   *
+   * @return The startup timing report.
+   */
+  public static synchronized String getReport() {
+    StringBuilder report = new StringBuilder("Startup timing (ms since JVM start):");
+    long previous = JVM_START;
+
+    for (Map.Entry<String, Long> mark : marks.entrySet()) {
+      report.append(String.format("%n  %-16s %6d  (+%d)", mark.getKey(), mark.getValue() - JVM_START,
+          mark.getValue() - previous));
+      previous = mark.getValue();
+    }
+
+    return report.toString();
+  }
+}
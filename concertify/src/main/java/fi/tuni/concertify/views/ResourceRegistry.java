@@ -0,0 +1,319 @@
+package fi.tuni.concertify.views;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fi.tuni.concertify.utilities.AppConfig;
+import fi.tuni.concertify.utilities.BackgroundExecutor;
+import fi.tuni.concertify.utilities.DiskCache;
+import fi.tuni.concertify.utilities.FxUtils;
+import fi.tuni.concertify.utilities.OfflineMode;
+import fi.tuni.concertify.utilities.RequestScheduler;
+
+import javafx.scene.Parent;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * The ResourceRegistry class is a shared, lazily initialized registry for the
+ * static UI resources of the application (icons, logos, placeholder images and
+ * stylesheets).
+ *
+ * Each classpath image is decoded only once, on first use, and the same Image
+ * instance is shared by every component afterwards. JavaFX Images are
+ * immutable, so a single instance can safely back any number of ImageViews.
+ * The registry also keeps simple statistics of the decode time and the memory
+ * saved by reusing images, which can be printed with {@link #getStats()}.
+ */
+public class ResourceRegistry {
+  public static final String FAV_ICON = "/images/fav_icon.png";
+  public static final String FAV_ICON_COLORED = "/images/fav_icon_colored.png";
+  public static final String MUSIC_NOTE = "/images/music-note.png";
+  public static final String LOGO = "/images/logo1.png";
+  public static final String LOGO_WHITE = "/images/logo1-white-trim.png";
+  public static final String AUTH_BACKGROUND = "/images/auth_bg.png";
+
+  public static final String APP_CSS = "/styles/app.css";
+  public static final String ARTIST_BODY_CSS = "/styles/artist-body.css";
+  public static final String AUTH_FORM_CSS = "/styles/auth-form.css";
+  public static final String CHART_CSS = "/styles/chart.css";
+  public static final String NAVBAR_CSS = "/styles/navbar-style.css";
+  public static final String SEARCH_BAR_CSS = "/styles/search-bar.css";
+
+  private static final ConcurrentHashMap<String, Image> images = new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<String, String> stylesheets = new ConcurrentHashMap<>();
+  private static final ConcurrentHashMap<String, CompletableFuture<Image>> downloadingImages =
+      new ConcurrentHashMap<>();
+  private static volatile DiskCache imageCache;
+
+  private static final AtomicLong decodedImages = new AtomicLong();
+  private static final AtomicLong decodeNanos = new AtomicLong();
+  private static final AtomicLong decodedBytes = new AtomicLong();
+  private static final AtomicLong cacheHits = new AtomicLong();
+  private static final AtomicLong savedNanos = new AtomicLong();
+  private static final AtomicLong savedBytes = new AtomicLong();
+
+  private ResourceRegistry() {
+  }
+
+  /**
+   * Returns the shared Image for the given classpath resource, decoding it on
+   * first use.
+   *
+   * @param path The absolute classpath path of the image (e.g.
+   *             "/images/fav_icon.png").
+   * @return The shared Image instance.
+   * @throws IllegalArgumentException if the resource does not exist.
+   */
+  public static Image getImage(String path) {
+    Image cached = images.get(path);
+
+    if (cached != null) {
+      recordHit(cached);
+      return cached;
+    }
+
+    return images.computeIfAbsent(path, ResourceRegistry::decode);
+  }
+
+  /**
+   * Shows the image of a location that may either be a classpath resource (such
+   * as the music note placeholder used for artists without a profile picture)
+   * or a remote URL in an ImageView. Classpath resources are shared through the
+   * registry, remote URLs are loaded in the background.
+   *
+   * Remote images are kept in a disk cache (./database/cache/images, limited to
+   * CONCERTIFY_IMAGE_CACHE_MB megabytes, 100 by default), so an image seen once
+   * is loaded from disk afterwards and shown while offline. An image that is
+   * not cached is downloaded into the cache once and shown from there, with the
+   * music note placeholder shown until it arrives, or while offline.
+   *
+   * @param imageView The ImageView to show the image in.
+   * @param location  The classpath path or the remote URL of the image.
+   */
+  public static void setImageFromLocation(ImageView imageView, String location) {
+    if (location == null || location.isEmpty()) {
+      imageView.setImage(getImage(MUSIC_NOTE));
+      return;
+    }
+
+    if (location.startsWith("/")) {
+      imageView.setImage(getImage(location));
+      return;
+    }
+
+    String key = UUID.nameUUIDFromBytes(location.getBytes(StandardCharsets.UTF_8)).toString();
+    Path cachedFile = getImageCache().getPath(key);
+
+    if (cachedFile != null) {
+      imageView.setImage(new Image(cachedFile.toUri().toString(), true));
+      return;
+    }
+
+    imageView.setImage(getImage(MUSIC_NOTE));
+
+    if (OfflineMode.isOffline()) {
+      return;
+    }
+
+    downloadImage(key, location).thenAccept(image -> {
+      if (image != null) {
+        FxUtils.runOnFxThread(() -> imageView.setImage(image));
+      }
+    });
+  }
+
+  /**
+   * Downloads a remote image into the image cache in the background and decodes
+   * it from there. The download is scheduled by the {@link RequestScheduler}
+   * with the prefetch priority, so it does not delay the requests the user is
+   * waiting for. Concurrent requests for the same image share a single
+   * download.
+   *
+   * @param key      The cache key of the image.
+   * @param location The remote URL of the image.
+   * @return A future completing with the image, or with null if it could not
+   *         be downloaded.
+   */
+  private static CompletableFuture<Image> downloadImage(String key, String location) {
+    CompletableFuture<Image> download = downloadingImages.computeIfAbsent(key,
+        ignored -> RequestScheduler.withPriority(RequestScheduler.Priority.PREFETCH,
+            () -> BackgroundExecutor.submit(() -> fetchImage(key, location))));
+
+    download.whenComplete((image, error) -> downloadingImages.remove(key, download));
+    return download;
+  }
+
+  /**
+   * Downloads a remote image into the image cache and decodes it from the
+   * cached file. Called on a background thread.
+   *
+   * @param key      The cache key of the image.
+   * @param location The remote URL of the image.
+   * @return The image, or null if it could not be downloaded.
+   */
+  private static Image fetchImage(String key, String location) {
+    URL url;
+
+    try {
+      url = new URL(location);
+    } catch (MalformedURLException e) {
+      e.printStackTrace();
+      return null;
+    }
+
+    try {
+      OfflineMode.checkOnline(url.getHost());
+      byte[] data;
+      RequestScheduler.Slot slot = RequestScheduler.getShared().acquire(url.getHost());
+
+      try (InputStream stream = url.openStream()) {
+        data = stream.readAllBytes();
+      } finally {
+        slot.close();
+      }
+
+      getImageCache().put(key, data);
+      Path cachedFile = getImageCache().getPath(key);
+
+      // An image larger than the whole cache is not kept, so it is decoded from memory
+      return cachedFile != null ? new Image(cachedFile.toUri().toString())
+          : new Image(new ByteArrayInputStream(data));
+    } catch (IOException e) {
+      OfflineMode.reportFailure(url.getHost(), e);
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+
+  /**
+   * Returns the disk cache of remote images, creating it on first use.
+   *
+   * @return The image cache.
+   */
+  private static DiskCache getImageCache() {
+    if (imageCache == null) {
+      synchronized (ResourceRegistry.class) {
+        if (imageCache == null) {
+          imageCache = new DiskCache(Paths.get("./database/cache/images"),
+              AppConfig.getLong("CONCERTIFY_IMAGE_CACHE_MB", 100) * 1024 * 1024);
+        }
+      }
+    }
+
+    return imageCache;
+  }
+
+  /**
+   * Returns the external form of the stylesheet at the given classpath path.
+   *
+   * @param path The absolute classpath path of the stylesheet.
+   * @return The external URL of the stylesheet.
+   * @throws IllegalArgumentException if the resource does not exist.
+   */
+  public static String getStylesheet(String path) {
+    return stylesheets.computeIfAbsent(path, key -> {
+      URL url = ResourceRegistry.class.getResource(key);
+
+      if (url == null) {
+        throw new IllegalArgumentException("Resource not found: " + key);
+      }
+
+      return url.toExternalForm();
+    });
+  }
+
+  /**
+   * Adds the stylesheet at the given classpath path to the node, unless the node
+   * already has it. Components call this on every render, so the check prevents
+   * the stylesheet list from growing on each navigation.
+   *
+   * @param node The node to style.
+   * @param path The absolute classpath path of the stylesheet.
+   */
+  public static void applyStylesheet(Parent node, String path) {
+    String stylesheet = getStylesheet(path);
+
+    if (!node.getStylesheets().contains(stylesheet)) {
+      node.getStylesheets().add(stylesheet);
+    }
+  }
+
+  /**
+   * Returns a summary of the decode time spent and the time and memory saved by
+   * sharing the decoded images.
+   *
+   * @return A human-readable statistics summary.
+   */
+  public static String getStats() {
+    return String.format(
+        "ResourceRegistry: %d image(s) decoded in %.1f ms (%d KB), %d cache hit(s) saved ~%.1f ms and ~%d KB",
+        decodedImages.get(), decodeNanos.get() / 1_000_000.0, decodedBytes.get() / 1024,
+        cacheHits.get(), savedNanos.get() / 1_000_000.0, savedBytes.get() / 1024);
+  }
+
+  /**
+   * Decodes the image at the given classpath path and records its decode time
+   * and estimated memory footprint.
+   *
+   * @param path The absolute classpath path of the image.
+   * @return The decoded Image.
+   */
+  private static Image decode(String path) {
+    long start = System.nanoTime();
+
+    try (InputStream stream = ResourceRegistry.class.getResourceAsStream(path)) {
+      if (stream == null) {
+        throw new IllegalArgumentException("Resource not found: " + path);
+      }
+
+      Image image = new Image(stream);
+
+      decodedImages.incrementAndGet();
+      decodeNanos.addAndGet(System.nanoTime() - start);
+      decodedBytes.addAndGet(estimateBytes(image));
+
+      return image;
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Could not read resource: " + path, e);
+    }
+  }
+
+  /**
+   * Records a cache hit, counting the average decode time and the memory that
+   * decoding the image again would have cost.
+   *
+   * @param image The shared image that was served from the registry.
+   */
+  private static void recordHit(Image image) {
+    cacheHits.incrementAndGet();
+    savedBytes.addAndGet(estimateBytes(image));
+
+    long decoded = decodedImages.get();
+    if (decoded > 0) {
+      savedNanos.addAndGet(decodeNanos.get() / decoded);
+    }
+  }
+
+  /**
+   * Estimates the memory held by a decoded image (32-bit ARGB pixels).
+   *
+   * @param image The decoded image.
+   * @return The estimated size in bytes.
+   */
+  private static long estimateBytes(Image image) {
+    return (long) image.getWidth() * (long) image.getHeight() * 4;
+  }
+}
@@ -23,10 +23,48 @@ public class StageManager {
 
   private static Stage stage;
   public static ComponentFactory componentFactory = new ComponentFactory();
-  public static Component authView = componentFactory.createAuthView();
+  private static Component authView;
 
-  private static Scene authScene = createScene((HBox) authView.get());
-  private static Scene homeScene = createScene((HBox) NavigationManager.homeComponent);
+  private static Scene authScene;
+  private static Scene homeScene;
+
+  /**
+   * Returns the authentication view, creating it on first use.
+   * 
+   * @return The authentication view component.
+   */
+  public static Component getAuthView() {
+    if (authView == null) {
+      authView = componentFactory.createAuthView();
+    }
+    return authView;
+  }
+
+  /**
+   * Returns the authentication scene, creating it on first use so that a
+   * logged in user does not pay for building the login form at startup.
+   * 
+   * @return The authentication scene.
+   */
+  private static Scene getAuthScene() {
+    if (authScene == null) {
+      authScene = createScene((HBox) getAuthView().get());
+    }
+    return authScene;
+  }
+
+  /**
+   * Returns the home scene, creating it on first use so that the main layout is
+   * only built once the user is logged in.
+   * 
+   * @return The home scene.
+   */
+  private static Scene getHomeScene() {
+    if (homeScene == null) {
+      homeScene = createScene((HBox) NavigationManager.homeComponent);
+    }
+    return homeScene;
+  }
 
   /**
    * Creates a Scene with the specified root node and default dimensions.
@@ -36,7 +74,7 @@ public class StageManager {
    */
   private static Scene createScene(HBox root) {
     Scene scene = new Scene(root, WINDOW_WIDTH, WINDOW_HEIGHT);
-    scene.getStylesheets().add(StageManager.class.getResource("/styles/app.css").toExternalForm());
+    scene.getStylesheets().add(ResourceRegistry.getStylesheet(ResourceRegistry.APP_CSS));
     return scene;
   }
 
@@ -57,9 +95,9 @@ public class StageManager {
    */
   public static void switchScene(String scene) {
     if (scene.equals("auth")) {
-      stage.setScene(authScene);
+      stage.setScene(getAuthScene());
     } else if (scene.equals("home")) {
-      stage.setScene(homeScene);
+      stage.setScene(getHomeScene());
       NavigationManager.switchMainContent("home");
     }
   }
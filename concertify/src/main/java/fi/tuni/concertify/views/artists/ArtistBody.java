@@ -1,10 +1,16 @@
 package fi.tuni.concertify.views.artists;
 
+import java.util.List;
+
 import fi.tuni.concertify.interfaces.Component;
 import fi.tuni.concertify.views.events.EventList;
 import fi.tuni.concertify.views.home.NavBar;
 import fi.tuni.concertify.views.home.NavigationManager;
 import fi.tuni.concertify.controllers.ArtistController;
+import fi.tuni.concertify.services.ArtistDetailLoader;
+import fi.tuni.concertify.utilities.OfflineMode;
+import fi.tuni.concertify.views.ResourceRegistry;
+import javafx.application.Platform;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.StackPane;
@@ -21,7 +27,6 @@ import javafx.scene.chart.NumberAxis;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -44,6 +49,8 @@ public class ArtistBody implements Component {
   private BarChart<String, Number> barChart;
   private ComboBox<String> metricComboBox;
   private ArtistController artistController = new ArtistController();
+  private ArtistDetailLoader.Details details;
+  private Text artistBioText;
 
   /**
    * Constructor for initializing the ArtistBody with a root node.
@@ -120,8 +127,8 @@ public class ArtistBody implements Component {
     artistBioTab.prefHeightProperty().bind(artistBody.heightProperty().multiply(0.5));
     artistBioTab.setPadding(new Insets(20));
 
-    Image artistImage = new Image(artistController.getArtistProfilePicture(), true);
-    ImageView artistImageView = new ImageView(artistImage);
+    ImageView artistImageView = new ImageView();
+    ResourceRegistry.setImageFromLocation(artistImageView, artistController.getArtistProfilePicture());
 
     artistImageView.setFitHeight(300);
     artistImageView.setFitWidth(300);
@@ -140,9 +147,11 @@ public class ArtistBody implements Component {
         "-fx-background-radius: 150px;");
     container.prefHeightProperty().bind(artistBioTab.heightProperty());
 
-    String artistBio = artistController.getArtistBio();
+    String artistBio = details.getBio().get() == null && details.getBio().isRefreshing()
+        ? "Loading biography..."
+        : artistController.getArtistBio();
 
-    Text artistBioText = new Text(artistBio);
+    artistBioText = new Text(artistBio);
     artistBioText.setStyle("-fx-font-size: 20px; -fx-fill: #e5e5e5;");
     TextFlow textFlow = new TextFlow(artistBioText);
 
@@ -195,12 +204,46 @@ public class ArtistBody implements Component {
     barChart.getData().add(artistController.getTopTracksSeries(metricComboBox.getValue()));
   }
 
+  /**
+   * Updates the sections of the artist page as the parts of the artist's
+   * details are loaded. The stored biography and top tracks are shown first and
+   * replaced when they have been revalidated. Parts of an artist that is no
+   * longer shown are ignored.
+   * 
+   * @param artistEvents The container of the artist's events.
+   */
+  private void showDetailsWhenLoaded(VBox artistEvents) {
+    ArtistDetailLoader.Details loading = details;
+
+    loading.getBio().refreshingProperty().addListener((observable, wasRefreshing, refreshing) -> {
+      if (loading == details && artistBioText != null) {
+        artistBioText.setText(artistController.getArtistBio());
+      }
+    });
+
+    loading.getTopTracks().refreshingProperty().addListener((observable, wasRefreshing, refreshing) -> {
+      if (loading == details && barChart != null) {
+        barChart.getData().setAll(List.of(artistController.getTopTracksSeries(metricComboBox.getValue())));
+      }
+    });
+
+    loading.getEvents().thenAccept(events -> Platform.runLater(() -> {
+      if (loading == details) {
+        artistEvents.getChildren().setAll(new EventList(root, "artist", events).get());
+      }
+    }));
+  }
+
   /**
    * Renders the artist body component, including tabs for Artist Bio, Artist
-   * Statistics, and Artist Events.
+   * Statistics, and Artist Events. The biography, statistics and events of the
+   * artist are loaded concurrently, and each section is filled in as soon as
+   * its part has been loaded. While offline, the saved details are shown with
+   * their age.
    */
   public void render() {
-    artistController.loadArtist(ArtistList.currentArtist.get());
+    details = artistController.loadArtistDetails(ArtistList.currentArtist.get());
+    barChart = null;
     HBox artistTabHeader = new HBox();
     artistTabHeader.setSpacing(20);
     artistTabHeader.setAlignment(Pos.CENTER);
@@ -217,13 +260,24 @@ public class ArtistBody implements Component {
 
     Button artistBioTabSwitch = createTabButton(artistTabHeader, "Artist Bio", artistBioTab);
     Button artistStatsTabSwitch = createTabButton(artistTabHeader, "Artist Statistics", topSongsAndAlbums);
-    Button artistEventsTabSwitch = createTabButton(artistTabHeader, "Artist's Events",
-        new EventList(root, "artist").get());
+    Label eventsLoadingLabel = new Label("Loading events...");
+    eventsLoadingLabel.setStyle("-fx-text-fill: white; -fx-font-size: 20px;");
+    VBox artistEvents = new VBox(eventsLoadingLabel);
+    artistEvents.setAlignment(Pos.CENTER);
+    Button artistEventsTabSwitch = createTabButton(artistTabHeader, "Artist's Events", artistEvents);
 
     artistTabHeader.getChildren().addAll(backButton, artistBioTabSwitch, artistStatsTabSwitch, artistEventsTabSwitch);
 
-    artistBody.getStylesheets().add(getClass().getResource("/styles/artist-body.css").toExternalForm());
-    artistBody.getStylesheets().add(getClass().getResource("/styles/chart.css").toExternalForm());
+    if (OfflineMode.isOffline()) {
+      Label offlineLabel = new Label(details.getBio().getFetchedAt() > 0
+          ? "Offline: details saved " + details.getBio().describeAge()
+          : "Offline: no details saved");
+      offlineLabel.setStyle("-fx-text-fill: #ffb86b; -fx-font-size: 14px; -fx-font-weight: bold;");
+      artistTabHeader.getChildren().add(offlineLabel);
+    }
+
+    ResourceRegistry.applyStylesheet(artistBody, ResourceRegistry.ARTIST_BODY_CSS);
+    ResourceRegistry.applyStylesheet(artistBody, ResourceRegistry.CHART_CSS);
     artistBody.setPadding(new Insets(20));
     artistBody.setAlignment(Pos.TOP_CENTER);
     artistBody.setSpacing(20);
@@ -231,6 +285,7 @@ public class ArtistBody implements Component {
     createArtistBio();
     artistBody.setStyle("-fx-background-color: #363636;");
     artistBody.getChildren().addAll(artistTabHeader, artistBioTab);
+    showDetailsWhenLoaded(artistEvents);
   }
 
   /**
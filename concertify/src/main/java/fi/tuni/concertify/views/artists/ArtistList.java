@@ -8,6 +8,7 @@ import fi.tuni.concertify.controllers.ArtistController;
 import fi.tuni.concertify.interfaces.Component;
 import fi.tuni.concertify.models.Artist;
 import fi.tuni.concertify.views.home.NavigationManager;
+import fi.tuni.concertify.views.ResourceRegistry;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -42,6 +43,11 @@ public class ArtistList implements Component {
   private ScrollPane scrollPane = new ScrollPane();
   private ArtistController artistController = new ArtistController();
   private ArrayList<Artist> favoriteArtists = new ArrayList<Artist>();
+  private ArrayList<Artist> displayedArtists = new ArrayList<Artist>();
+  private ArrayList<Artist> searchResults = new ArrayList<Artist>();
+  private String lastSearchTerm;
+  private long lastSearchTime;
+  private boolean resizeListenersAdded = false;
 
   public static StringProperty currentArtist = new SimpleStringProperty("");
   public static BooleanProperty currentArtistFavoriteStatus = new SimpleBooleanProperty(false);
@@ -76,7 +82,8 @@ public class ArtistList implements Component {
 
     ArrayList<Artist> artists = listType.equals("saved")
         ? favoriteArtists
-        : artistController.searchArtist(SearchBar.searchTerm.get());
+        : getSearchResults(SearchBar.searchTerm.get());
+    displayedArtists = artists;
 
     artistList.setPadding(new Insets(40));
     artistList.prefWidthProperty().bind(root.widthProperty());
@@ -99,28 +106,7 @@ public class ArtistList implements Component {
       colWidth = (1024 - 40 * 3 - 40 - 100) / 3;
       populateGrid(gridPane, artists, colWidth);
 
-      root.widthProperty().addListener((observable, oldValue, newValue) -> {
-        double newWidth = newValue.doubleValue();
-        colWidth = (newWidth - 40 * 3 - 40 - 100) / 3;
-        gridPane.getChildren().clear();
-        populateGrid(gridPane, artists, colWidth);
-      });
-
-      root.heightProperty().addListener((observable, oldValue, newValue) -> {
-        double parentHeight = newValue.doubleValue();
-
-        double colHeight = colWidth * 5 / 4;
-        int rows = (int) Math.ceil(artists.size() / 3.0);
-        double componentHeight = rows * (colHeight + 40) + 40 + 100;
-
-        if (componentHeight == 0)
-          scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        else if (componentHeight < parentHeight) {
-          scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        } else {
-          scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.ALWAYS);
-        }
-      });
+      addResizeListeners();
 
       artistList.getChildren().clear();
       artistList.getChildren().add(gridPane);
@@ -130,6 +116,68 @@ public class ArtistList implements Component {
     scrollPane.setFitToWidth(true);
   }
 
+  /**
+   * Returns the search results for the given term. The results of the previous
+   * search are reused when the term has not changed, so that re-rendering the
+   * list (e.g. after a favorite change) does not repeat the search, until they
+   * are as old as the search results cached by the service.
+   * 
+   * @param term The search term.
+   * @return The artists matching the search term.
+   */
+  private ArrayList<Artist> getSearchResults(String term) {
+    long now = System.currentTimeMillis();
+
+    if (!term.equals(lastSearchTerm) || now - lastSearchTime > artistController.getSearchTtlMillis()) {
+      searchResults = artistController.searchArtist(term);
+      lastSearchTerm = term;
+      lastSearchTime = now;
+    }
+
+    return searchResults;
+  }
+
+  /**
+   * Adds the listeners that lay out the grid again when the parent container is
+   * resized. The listeners are added only once and always use the currently
+   * displayed artists, so rendering the list again does not stack up listeners.
+   */
+  private void addResizeListeners() {
+    if (resizeListenersAdded) {
+      return;
+    }
+    resizeListenersAdded = true;
+
+    root.widthProperty().addListener((observable, oldValue, newValue) -> {
+      if (displayedArtists.isEmpty()) {
+        return;
+      }
+      double newWidth = newValue.doubleValue();
+      colWidth = (newWidth - 40 * 3 - 40 - 100) / 3;
+      gridPane.getChildren().clear();
+      populateGrid(gridPane, displayedArtists, colWidth);
+    });
+
+    root.heightProperty().addListener((observable, oldValue, newValue) -> {
+      if (displayedArtists.isEmpty()) {
+        return;
+      }
+      double parentHeight = newValue.doubleValue();
+
+      double colHeight = colWidth * 5 / 4;
+      int rows = (int) Math.ceil(displayedArtists.size() / 3.0);
+      double componentHeight = rows * (colHeight + 40) + 40 + 100;
+
+      if (componentHeight == 0)
+        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
+      else if (componentHeight < parentHeight) {
+        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+      } else {
+        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.ALWAYS);
+      }
+    });
+  }
+
   /**
    * Populates the GridPane with artist cards for each artist in the list.
    * 
@@ -166,8 +214,8 @@ public class ArtistList implements Component {
     VBox artistCard = new VBox();
     double trueWidth = colWidth - 20;
 
-    Image artistImage = new Image(artist.getProfilePicture(), true);
-    ImageView artistImageView = new ImageView(artistImage);
+    ImageView artistImageView = new ImageView();
+    ResourceRegistry.setImageFromLocation(artistImageView, artist.getProfilePicture());
     artistImageView.setFitWidth(trueWidth);
     artistImageView.setFitHeight(trueWidth);
 
@@ -217,8 +265,8 @@ public class ArtistList implements Component {
    */
   private ImageView createFavButton(Artist artist) {
     AtomicBoolean isFavorited = new AtomicBoolean(false);
-    Image favIcon = new Image(getClass().getResourceAsStream("/images/fav_icon.png"));
-    Image favIconColored = new Image(getClass().getResourceAsStream("/images/fav_icon_colored.png"));
+    Image favIcon = ResourceRegistry.getImage(ResourceRegistry.FAV_ICON);
+    Image favIconColored = ResourceRegistry.getImage(ResourceRegistry.FAV_ICON_COLORED);
 
     if (listType.equals("saved")) {
       isFavorited.set(true);
@@ -243,6 +291,7 @@ public class ArtistList implements Component {
       isFavorited.set(!isFavorited.get());
       favIconView.setImage(isFavorited.get() ? favIconColored : favIcon);
       favoriteArtists = artistController.getFavoriteArtists();
+      NavigationManager.onFavoriteArtistsChanged();
     });
     favIconView.setStyle("-fx-cursor: hand;");
 
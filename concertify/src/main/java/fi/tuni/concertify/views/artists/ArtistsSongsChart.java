@@ -12,6 +12,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import fi.tuni.concertify.controllers.GlobalChartController;
 import fi.tuni.concertify.interfaces.Component;
+import fi.tuni.concertify.views.ResourceRegistry;
 
 /**
  * The ArtistsSongsChart class displays a bar chart for global music statistics.
@@ -35,7 +36,7 @@ public class ArtistsSongsChart implements Component {
   public void render() {
     container.setPadding(new Insets(20));
     container.setAlignment(Pos.CENTER);
-    container.getStylesheets().add(getClass().getResource("/styles/chart.css").toExternalForm());
+    ResourceRegistry.applyStylesheet(container, ResourceRegistry.CHART_CSS);
 
     createComboBoxes();
     createBarChart();
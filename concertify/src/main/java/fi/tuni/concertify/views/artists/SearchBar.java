@@ -1,23 +1,57 @@
 package fi.tuni.concertify.views.artists;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import fi.tuni.concertify.controllers.ArtistController;
 import fi.tuni.concertify.interfaces.Component;
+import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.utilities.BackgroundExecutor;
 import fi.tuni.concertify.views.home.NavigationManager;
+import fi.tuni.concertify.views.ResourceRegistry;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.geometry.Insets;
+import javafx.geometry.Side;
 import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
+import javafx.util.Duration;
 
 /**
  * The SearchBar class provides a user interface element for searching artists
  * by name.
  * It consists of a text field for input and a search button.
  * The entered search term is used to display the search results in a new view.
+ *
+ * While the user types, matching artists from the local artist cache are
+ * suggested immediately. Once the user has stopped typing for a moment and has
+ * typed at least three characters, a plain Last.fm search (without the
+ * MusicBrainz and Spotify lookups of the full search) runs in the background,
+ * and its results are merged into the suggestions when they arrive. Only one
+ * such search runs at a time: text typed meanwhile is searched when it has
+ * finished, and the results of a search for a text that has since changed are
+ * discarded. A suggested artist is only stored and enriched when it is opened.
  */
 public class SearchBar implements Component {
+  private static final Duration DEBOUNCE_DELAY = Duration.millis(300);
+  private static final int MIN_QUERY_LENGTH = 2;
+  private static final int MIN_REMOTE_QUERY_LENGTH = 3;
+  private static final int MAX_SUGGESTIONS = 8;
+
   private HBox searchBar = new HBox();
   public static StringProperty searchTerm = new SimpleStringProperty("");
+  private ArtistController artistController = new ArtistController();
+  private final ContextMenu suggestions = new ContextMenu();
+  private final PauseTransition debounce = new PauseTransition(DEBOUNCE_DELAY);
+  private long querySequence = 0;
+  private boolean remoteSearchRunning = false;
+  private String queuedRemoteText;
+  private ArrayList<Artist> localSuggestions = new ArrayList<>();
 
   /**
    * Renders the search bar with a text field for artist name input
@@ -26,7 +60,7 @@ public class SearchBar implements Component {
    */
   public void render() {
     TextField searchBarField = new TextField();
-    searchBar.getStylesheets().add(getClass().getResource("/styles/search-bar.css").toExternalForm());
+    ResourceRegistry.applyStylesheet(searchBar, ResourceRegistry.SEARCH_BAR_CSS);
     searchBar.setSpacing(10);
     searchBar.setPadding(new Insets(80, 20, 70, 20));
 
@@ -38,14 +72,164 @@ public class SearchBar implements Component {
     searchButton.setStyle("-fx-font-weight: bold;");
     searchButton.getStyleClass().add("search-button");
 
-    searchButton.setOnAction(e -> {
-      searchTerm.set(searchBarField.getText());
-      NavigationManager.switchMainContent("artist-search-results");
+    searchBarField.textProperty().addListener((observable, oldValue, newValue) -> {
+      debounce.setOnFinished(e -> suggest(searchBarField, newValue));
+      debounce.playFromStart();
     });
 
+    searchBarField.setOnAction(e -> submit(searchBarField.getText()));
+    searchButton.setOnAction(e -> submit(searchBarField.getText()));
+
     searchBar.getChildren().addAll(searchBarField, searchButton);
   }
 
+  /**
+   * Shows the search results for the given text.
+   *
+   * @param text The search text.
+   */
+  private void submit(String text) {
+    debounce.stop();
+    suggestions.hide();
+    querySequence++;
+    queuedRemoteText = null;
+
+    searchTerm.set(text);
+    NavigationManager.switchMainContent("artist-search-results");
+  }
+
+  /**
+   * Suggests artists for the typed text. The local matches are shown right
+   * away, and the Last.fm search is started in the background, or queued if a
+   * previous search is still running.
+   *
+   * @param searchBarField The text field the suggestions are shown under.
+   * @param text           The typed text.
+   */
+  private void suggest(TextField searchBarField, String text) {
+    long query = ++querySequence;
+    queuedRemoteText = null;
+
+    if (text.trim().length() < MIN_QUERY_LENGTH) {
+      suggestions.hide();
+      return;
+    }
+
+    localSuggestions = artistController.searchLocalArtists(text, MAX_SUGGESTIONS);
+    showSuggestions(searchBarField, text, localSuggestions);
+
+    if (text.trim().length() < MIN_REMOTE_QUERY_LENGTH) {
+      return;
+    }
+
+    if (remoteSearchRunning) {
+      queuedRemoteText = text;
+    } else {
+      searchRemote(searchBarField, text, query);
+    }
+  }
+
+  /**
+   * Searches Last.fm for suggestions in the background. A request already sent
+   * cannot be interrupted, so instead of cancelling a running search, the text
+   * typed meanwhile is searched once it has finished.
+   *
+   * @param searchBarField The text field the suggestions are shown under.
+   * @param text           The typed text.
+   * @param query          The sequence number of the typed text.
+   */
+  private void searchRemote(TextField searchBarField, String text, long query) {
+    remoteSearchRunning = true;
+
+    BackgroundExecutor.execute(() -> {
+      ArrayList<Artist> remoteArtists = artistController.suggestArtists(text, MAX_SUGGESTIONS);
+
+      Platform.runLater(() -> {
+        remoteSearchRunning = false;
+
+        if (query == querySequence) {
+          ArrayList<Artist> merged = new ArrayList<>(localSuggestions);
+          merged.addAll(remoteArtists);
+          showSuggestions(searchBarField, text, merged);
+        } else if (queuedRemoteText != null) {
+          String nextText = queuedRemoteText;
+          queuedRemoteText = null;
+          searchRemote(searchBarField, nextText, querySequence);
+        }
+      });
+    });
+  }
+
+  /**
+   * Shows the suggested artists under the text field. Artists appearing in both
+   * the local and the remote results are shown once, in their local position,
+   * so the list does not jump around when the remote results arrive.
+   *
+   * @param searchBarField The text field the suggestions are shown under.
+   * @param text           The typed text.
+   * @param artists        The suggested artists.
+   */
+  private void showSuggestions(TextField searchBarField, String text, ArrayList<Artist> artists) {
+    LinkedHashMap<String, Artist> uniqueArtists = new LinkedHashMap<>();
+    artists.forEach(artist -> uniqueArtists.putIfAbsent(artist.getName(), artist));
+
+    suggestions.getItems().clear();
+    uniqueArtists.values().stream().limit(MAX_SUGGESTIONS).forEach(artist -> {
+      MenuItem item = new MenuItem(artist.getName());
+      item.setOnAction(e -> openArtist(text, artist));
+      suggestions.getItems().add(item);
+    });
+
+    if (suggestions.getItems().isEmpty()) {
+      suggestions.hide();
+    } else if (!suggestions.isShowing() && searchBarField.getScene() != null) {
+      suggestions.show(searchBarField, Side.BOTTOM, 0, 0);
+    }
+  }
+
+  /**
+   * Opens the page of a suggested artist. The typed text becomes the search
+   * term, so the back button of the artist page leads to its search results. An
+   * artist suggested by Last.fm is stored first, in the background.
+   *
+   * @param text   The typed text.
+   * @param artist The selected artist.
+   */
+  private void openArtist(String text, Artist artist) {
+    debounce.stop();
+    long query = ++querySequence;
+    queuedRemoteText = null;
+
+    if (localSuggestions.contains(artist)) {
+      showArtist(text, artist);
+      return;
+    }
+
+    BackgroundExecutor.execute(() -> {
+      artistController.saveSuggestedArtist(artist);
+
+      Platform.runLater(() -> {
+        if (query == querySequence) {
+          showArtist(text, artist);
+        }
+      });
+    });
+  }
+
+  /**
+   * Switches to the page of an artist.
+   *
+   * @param text   The typed text.
+   * @param artist The artist to show.
+   */
+  private void showArtist(String text, Artist artist) {
+    searchTerm.set(text);
+    ArtistList.currentArtistFavoriteStatus.set(artistController.getFavoriteArtists().stream()
+        .anyMatch(favoriteArtist -> favoriteArtist.getName().equals(artist.getName())));
+    ArtistList.currentArtist.set(artist.getName());
+    NavigationManager.switchMainContent("artist-single");
+  }
+
   /**
    * Returns the search bar container (HBox) that holds the text field and search
    * button.
@@ -2,6 +2,7 @@ package fi.tuni.concertify.views.auth;
 
 import fi.tuni.concertify.interfaces.Component;
 import fi.tuni.concertify.views.ComponentFactory;
+import fi.tuni.concertify.views.ResourceRegistry;
 import javafx.event.EventHandler;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -47,12 +48,12 @@ public class AuthForm implements Component {
    */
   @Override
   public void render() {
-    form.getStylesheets().add(getClass().getResource("/styles/auth-form.css").toExternalForm());
+    ResourceRegistry.applyStylesheet(form, ResourceRegistry.AUTH_FORM_CSS);
 
     form.prefWidthProperty().bind(root.widthProperty().multiply(0.4));
     form.setAlignment(Pos.CENTER);
 
-    Image image = new Image(getClass().getResourceAsStream("/images/logo1.png"));
+    Image image = ResourceRegistry.getImage(ResourceRegistry.LOGO);
     ImageView imageView = new ImageView(image);
     imageView.setPreserveRatio(true);
     imageView.setSmooth(true);
@@ -1,6 +1,7 @@
 package fi.tuni.concertify.views.auth;
 
 import fi.tuni.concertify.interfaces.Component;
+import fi.tuni.concertify.views.ResourceRegistry;
 import javafx.scene.Node;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -41,7 +42,7 @@ public class AuthImage implements Component {
   public void render() {
     imagePane.prefWidthProperty().bind(root.widthProperty().multiply(0.6));
 
-    Image image = new Image(getClass().getResourceAsStream("/images/auth_bg.png"));
+    Image image = ResourceRegistry.getImage(ResourceRegistry.AUTH_BACKGROUND);
     ImageView imageView = new ImageView(image);
     imageView.setPreserveRatio(false);
     imageView.setSmooth(true);
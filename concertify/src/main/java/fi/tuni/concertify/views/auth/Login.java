@@ -1,5 +1,6 @@
 package fi.tuni.concertify.views.auth;
 
+import fi.tuni.concertify.controllers.EventController;
 import fi.tuni.concertify.controllers.UserController;
 import fi.tuni.concertify.interfaces.Component;
 import fi.tuni.concertify.views.StageManager;
@@ -24,6 +25,7 @@ public class Login implements Component {
   VBox loginField = new VBox(20);
   EventHandler<MouseEvent> switchToSignUp;
   UserController userController = new UserController();
+  EventController eventController = new EventController();
 
   /**
    * Constructs a Login instance, initializing the event handler for switching to
@@ -62,8 +64,10 @@ public class Login implements Component {
         String status = userController.login(userNameField, passwordField);
         if (status.equals("success")) {
           alertText.setText("");
+          NavigationManager.invalidateAll();
           NavigationManager.home.render();
           StageManager.switchScene("home");
+          eventController.prefetchSearchedLocations();
         } else {
           alertText.setText(status);
         }
@@ -62,6 +62,7 @@ public class SignUp implements Component {
         String status = userController.signup(userNameField, passwordField);
         if (status.equals("success")) {
           alertText.setText("");
+          NavigationManager.invalidateAll();
           NavigationManager.home.render();
           StageManager.switchScene("home");
         } else {
@@ -7,6 +7,8 @@ import fi.tuni.concertify.controllers.EventController;
 import fi.tuni.concertify.interfaces.Component;
 import fi.tuni.concertify.models.Event;
 import fi.tuni.concertify.views.artists.ArtistList;
+import fi.tuni.concertify.views.ResourceRegistry;
+import fi.tuni.concertify.views.home.NavigationManager;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
@@ -32,6 +34,10 @@ public class EventList implements Component {
   private String listType;
   private static final double CARD_HEIGHT = 210;
   private ArrayList<Event> favoriteEvents = new ArrayList<Event>();
+  private ArrayList<Event> searchResults = new ArrayList<Event>();
+  private String lastSearchKey;
+  private long lastSearchTime;
+  private ArrayList<Event> artistEvents;
 
   /**
    * Constructs an EventList instance, initializing the root HBox and list type
@@ -46,6 +52,20 @@ public class EventList implements Component {
     this.listType = listType;
   }
 
+  /**
+   * Constructs an EventList instance of the artist-related events that have
+   * already been loaded, so they are not fetched again.
+   *
+   * @param root         The parent node to which the event list will be
+   *                     attached.
+   * @param listType     The type of the list, "artist".
+   * @param artistEvents The events of the current artist.
+   */
+  public EventList(Node root, String listType, ArrayList<Event> artistEvents) {
+    this(root, listType);
+    this.artistEvents = artistEvents;
+  }
+
   /**
    * Creates a VBox containing the information about an event, such as the event
    * name, artists, date, and location.
@@ -103,8 +123,8 @@ public class EventList implements Component {
   private ImageView createFavButton(Event event) {
     AtomicBoolean isFavorited = new AtomicBoolean(false);
 
-    Image favIcon = new Image(getClass().getResourceAsStream("/images/fav_icon.png"));
-    Image favIconColored = new Image(getClass().getResourceAsStream("/images/fav_icon_colored.png"));
+    Image favIcon = ResourceRegistry.getImage(ResourceRegistry.FAV_ICON);
+    Image favIconColored = ResourceRegistry.getImage(ResourceRegistry.FAV_ICON_COLORED);
 
     isFavorited.set(favoriteEvents.contains(event));
 
@@ -122,6 +142,7 @@ public class EventList implements Component {
       }
       isFavorited.set(!isFavorited.get());
       favIconView.setImage(isFavorited.get() ? favIconColored : favIcon);
+      NavigationManager.onFavoriteEventsChanged();
     });
     favIconView.setStyle("-fx-cursor: hand;");
 
@@ -169,6 +190,29 @@ public class EventList implements Component {
     return eventCard;
   }
 
+  /**
+   * Returns the events found in the given location. The results of the previous
+   * search are reused when the location has not changed, so that re-rendering
+   * the list (e.g. after a favorite change) does not repeat the search, until
+   * they are as old as the search results cached by the service.
+   *
+   * @param countryCode The country code of the searched location.
+   * @param city        The city of the searched location.
+   * @return The events found in the location.
+   */
+  private ArrayList<Event> getSearchResults(String countryCode, String city) {
+    String searchKey = countryCode + "|" + city;
+    long now = System.currentTimeMillis();
+
+    if (!searchKey.equals(lastSearchKey) || now - lastSearchTime > eventController.getSearchTtlMillis()) {
+      searchResults = eventController.getEventsByLocation(countryCode, city);
+      lastSearchKey = searchKey;
+      lastSearchTime = now;
+    }
+
+    return searchResults;
+  }
+
   /**
    * Renders the event list based on the selected list type (e.g., saved events,
    * artist-related events, or location-based events).
@@ -194,10 +238,9 @@ public class EventList implements Component {
     ArrayList<Event> events = listType.equals("saved")
         ? favoriteEvents
         : listType.equals("artist")
-            ? eventController.getEventsRelatedToArtist(ArtistList.currentArtist.get())
-            : eventController.getEventsByLocation(
-                EventSearchBar.searchCountryCode.get(),
-                EventSearchBar.searchCity.get());
+            ? (artistEvents != null ? artistEvents
+                : eventController.getEventsRelatedToArtist(ArtistList.currentArtist.get()))
+            : getSearchResults(EventSearchBar.searchCountryCode.get(), EventSearchBar.searchCity.get());
 
     eventList.getChildren().clear();
 
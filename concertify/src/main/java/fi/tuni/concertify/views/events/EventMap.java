@@ -1,24 +1,25 @@
 package fi.tuni.concertify.views.events;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import com.google.gson.Gson;
-
 import fi.tuni.concertify.controllers.ArtistController;
 import fi.tuni.concertify.controllers.EventController;
 import fi.tuni.concertify.interfaces.Component;
 import fi.tuni.concertify.models.Artist;
 import fi.tuni.concertify.models.Event;
-import fi.tuni.concertify.utilities.CountriesRetrieval;
+import fi.tuni.concertify.models.SearchedLocation;
+import fi.tuni.concertify.utilities.GeoClusterIndex;
+import fi.tuni.concertify.utilities.MapServer;
+import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.concurrent.Worker;
 import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -29,6 +30,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.web.WebEngine;
 import javafx.scene.web.WebView;
+import netscape.javascript.JSObject;
 
 /**
  * Represents a map view for displaying events based on user preferences.
@@ -36,6 +38,8 @@ import javafx.scene.web.WebView;
  * It displays a map showing event locations and their details.
  */
 public class EventMap implements Component {
+  private static final String ALL_ARTISTS = "All Favorite Artists";
+
   HBox root;
   private ComboBox<String> entityTypeComboBox;
   private ComboBox<String> metricComboBox;
@@ -44,8 +48,12 @@ public class EventMap implements Component {
   private EventController eventController = new EventController();
   private ObservableList<Event> selectedEvents = FXCollections.observableArrayList();
   private IntegerProperty numberOfFilteredEvents = new SimpleIntegerProperty(0);
-  private HashMap<String, String> countriesMap;
-  Gson gson = new Gson();
+  private WebView webView;
+  private Label countLabel;
+  private Label mapEmptyLabel;
+  private final EventMapBridge mapBridge = new EventMapBridge();
+  private GeoClusterIndex mapIndex;
+  private int selectionSequence = 0;
 
   /**
    * Constructs an EventMap instance, initializing the root HBox and setting up
@@ -66,7 +74,11 @@ public class EventMap implements Component {
    * @param events    A list of favorite events.
    * @param locations A list of recently searched locations.
    */
-  private void createComboBoxes(ArrayList<Artist> artists, ArrayList<Event> events, ArrayList<String> locations) {
+  private void createComboBoxes(ArrayList<Artist> artists, ArrayList<Event> events,
+      ArrayList<SearchedLocation> locations) {
+    LinkedHashMap<String, SearchedLocation> locationsByLabel = new LinkedHashMap<>();
+    locations.forEach(location -> locationsByLabel.put(location.getLabel(), location));
+
     ObservableList<String> entityTypes = FXCollections.observableArrayList(
         "Favorite Events", "Favorite Artists' Events", "Recently Searched Locations' Events");
     entityTypeComboBox = new ComboBox<>(entityTypes);
@@ -85,89 +97,93 @@ public class EventMap implements Component {
     metricComboBox.getStyleClass().add("combo-box:hover");
     metricComboBox.getStyleClass().add("list-cell");
 
-    selectedEvents.setAll(events);
-    numberOfFilteredEvents.set(filterNullLocationEvents(new ArrayList<>(selectedEvents)).size());
+    showEvents(events);
 
     entityTypeComboBox.valueProperty().addListener((observable, oldValue, newValue) -> {
       if (newValue.equals("Favorite Events")) {
         metricComboBox.setDisable(true);
-        selectedEvents.setAll(events);
+        showEvents(events);
       } else if (newValue.equals("Favorite Artists' Events")) {
         if (artists.size() > 0) {
           metricComboBox.setDisable(false);
           List<String> favoriteArtistNames = artists.stream().map(Artist::getName).collect(Collectors.toList());
           metrics.setAll(favoriteArtistNames);
-          metricComboBox.setValue(favoriteArtistNames.get(0));
+          if (favoriteArtistNames.size() > 1) {
+            metrics.add(0, ALL_ARTISTS);
+          }
+          metricComboBox.setValue(metrics.get(0));
         }
       } else {
-        if (locations.size() > 0) {
+        if (locationsByLabel.size() > 0) {
           metricComboBox.setDisable(false);
-          metrics.setAll(locations);
-          metricComboBox.setValue(locations.get(0));
+          metrics.setAll(locationsByLabel.keySet());
+          metricComboBox.setValue(metrics.get(0));
         }
       }
     });
 
     metricComboBox.valueProperty().addListener((observable, oldValue, newValue) -> {
       if (entityTypeComboBox.getValue().equals("Favorite Artists' Events")) {
-        selectedEvents.setAll(eventController.getEventsRelatedToArtist(newValue));
+        if (ALL_ARTISTS.equals(newValue)) {
+          showAllArtistsEvents(metrics.subList(1, metrics.size()));
+        } else {
+          showEvents(eventController.getEventsRelatedToArtist(newValue));
+        }
       } else if (entityTypeComboBox.getValue().equals("Recently Searched Locations' Events")) {
-        HashMap<String, String> geoData = parseLocation(newValue);
-        selectedEvents.setAll(eventController.getEventsByLocation(geoData.get("country"), geoData.get("city")));
+        SearchedLocation location = locationsByLabel.get(newValue);
+        if (location != null) {
+          showEvents(eventController.getEventsByLocation(location.getCountryCode(), location.getCity()));
+        }
       }
     });
 
   }
 
   /**
-   * Parses a location string (city and country) into a hashmap containing the
-   * city and country values.
+   * Shows the given events on the map, discarding any events still being
+   * loaded for a previous selection.
    *
-   * @param location A location string containing both city and country
-   *                 information.
-   * @return A hashmap containing the city and country extracted from the location
-   *         string.
+   * @param events The events to show.
    */
-  public HashMap<String, String> parseLocation(String location) {
-    String city = null;
-    String country = null;
-
-    Pattern cityPattern = Pattern.compile("City:\\s*(.*?)(,|$)");
-    Pattern countryPattern = Pattern.compile("Country:\\s*(.*)");
-
-    Matcher cityMatcher = cityPattern.matcher(location);
-    if (cityMatcher.find()) {
-      city = cityMatcher.group(1);
-    }
-
-    Matcher countryMatcher = countryPattern.matcher(location);
-    if (countryMatcher.find()) {
-      country = countryMatcher.group(1);
-    }
-
-    city = city != null ? city : "";
-    country = country != null ? countriesMap.get(country) : "";
-
-    HashMap<String, String> geodata = new HashMap<>();
-    geodata.put("city", city);
-    geodata.put("country", country);
-
-    return geodata;
+  private void showEvents(List<Event> events) {
+    selectionSequence++;
+    selectedEvents.setAll(events);
+    updateMap();
   }
 
   /**
-   * Filters out events that do not have valid geographical coordinates (latitude
-   * and longitude).
+   * Shows the events of all favorite artists on the map. The events of the
+   * artists are fetched concurrently and added to the map as soon as each
+   * artist's events have been retrieved, so the first markers appear without
+   * waiting for the slowest artist. The map is zoomed to the first events, and
+   * the later ones are added to it without moving the map. An event of several
+   * artists is shown once. Events arriving after the selection has changed are
+   * discarded.
    *
-   * @param allEvents A list of all events to be filtered.
-   * @return A list of events with valid geographical coordinates.
+   * @param artistNames The names of the favorite artists.
    */
-  private List<Event> filterNullLocationEvents(ArrayList<Event> allEvents) {
-    List<Event> filteredEvents = allEvents.stream()
-        .filter(event -> event.getLat() != 0 && event.getLon() != 0)
-        .collect(Collectors.toList());
+  private void showAllArtistsEvents(List<String> artistNames) {
+    showEvents(new ArrayList<>());
+    int sequence = selectionSequence;
+    Set<String> shownEventIds = new HashSet<>();
+
+    eventController.getEventsRelatedToArtists(new ArrayList<>(artistNames), artistEvents -> {
+      if (artistEvents == null || artistEvents.isEmpty()) {
+        return;
+      }
+
+      Platform.runLater(() -> {
+        if (sequence != selectionSequence) {
+          return;
+        }
 
-    return filteredEvents;
+        List<Event> newEvents = artistEvents.stream()
+            .filter(event -> event.getTicketmasterID() != null && shownEventIds.add(event.getTicketmasterID()))
+            .collect(Collectors.toList());
+        selectedEvents.addAll(newEvents);
+        addToMap(newEvents);
+      });
+    });
   }
 
   /**
@@ -203,58 +219,94 @@ public class EventMap implements Component {
 
     ArrayList<Artist> savedArtists = artistController.getFavoriteArtists();
     ArrayList<Event> savedEvents = eventController.getFavoriteEvents();
-    ArrayList<String> searchedLocations = eventController.getSearchedLocations();
+    ArrayList<SearchedLocation> searchedLocations = eventController.getSearchedLocations();
+
+    countLabel = new Label();
+    countLabel.setStyle("-fx-text-fill: white; -fx-font-size: 20px;");
 
-    countriesMap = CountriesRetrieval.getCountriesFromDB();
+    mapEmptyLabel = new Label(
+        "Start customizing your event map by searching for events, or by adding events/artists as your favorites! ");
+    mapEmptyLabel.setStyle("-fx-text-fill: white; -fx-font-size: 20px;");
+
+    if (webView == null) {
+      createWebView();
+    }
 
     createComboBoxes(savedArtists, savedEvents, searchedLocations);
     HBox controlsBox = new HBox(20);
     controlsBox.setAlignment(Pos.CENTER);
     controlsBox.getChildren().addAll(entityTypeComboBox, metricComboBox);
 
-    Label countLabel = new Label(
-        String.format(
-            "%s event(s) found - %s event(s) with invalid geolocation coordinates - %s event(s) displayed on maps",
-            selectedEvents.size(), selectedEvents.size() - numberOfFilteredEvents.get(), numberOfFilteredEvents.get()));
-    countLabel.setStyle("-fx-text-fill: white; -fx-font-size: 20px;");
-
-    Label mapEmptyLabel = new Label(
-        String.format(
-            "Start customizing your event map by searching for events, or by adding events/artists as your favorites! ",
-            selectedEvents.size(), selectedEvents.size() - numberOfFilteredEvents.get(), numberOfFilteredEvents.get()));
-    mapEmptyLabel.setStyle("-fx-text-fill: white; -fx-font-size: 20px;");
+    eventMap.setPadding(new Insets(20));
+    eventMap.getChildren().addAll(controlsBox, countLabel, webView, mapEmptyLabel);
+  }
 
-    WebView webView = new WebView();
+  /**
+   * Creates the WebView displaying the map. The map page is loaded from the
+   * local MapServer, which serves Leaflet and the map tiles from its disk
+   * caches. The page is loaded only once; afterwards the displayed markers are
+   * updated incrementally through the bridge whenever the selected events
+   * change.
+   */
+  private void createWebView() {
+    webView = new WebView();
     webView.prefWidthProperty().bind(root.widthProperty().multiply(0.6));
     webView.setPrefHeight(400);
 
     WebEngine webEngine = webView.getEngine();
-    webEngine.load(getClass().getResource("/map.html").toExternalForm());
-    webEngine.documentProperty().addListener((observable1, oldDoc, newDoc) -> {
-      if (newDoc != null && numberOfFilteredEvents.get() > 0) {
-        List<Event> filteredEvents = filterNullLocationEvents(new ArrayList<>(selectedEvents));
-        String stringifiedEvents = gson.toJson(filteredEvents);
-        webEngine.executeScript("initializeMap(" + stringifiedEvents + ");");
+    webEngine.getLoadWorker().stateProperty().addListener((observable, oldState, newState) -> {
+      if (newState == Worker.State.SUCCEEDED) {
+        mapBridge.attach((JSObject) webEngine.executeScript("window"));
       }
-      toggleMapLabel(webView, mapEmptyLabel);
     });
+    String mapUrl = MapServer.getMapUrl();
+    webEngine.load(mapUrl != null ? mapUrl : getClass().getResource("/map.html").toExternalForm());
+  }
 
-    eventMap.setPadding(new Insets(20));
-    eventMap.getChildren().addAll(controlsBox, countLabel, webView, mapEmptyLabel);
+  /**
+   * Indexes the selected events into geographic clusters, updates the event
+   * counts and passes the index to the map. The index is built once per
+   * selection; panning and zooming the map only queries it.
+   */
+  private void updateMap() {
+    mapIndex = new GeoClusterIndex(selectedEvents);
+    updateCounts();
+    mapBridge.setIndex(mapIndex);
+    MapServer.prefetch(mapIndex);
+  }
 
-    selectedEvents.addListener((ListChangeListener<Event>) change -> {
-      List<Event> filteredEvents = filterNullLocationEvents(new ArrayList<>(selectedEvents));
-      numberOfFilteredEvents.set(filteredEvents.size());
-      String stringifiedEvents = gson.toJson(filteredEvents);
-      countLabel.setText(
-          String.format(
-              "%s event(s) found - %s event(s) with invalid geolocation coordinates - %s event(s) displayed on maps",
-              selectedEvents.size(), selectedEvents.size() - numberOfFilteredEvents.get(),
-              numberOfFilteredEvents.get()));
-      if (numberOfFilteredEvents.get() > 0)
-        webEngine.executeScript("initializeMap(" + stringifiedEvents + ");");
-      toggleMapLabel(webView, mapEmptyLabel);
-    });
+  /**
+   * Adds events that were streamed in for the current selection to the index
+   * and the map. Only the clusters receiving new events are updated, and the
+   * map is moved only if these are the first events of the selection.
+   *
+   * @param newEvents The events added to the selected events.
+   */
+  private void addToMap(List<Event> newEvents) {
+    boolean wasEmpty = mapIndex.size() == 0;
+
+    mapIndex.addAll(newEvents);
+    updateCounts();
+    mapBridge.refresh();
+
+    if (wasEmpty) {
+      MapServer.prefetch(mapIndex);
+    }
+  }
+
+  /**
+   * Updates the event counts and shows the map or the empty label depending on
+   * whether there are events to display.
+   */
+  private void updateCounts() {
+    numberOfFilteredEvents.set(mapIndex.size());
+
+    countLabel.setText(
+        String.format(
+            "%s event(s) found - %s event(s) with invalid geolocation coordinates - %s event(s) displayed on maps",
+            selectedEvents.size(), mapIndex.getInvalidCount(), mapIndex.size()));
+
+    toggleMapLabel(webView, mapEmptyLabel);
   }
 
   /**
@@ -0,0 +1,298 @@
+package fi.tuni.concertify.views.events;
+
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+import fi.tuni.concertify.models.Event;
+import fi.tuni.concertify.utilities.GeoClusterIndex;
+import fi.tuni.concertify.utilities.GeoClusterIndex.Cluster;
+import netscape.javascript.JSException;
+import netscape.javascript.JSObject;
+
+/**
+ * The EventMapBridge class is the Java side of the bridge between the EventMap
+ * and the Leaflet map in map.html.
+ *
+ * The events are clustered in Java with a {@link GeoClusterIndex}, and the map
+ * only receives the clusters intersecting its current viewport. Whenever the
+ * user pans or zooms, the page reports the new viewport through
+ * {@link #viewportChanged}, and the bridge passes only the clusters that
+ * entered or left the viewport. The data is not serialized: the bridge is
+ * exposed to the page as a JSObject member, and the page reads the changes
+ * through the public methods of the bridge (upcalls) when Java asks it to apply
+ * them (downcall). Events added to the index while the map is shown are diffed
+ * against the current viewport the same way, without clearing or moving the
+ * map.
+ *
+ * The WebView only holds a weak reference to objects set as JSObject members,
+ * so the owner of the bridge must keep a strong reference to it.
+ */
+public class EventMapBridge {
+  private static final DateFormat DATE_FORMAT = DateFormat.getDateTimeInstance(DateFormat.DEFAULT,
+      DateFormat.DEFAULT, Locale.US);
+  private static final double VIEWPORT_PADDING = 0.25;
+
+  private GeoClusterIndex index = new GeoClusterIndex(new ArrayList<>());
+  private HashMap<String, Integer> displayedCounts = new HashMap<>();
+  private ArrayList<Marker> addedMarkers = new ArrayList<>();
+  private ArrayList<String> removedIds = new ArrayList<>();
+  private JSObject window;
+  private double[] viewport;
+  private boolean boundsShown = false;
+
+  /**
+   * Attaches the bridge to a newly loaded map page and displays the current
+   * events on it.
+   *
+   * @param window The window object of the loaded map page.
+   */
+  public void attach(JSObject window) {
+    this.window = window;
+    window.setMember("javaBridge", this);
+    showIndex();
+  }
+
+  /**
+   * Replaces the events displayed on the map. All markers are removed and the
+   * map is zoomed to fit the new events, after which the page reports its
+   * viewport and receives the visible clusters.
+   *
+   * @param index The index of the events to display.
+   */
+  public void setIndex(GeoClusterIndex index) {
+    this.index = index;
+    showIndex();
+  }
+
+  /**
+   * Updates the map after events have been added to the current index. The
+   * markers of the viewport are updated without clearing the map. The map is
+   * only zoomed to the events if it has not shown any events yet, i.e. when the
+   * first events of the index arrive.
+   */
+  public void refresh() {
+    if (window == null) {
+      return;
+    }
+
+    if (!boundsShown) {
+      showIndex();
+    } else if (viewport != null) {
+      viewportChanged(viewport[0], viewport[1], viewport[2], viewport[3], viewport[4]);
+    }
+  }
+
+  /**
+   * Clears the map and zooms it to the bounds of the current index.
+   */
+  private void showIndex() {
+    if (window == null) {
+      return;
+    }
+
+    displayedCounts.clear();
+    double[] bounds = index.getBounds();
+    boundsShown = bounds != null;
+
+    if (bounds == null) {
+      callMap("clearMarkers");
+    } else {
+      callMap("showBounds", bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+  }
+
+  /**
+   * Called by the map page when the viewport has changed. Passes the clusters
+   * that became visible and removes the ones that are no longer visible. A
+   * displayed cluster that has received new events is replaced. The viewport is
+   * padded so that small pans do not cause any updates.
+   *
+   * @param zoom  The zoom level of the map.
+   * @param south The southern latitude of the viewport.
+   * @param west  The western longitude of the viewport.
+   * @param north The northern latitude of the viewport.
+   * @param east  The eastern longitude of the viewport.
+   */
+  public void viewportChanged(double zoom, double south, double west, double north, double east) {
+    viewport = new double[] { zoom, south, west, north, east };
+    double latPadding = (north - south) * VIEWPORT_PADDING;
+    double lonPadding = (east - west) * VIEWPORT_PADDING;
+    List<Cluster> visible = index.query((int) Math.floor(zoom), south - latPadding, west - lonPadding,
+        north + latPadding, east + lonPadding);
+
+    HashMap<String, Integer> nextCounts = new HashMap<>();
+    addedMarkers.clear();
+    removedIds.clear();
+
+    for (Cluster cluster : visible) {
+      int eventCount = cluster.getEvents().size();
+      Integer displayedCount = displayedCounts.get(cluster.getId());
+      nextCounts.put(cluster.getId(), eventCount);
+
+      if (displayedCount == null || displayedCount != eventCount) {
+        if (displayedCount != null) {
+          removedIds.add(cluster.getId());
+        }
+        addedMarkers.add(new Marker(cluster));
+      }
+    }
+
+    displayedCounts.forEach((id, count) -> {
+      if (!nextCounts.containsKey(id)) {
+        removedIds.add(id);
+      }
+    });
+
+    displayedCounts = nextCounts;
+
+    if (!addedMarkers.isEmpty() || !removedIds.isEmpty()) {
+      callMap("applyChanges");
+    }
+  }
+
+  /**
+   * Calls a function of the map page.
+   *
+   * @param function The name of the function.
+   * @param args     The arguments of the function.
+   */
+  private void callMap(String function, Object... args) {
+    try {
+      window.call(function, args);
+    } catch (JSException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Returns the number of markers added by the current update.
+   *
+   * @return The number of added markers.
+   */
+  public int getAddedCount() {
+    return addedMarkers.size();
+  }
+
+  /**
+   * Returns a marker added by the current update.
+   *
+   * @param index The index of the added marker.
+   * @return The added marker.
+   */
+  public Marker getAdded(int index) {
+    return addedMarkers.get(index);
+  }
+
+  /**
+   * Returns the number of events removed by the current update.
+   *
+   * @return The number of removed events.
+   */
+  public int getRemovedCount() {
+    return removedIds.size();
+  }
+
+  /**
+   * Returns the identifier of an event removed by the current update.
+   *
+   * @param index The index of the removed event.
+   * @return The identifier of the removed event.
+   */
+  public String getRemoved(int index) {
+    return removedIds.get(index);
+  }
+
+  /**
+   * A marker on the map, either a cluster of nearby events or a single location
+   * whose events are listed in a popup. The map page reads the marker through
+   * its public getters.
+   */
+  public static class Marker {
+    private final Cluster cluster;
+
+    /**
+     * Constructs a marker for a cluster.
+     *
+     * @param cluster The cluster shown by the marker.
+     */
+    Marker(Cluster cluster) {
+      this.cluster = cluster;
+    }
+
+    public String getId() {
+      return cluster.getId();
+    }
+
+    public boolean isCluster() {
+      return !cluster.isSingleLocation();
+    }
+
+    public double getLat() {
+      return cluster.getLat();
+    }
+
+    public double getLon() {
+      return cluster.getLon();
+    }
+
+    public double getSouth() {
+      return cluster.getSouth();
+    }
+
+    public double getWest() {
+      return cluster.getWest();
+    }
+
+    public double getNorth() {
+      return cluster.getNorth();
+    }
+
+    public double getEast() {
+      return cluster.getEast();
+    }
+
+    public int getEventCount() {
+      return cluster.getEvents().size();
+    }
+
+    /**
+     * Returns the name of the location of the marker.
+     *
+     * @return The location name and city of the first event.
+     */
+    public String getLocation() {
+      Event event = cluster.getEvents().get(0);
+      return String.format("%s (%s)", event.getLocationName(), event.getCity() != null ? event.getCity() : "");
+    }
+
+    public String getEventName(int index) {
+      return cluster.getEvents().get(index).getName();
+    }
+
+    /**
+     * Returns the artists of an event of the marker.
+     *
+     * @param index The index of the event.
+     * @return The artist names joined with commas.
+     */
+    public String getEventArtists(int index) {
+      ArrayList<String> artistNames = cluster.getEvents().get(index).getArtistNames();
+      return artistNames == null || artistNames.isEmpty() ? "No artists given" : String.join(", ", artistNames);
+    }
+
+    /**
+     * Returns the start date of an event of the marker.
+     *
+     * @param index The index of the event.
+     * @return The formatted start date.
+     */
+    public String getEventDate(int index) {
+      Date date = cluster.getEvents().get(index).getDateTimeStart();
+      return date != null ? DATE_FORMAT.format(date) : "";
+    }
+  }
+}
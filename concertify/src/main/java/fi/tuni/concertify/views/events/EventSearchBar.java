@@ -8,6 +8,7 @@ import fi.tuni.concertify.controllers.EventController;
 import fi.tuni.concertify.interfaces.Component;
 import fi.tuni.concertify.utilities.CountriesRetrieval;
 import fi.tuni.concertify.views.home.NavigationManager;
+import fi.tuni.concertify.views.ResourceRegistry;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
@@ -46,7 +47,7 @@ public class EventSearchBar implements Component {
     countriesList.addAll(countriesArr);
 
     TextField eventSearchBarField = new TextField();
-    eventSearchBar.getStylesheets().add(getClass().getResource("/styles/search-bar.css").toExternalForm());
+    ResourceRegistry.applyStylesheet(eventSearchBar, ResourceRegistry.SEARCH_BAR_CSS);
     eventSearchBar.setSpacing(10);
     eventSearchBar.setPadding(new Insets(80, 20, 70, 20));
 
@@ -70,6 +71,7 @@ public class EventSearchBar implements Component {
       searchCity.set(eventSearchBarField.getText());
       eventController.addToSearchedLocation(eventSearchBarField.getText(),
           !country.equals("Choose a country") ? comboBoxCountry.getValue() : "");
+      NavigationManager.invalidate("home");
       NavigationManager.switchMainContent("event-search-results");
     });
 
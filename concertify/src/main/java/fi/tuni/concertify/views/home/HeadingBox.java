@@ -5,6 +5,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import fi.tuni.concertify.controllers.ArtistController;
 import fi.tuni.concertify.interfaces.Component;
 import fi.tuni.concertify.views.artists.ArtistList;
+import fi.tuni.concertify.views.ResourceRegistry;
 import javafx.scene.layout.HBox;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -78,8 +79,8 @@ public class HeadingBox implements Component {
     if (textHeading != null) {
       headingInfo.getChildren().addAll(headingText);
     } else {
-      Image favIcon = new Image(getClass().getResourceAsStream("/images/fav_icon.png"));
-      Image favIconColored = new Image(getClass().getResourceAsStream("/images/fav_icon_colored.png"));
+      Image favIcon = ResourceRegistry.getImage(ResourceRegistry.FAV_ICON);
+      Image favIconColored = ResourceRegistry.getImage(ResourceRegistry.FAV_ICON_COLORED);
 
       AtomicBoolean isFavorited = new AtomicBoolean(ArtistList.currentArtistFavoriteStatus.get());
 
@@ -96,6 +97,8 @@ public class HeadingBox implements Component {
         }
         isFavorited.set(!isFavorited.get());
         favIconView.setImage(isFavorited.get() ? favIconColored : favIcon);
+        ArtistList.currentArtistFavoriteStatus.set(isFavorited.get());
+        NavigationManager.onFavoriteArtistsChanged();
       });
       favIconView.setStyle("-fx-cursor: hand;");
 
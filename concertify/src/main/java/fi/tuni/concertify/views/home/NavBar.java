@@ -2,8 +2,10 @@ package fi.tuni.concertify.views.home;
 
 import fi.tuni.concertify.controllers.UserController;
 import fi.tuni.concertify.interfaces.Component;
+import fi.tuni.concertify.utilities.OfflineMode;
 import fi.tuni.concertify.views.ComponentFactory;
 import fi.tuni.concertify.views.StageManager;
+import fi.tuni.concertify.views.ResourceRegistry;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.HBox;
 import javafx.geometry.Pos;
@@ -114,14 +116,14 @@ public class NavBar implements Component {
    */
   @Override
   public void render() {
-    navBar.getStylesheets().add(getClass().getResource("/styles/navbar-style.css").toExternalForm());
+    ResourceRegistry.applyStylesheet(navBar, ResourceRegistry.NAVBAR_CSS);
     navBar.getStyleClass().add("navbar");
     navBar.setAlignment(Pos.TOP_CENTER);
     navBar.prefWidthProperty().bind(root.widthProperty().multiply(0.2));
 
     navBar.setPadding(new Insets(30, 20, 30, 20));
 
-    Image image = new Image(getClass().getResourceAsStream("/images/logo1-white-trim.png"));
+    Image image = ResourceRegistry.getImage(ResourceRegistry.LOGO_WHITE);
     ImageView homeImage = new ImageView(image);
     homeImage.setPreserveRatio(true);
     homeImage.setSmooth(true);
@@ -148,9 +150,35 @@ public class NavBar implements Component {
         homeImage,
         welcomeLabel,
         buttonsBox,
+        createOfflineBox(),
         logOutButton);
   }
 
+  /**
+   * Creates the offline indicator, shown while the application answers from the
+   * local caches, and the button switching the offline mode on and off.
+   * 
+   * @return The container of the offline indicator and button.
+   */
+  private VBox createOfflineBox() {
+    Label offlineLabel = new Label("Offline: showing saved data");
+    offlineLabel.getStyleClass().add("offline-label");
+    offlineLabel.visibleProperty().bind(OfflineMode.offlineProperty());
+    offlineLabel.managedProperty().bind(offlineLabel.visibleProperty());
+
+    Button offlineButton = new Button(OfflineMode.isManual() ? "Go Online" : "Work Offline");
+    offlineButton.getStyleClass().add("offline-button");
+    offlineButton.setMaxWidth(Double.MAX_VALUE);
+    offlineButton.setOnAction(e -> {
+      OfflineMode.setManual(!OfflineMode.isManual());
+      offlineButton.setText(OfflineMode.isManual() ? "Go Online" : "Work Offline");
+    });
+
+    VBox offlineBox = new VBox(10, offlineLabel, offlineButton);
+    offlineBox.setAlignment(Pos.CENTER);
+    return offlineBox;
+  }
+
   /**
    * Returns the navigation bar (VBox) with all the UI elements after they have
    * been rendered.
@@ -1,8 +1,18 @@
 package fi.tuni.concertify.views.home;
 
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+
 import fi.tuni.concertify.interfaces.Component;
+import fi.tuni.concertify.utilities.StartupTimer;
 import fi.tuni.concertify.views.ComponentFactory;
 import fi.tuni.concertify.views.StageManager;
+import fi.tuni.concertify.views.artists.ArtistList;
+import fi.tuni.concertify.views.artists.SearchBar;
+import fi.tuni.concertify.views.events.EventSearchBar;
+import javafx.application.Platform;
+import javafx.scene.Node;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
@@ -31,21 +41,49 @@ public class NavigationManager {
   private static Component body = componentFactory.createBody(contentComponent);
   private static HBox bodyComponent = (HBox) body.get();
 
-  private static Component artistsSongsChart = componentFactory.createArtistsSongsChart();
-  private static Component searchBar = componentFactory.createSearchBar();
-  private static Component singleArtistHeading = componentFactory.createSingleArtistHeading(headerComponent);
-  private static Component homeHeading = componentFactory.createHeadingBox(headerComponent, "Your ConcertiMap");
-  private static Component savedArtistHeading = componentFactory.createHeadingBox(headerComponent, "Saved Artists");
-  private static Component savedEventHeading = componentFactory.createHeadingBox(headerComponent, "Saved Events");
-  private static Component searchHeading = componentFactory.createHeadingBox(headerComponent, "Search Results");
-  private static Component artistBody = componentFactory.createArtistBody(bodyComponent);
-  private static Component artistSaved = componentFactory.createArtistList(bodyComponent, "saved");
-  private static Component artistSearchResults = componentFactory.createArtistList(bodyComponent, "searched");
-  private static Component eventSearchBar = componentFactory.createEventSearch();
-  private static Component eventSaved = componentFactory.createEventList(bodyComponent, "saved");
-  private static Component eventSearchResultsComponent = componentFactory.createEventList(bodyComponent, "searched");
-  private static Component eventSearchChart = componentFactory.createEventSearchChart();
-  private static Component eventMap = componentFactory.createEventMap(bodyComponent);
+  private static Supplier<Component> artistsSongsChart = lazy(() -> componentFactory.createArtistsSongsChart());
+  private static Supplier<Component> searchBar = lazy(() -> componentFactory.createSearchBar());
+  private static Supplier<Component> singleArtistHeading = lazy(
+      () -> componentFactory.createSingleArtistHeading(headerComponent));
+  private static Supplier<Component> homeHeading = lazy(
+      () -> componentFactory.createHeadingBox(headerComponent, "Your ConcertiMap"));
+  private static Supplier<Component> savedArtistHeading = lazy(
+      () -> componentFactory.createHeadingBox(headerComponent, "Saved Artists"));
+  private static Supplier<Component> savedEventHeading = lazy(
+      () -> componentFactory.createHeadingBox(headerComponent, "Saved Events"));
+  private static Supplier<Component> searchHeading = lazy(
+      () -> componentFactory.createHeadingBox(headerComponent, "Search Results"));
+  private static Supplier<Component> artistBody = lazy(() -> componentFactory.createArtistBody(bodyComponent));
+  private static Supplier<Component> artistSaved = lazy(
+      () -> componentFactory.createArtistList(bodyComponent, "saved"));
+  private static Supplier<Component> artistSearchResults = lazy(
+      () -> componentFactory.createArtistList(bodyComponent, "searched"));
+  private static Supplier<Component> eventSearchBar = lazy(() -> componentFactory.createEventSearch());
+  private static Supplier<Component> eventSaved = lazy(() -> componentFactory.createEventList(bodyComponent, "saved"));
+  private static Supplier<Component> eventSearchResultsComponent = lazy(
+      () -> componentFactory.createEventList(bodyComponent, "searched"));
+  private static Supplier<Component> eventSearchChart = lazy(() -> componentFactory.createEventSearchChart());
+  private static Supplier<Component> eventMap = lazy(() -> componentFactory.createEventMap(bodyComponent));
+
+  private static final LinkedHashMap<String, Page> pages = new LinkedHashMap<>();
+  private static String currentPage;
+
+  static {
+    pages.put("home", new Page(homeHeading, eventMap));
+    pages.put("artist-search", new Page(searchBar, artistsSongsChart));
+    pages.put("event-search", new Page(eventSearchBar, eventSearchChart));
+    pages.put("artist-saved", new Page(savedArtistHeading, artistSaved));
+    pages.put("artist-single", new Page(singleArtistHeading, artistBody));
+    pages.put("artist-search-results", new Page(searchHeading, artistSearchResults));
+    pages.put("saved-events", new Page(savedEventHeading, eventSaved));
+    pages.put("event-search-results", new Page(searchHeading, eventSearchResultsComponent));
+
+    SearchBar.searchTerm.addListener((observable, oldValue, newValue) -> invalidate("artist-search-results"));
+    ArtistList.currentArtist.addListener((observable, oldValue, newValue) -> invalidate("artist-single"));
+    EventSearchBar.searchCity.addListener((observable, oldValue, newValue) -> invalidate("event-search-results"));
+    EventSearchBar.searchCountryCode
+        .addListener((observable, oldValue, newValue) -> invalidate("event-search-results"));
+  }
 
   /**
    * Switches the main content based on the provided page identifier. This method
@@ -53,6 +91,8 @@ public class NavigationManager {
    * the header and body sections of the UI and dynamically loads the appropriate
    * content
    * (e.g., artist search, event search, saved artists) into the main layout.
+   * Pages are rendered once and cached; a cached page is only rendered again
+   * after it has been invalidated by a change in the data it displays.
    * 
    * @param page The page identifier that determines which content to load (e.g.,
    *             "home", "artist-search").
@@ -63,42 +103,154 @@ public class NavigationManager {
     contentComponent.getChildren().clear();
     homeComponent.getChildren().remove(contentComponent);
 
-    switch (page) {
-      case "home":
-        headerComponent.getChildren().add(homeHeading.get());
-        bodyComponent.getChildren().add(eventMap.get());
-        break;
-      case "artist-search":
-        headerComponent.getChildren().add(searchBar.get());
-        bodyComponent.getChildren().add(artistsSongsChart.get());
-        break;
-      case "event-search":
-        headerComponent.getChildren().add(eventSearchBar.get());
-        bodyComponent.getChildren().add(eventSearchChart.get());
-        break;
-      case "artist-saved":
-        headerComponent.getChildren().add(savedArtistHeading.get());
-        bodyComponent.getChildren().add(artistSaved.get());
-        break;
-      case "artist-single":
-        headerComponent.getChildren().add(singleArtistHeading.get());
-        bodyComponent.getChildren().add(artistBody.get());
-        break;
-      case "artist-search-results":
-        headerComponent.getChildren().add(searchHeading.get());
-        bodyComponent.getChildren().add(artistSearchResults.get());
-        break;
-      case "saved-events":
-        headerComponent.getChildren().add(savedEventHeading.get());
-        bodyComponent.getChildren().add(eventSaved.get());
-        break;
-      case "event-search-results":
-        headerComponent.getChildren().add(searchHeading.get());
-        bodyComponent.getChildren().add(eventSearchResultsComponent.get());
-        break;
+    Page target = pages.get(page);
+
+    if (target != null) {
+      target.show();
+      currentPage = page;
     }
 
     contentComponent.getChildren().addAll(headerComponent, bodyComponent);
     homeComponent.getChildren().add(contentComponent);
   }
+
+  /**
+   * Marks the given pages as dirty, so that they are rendered again the next
+   * time they are shown.
+   * 
+   * @param pageIds The identifiers of the pages whose data has changed.
+   */
+  public static void invalidate(String... pageIds) {
+    for (String pageId : pageIds) {
+      Page page = pages.get(pageId);
+      if (page != null) {
+        page.dirty = true;
+      }
+    }
+  }
+
+  /**
+   * Marks every page as dirty. Used when the logged in user changes.
+   */
+  public static void invalidateAll() {
+    pages.values().forEach(page -> page.dirty = true);
+  }
+
+  /**
+   * Invalidates the pages that display the user's favorite artists or their
+   * favorite status.
+   */
+  public static void onFavoriteArtistsChanged() {
+    invalidate("home", "artist-saved", "artist-search-results", "artist-single");
+  }
+
+  /**
+   * Invalidates the pages that display the user's favorite events or their
+   * favorite status.
+   */
+  public static void onFavoriteEventsChanged() {
+    invalidate("home", "saved-events", "event-search-results", "artist-single");
+  }
+
+  /**
+   * Constructs the components of the pages that have not been visited yet, one
+   * component per JavaFX pulse, so that the first visit of a page does not pay
+   * the construction cost. The components are only constructed, not rendered,
+   * so the warm-up does not fetch any data.
+   */
+  public static void warmUp() {
+    ArrayDeque<Supplier<Component>> pending = new ArrayDeque<>();
+    pages.values().forEach(page -> {
+      pending.add(page.header);
+      pending.add(page.body);
+    });
+
+    warmUpNext(pending);
+  }
+
+  /**
+   * Constructs the next pending component and schedules the one after it.
+   * 
+   * @param pending The components that have not been constructed yet.
+   */
+  private static void warmUpNext(ArrayDeque<Supplier<Component>> pending) {
+    if (pending.isEmpty()) {
+      StartupTimer.mark("warm-up-done");
+      return;
+    }
+
+    Platform.runLater(() -> {
+      pending.poll().get();
+      warmUpNext(pending);
+    });
+  }
+
+  /**
+   * Wraps a component factory so that the component is constructed on first use
+   * and the same instance is returned afterwards.
+   * 
+   * @param factory The factory creating the component.
+   * @return A supplier returning the lazily constructed component.
+   */
+  private static Supplier<Component> lazy(Supplier<Component> factory) {
+    return new Supplier<Component>() {
+      private Component component;
+
+      @Override
+      public Component get() {
+        if (component == null) {
+          component = factory.get();
+        }
+        return component;
+      }
+    };
+  }
+
+  /**
+   * Returns the identifier of the page that is currently displayed.
+   * 
+   * @return The current page identifier, or null if no page has been shown yet.
+   */
+  public static String getCurrentPage() {
+    return currentPage;
+  }
+
+  /**
+   * A page of the main layout, consisting of a header component and a body
+   * component. The components are constructed when the page is first shown, and
+   * the rendered nodes are cached until the page is marked dirty.
+   */
+  private static class Page {
+    private final Supplier<Component> header;
+    private final Supplier<Component> body;
+    private Node headerNode;
+    private Node bodyNode;
+    private boolean dirty = true;
+
+    /**
+     * Constructs a page from its header and body components.
+     * 
+     * @param header Supplies the component displayed in the header section.
+     * @param body   Supplies the component displayed in the body section.
+     */
+    Page(Supplier<Component> header, Supplier<Component> body) {
+      this.header = header;
+      this.body = body;
+    }
+
+    /**
+     * Adds the page to the header and body sections, rendering the components
+     * only if the page is dirty or has not been rendered yet.
+     */
+    void show() {
+      if (dirty || headerNode == null || bodyNode == null) {
+        headerNode = header.get().get();
+        bodyNode = body.get().get();
+        dirty = false;
+      }
+
+      headerComponent.getChildren().add(headerNode);
+      bodyComponent.getChildren().add(bodyNode);
+    }
+  }
 }
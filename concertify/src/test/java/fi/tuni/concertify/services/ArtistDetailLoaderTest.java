@@ -0,0 +1,92 @@
+package fi.tuni.concertify.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.models.Event;
+import fi.tuni.concertify.models.Track;
+
+@ExtendWith(MockitoExtension.class)
+class ArtistDetailLoaderTest {
+
+    @Mock
+    private ArtistService artistService;
+
+    @Mock
+    private LastFmAPIService lastFmAPIService;
+
+    @Mock
+    private EventService eventService;
+
+    private ArtistDetailLoader loader;
+    private Artist artist;
+
+    @BeforeEach
+    public void setUp() {
+        loader = new ArtistDetailLoader(artistService, lastFmAPIService, eventService);
+        artist = new Artist("Test Artist", 1000, 5000);
+        doReturn(artist).when(artistService).getStoredArtist("Test Artist");
+    }
+
+    @Test
+    @DisplayName("Should load stale details and events and save the artist once")
+    public void shouldLoadStaleDetails() throws Exception {
+        HashMap<String, String> artistInfo = new HashMap<>();
+        artistInfo.put("listeners", "2000");
+        artistInfo.put("playcount", "8000");
+        artistInfo.put("bio", "Test bio");
+        ArrayList<Track> topTracks = new ArrayList<>(List.of(new Track("Song", 10, 5)));
+        ArrayList<Event> events = new ArrayList<>();
+
+        doReturn(artistInfo).when(lastFmAPIService).getArtistInfo("Test Artist");
+        doReturn(topTracks).when(lastFmAPIService).getArtistTopTracks("Test Artist");
+        doReturn(events).when(eventService).getEventsByArtist("Test Artist");
+
+        ArtistDetailLoader.Details details = loader.load("Test Artist");
+        details.getCompletion().get(5, TimeUnit.SECONDS);
+
+        assertEquals("Test bio", details.getBio().getCompletion().get());
+        assertEquals(2000, artist.getListeners());
+        assertEquals(topTracks, details.getTopTracks().get());
+        assertFalse(details.getBio().isRefreshing());
+        assertEquals(events, details.getEvents().get(5, TimeUnit.SECONDS));
+        assertTrue(artist.getInfoFetchedAt() > 0);
+        verify(artistService).saveArtistDetails(artist);
+    }
+
+    @Test
+    @DisplayName("Should serve fresh details without calling Last.fm")
+    public void shouldServeFreshDetails() throws Exception {
+        artist.setBio("Stored bio");
+        artist.setInfoFetchedAt(System.currentTimeMillis());
+        artist.setTopTracks(new ArrayList<>());
+        artist.setTopTracksFetchedAt(System.currentTimeMillis());
+        doReturn(new ArrayList<>()).when(eventService).getEventsByArtist("Test Artist");
+
+        ArtistDetailLoader.Details details = loader.load("Test Artist");
+        details.getCompletion().get(5, TimeUnit.SECONDS);
+        details.getEvents().get(5, TimeUnit.SECONDS);
+
+        assertFalse(details.getBio().isRefreshing());
+        assertEquals("Stored bio", details.getBio().get());
+        verify(lastFmAPIService, never()).getArtistInfo("Test Artist");
+        verify(lastFmAPIService, never()).getArtistTopTracks("Test Artist");
+        verify(artistService, never()).saveArtistDetails(artist);
+    }
+}
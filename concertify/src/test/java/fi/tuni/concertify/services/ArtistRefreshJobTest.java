@@ -0,0 +1,98 @@
+package fi.tuni.concertify.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import fi.tuni.concertify.models.Artist;
+
+@ExtendWith(MockitoExtension.class)
+class ArtistRefreshJobTest {
+
+    private static final long HOUR = 60 * 60 * 1000;
+
+    @Mock
+    private ArtistService artistService;
+
+    @Mock
+    private LastFmAPIService lastFmAPIService;
+
+    @Mock
+    private SpotifyAPIService spotifyAPIService;
+
+    @Mock
+    private UserService userService;
+
+    private ArtistRefreshJob job;
+
+    @BeforeEach
+    public void setUp() {
+        job = new ArtistRefreshJob(artistService, lastFmAPIService, spotifyAPIService, userService);
+    }
+
+    @Test
+    @DisplayName("Should select stale artists, favorites first, then by staleness and popularity")
+    public void shouldSelectStaleArtistsInOrder() {
+        long now = 1000 * HOUR;
+        List<Artist> artists = List.of(
+            createArtist("Fresh", 1000000, now - HOUR),
+            createArtist("Popular", 1000000, now - 10 * HOUR),
+            createArtist("Niche", 100, now - 10 * HOUR),
+            createArtist("Forgotten", 100, 0),
+            createArtist("Favorite", 10, now - 3 * HOUR));
+
+        ArrayList<Artist> batch = ArtistRefreshJob.selectBatch(artists, Set.of("Favorite"), now, 2 * HOUR, 3);
+
+        assertEquals(List.of("Favorite", "Forgotten", "Popular"),
+            batch.stream().map(Artist::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Should refresh statistics and Spotify details, and keep the artist on failure")
+    public void shouldRefreshArtist() {
+        Artist artist = createArtist("Test Artist", 1000, 0);
+        artist.setSpotifyId("spotify-id");
+        Artist failing = createArtist("Failing Artist", 500, 0);
+
+        HashMap<String, String> artistInfo = new HashMap<>();
+        artistInfo.put("listeners", "2000");
+        artistInfo.put("playcount", "8000");
+        HashMap<String, String> spotifyData = new HashMap<>();
+        spotifyData.put("spotifyUrl", "https://open.spotify.com/artist/spotify-id");
+        spotifyData.put("profilePicture", "https://images/picture.jpg");
+
+        doReturn(artistInfo).when(lastFmAPIService).getArtistInfo("Test Artist");
+        doReturn(spotifyData).when(spotifyAPIService).getArtistUrlAndAvatar("spotify-id");
+        doThrow(new IllegalStateException("Not found")).when(lastFmAPIService).getArtistInfo("Failing Artist");
+
+        assertTrue(job.refresh(artist));
+        assertEquals(2000, artist.getListeners());
+        assertEquals(8000, artist.getPlayCount());
+        assertEquals("https://images/picture.jpg", artist.getProfilePicture());
+        assertTrue(artist.getLastRefreshedAt() > 0);
+
+        assertFalse(job.refresh(failing));
+        assertEquals(500, failing.getListeners());
+        assertEquals(0, failing.getLastRefreshedAt());
+    }
+
+    private Artist createArtist(String name, int listeners, long lastRefreshedAt) {
+        Artist artist = new Artist(name, listeners, 0);
+        artist.setLastRefreshedAt(lastRefreshedAt);
+        return artist;
+    }
+}
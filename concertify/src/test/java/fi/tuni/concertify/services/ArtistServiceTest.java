@@ -15,7 +15,9 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -81,6 +83,65 @@ public class ArtistServiceTest {
         assertEquals("Test Artist", results.get(0).getName(), "Should find the test artist");
     }
 
+    @Test
+    @DisplayName("Should keep details saved during a search when merging its results")
+    public void shouldKeepConcurrentDetailsWhenMergingSearch() {
+        // Arrange
+        Artist searchedArtist = new Artist("Test Artist", "mbid", 2000, 8000);
+        ArrayList<Artist> searchResults = new ArrayList<>();
+        searchResults.add(searchedArtist);
+
+        // The details are saved while the search is waiting for Last.fm
+        lenient().when(lastFmAPIService.getArtists(any(), eq("artist.search"), eq("merge"), any()))
+            .thenAnswer(invocation -> {
+                artistService.updateFile("artist.json", Artist.class, artists -> {
+                    artists.get(0).setBio("Stored bio");
+                    artists.get(0).setTicketmasterId("K8vZ9171");
+                    artists.get(0).setLastRefreshedAt(1000);
+                });
+                return searchResults;
+            });
+
+        // Act
+        artistService.searchArtistByKey("merge");
+
+        // Assert
+        assertEquals(1, testArtists.size(), "The searched artist should not be added again");
+        Artist stored = testArtists.get(0);
+        assertEquals("Stored bio", stored.getBio(), "The saved bio should be kept");
+        assertEquals("K8vZ9171", stored.getTicketmasterId(), "The saved Ticketmaster ID should be kept");
+        assertEquals(1000, stored.getLastRefreshedAt(), "The refresh time should be kept");
+        assertEquals(2000, stored.getListeners(), "The searched listeners should be stored");
+        assertEquals("mbid", stored.getMusicBrainzId(), "The searched MusicBrainz ID should be stored");
+    }
+
+    @Test
+    @DisplayName("Should suggest artists without storing them and enrich only the opened one")
+    public void shouldEnrichOnlyOpenedSuggestion() {
+        // Arrange
+        Artist suggested = new Artist("New Artist", "mbid", 10, 20);
+        Artist enriched = new Artist("New Artist", "mbid", "spotifyId", "url", "picture", 10, 20);
+        ArrayList<Artist> suggestions = new ArrayList<>();
+        suggestions.add(suggested);
+        suggestions.add(new Artist("Other Artist", 5, 5));
+
+        lenient().when(lastFmAPIService.suggestArtists("new", 8)).thenReturn(suggestions);
+        lenient().when(lastFmAPIService.enrichArtist(suggested)).thenReturn(enriched);
+
+        // Act
+        ArrayList<Artist> results = artistService.suggestArtists("new", 8);
+        artistService.saveSuggestedArtist(results.get(0));
+        artistService.saveSuggestedArtist(testArtist);
+
+        // Assert
+        assertEquals(2, results.size(), "Should return the suggestions");
+        verify(artistService, times(1)).writeToFile(anyString(), any());
+        verify(lastFmAPIService, never()).getArtists(any(), anyString(), anyString(), any());
+        verify(lastFmAPIService, never()).enrichArtist(testArtist);
+        assertEquals(2, testArtists.size(), "Only the opened artist should be stored");
+        assertEquals("picture", testArtists.get(1).getProfilePicture());
+    }
+
     @Test
     @DisplayName("Should get favorite artists for logged-in user")
     public void shouldGetFavoriteArtists_whenUserIsLoggedIn() {
@@ -1,8 +1,10 @@
 package fi.tuni.concertify.services;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -13,17 +15,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 
+import fi.tuni.concertify.models.Artist;
 import fi.tuni.concertify.models.Event;
+import fi.tuni.concertify.models.SearchedLocation;
 import fi.tuni.concertify.models.User;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +51,9 @@ class EventServiceTest {
     private Event mockEvent;
     private JsonArray mockEvents;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     public void setUp() {
         eventService = spy(new EventService());
@@ -69,6 +82,8 @@ class EventServiceTest {
         // Set mocked services
         eventService.setUserService(userService);
         eventService.setTicketMasterAPIService(ticketMasterAPIService);
+        eventService.setEventStore(new EventStore(
+            tempDir.resolve("event.json").toString(), tempDir.resolve("event_queries.json").toString()));
     }
 
     @Test
@@ -88,6 +103,50 @@ class EventServiceTest {
         assertTrue(events.get(0).getArtistNames().contains(artistName));
     }
 
+    @Test
+    @DisplayName("Should use the events found by the artist ID when it resolves in time")
+    void testGetEventsByArtistResolvesId() {
+        Artist artist = new Artist("Artist 1", "mbid-1", 100, 1000);
+        ArrayList<Event> idEvents = new ArrayList<>(List.of(mockEvent));
+        JsonArray idResults = new JsonArray();
+        idResults.add("tm1234");
+        stubArtists(artist);
+
+        doReturn(createAttractions("tm-artist-1", "mbid-1")).when(ticketMasterAPIService).searchArtists("Artist 1");
+        doReturn(mockEvents).when(ticketMasterAPIService).searchEvents("Artist 1", "", "", "");
+        doReturn(idResults).when(ticketMasterAPIService).searchEvents("", "tm-artist-1", "", "");
+        doReturn(new ArrayList<>()).when(ticketMasterAPIService).getEvents(mockEvents);
+        doReturn(idEvents).when(ticketMasterAPIService).getEvents(idResults);
+
+        ArrayList<Event> events = eventService.getEventsByArtist("Artist 1");
+
+        assertEquals(idEvents, events);
+        assertEquals("tm-artist-1", artist.getTicketmasterId());
+        assertEquals(EventService.LOOKUP_BY_ID, artist.getEventLookup());
+    }
+
+    @Test
+    @DisplayName("Should use the keyword results when the artist ID lookup misses the deadline")
+    void testGetEventsByArtistFallsBackToKeyword() {
+        Artist artist = new Artist("Artist 1", "mbid-1", 100, 1000);
+        ArrayList<Event> keywordEvents = new ArrayList<>(List.of(mockEvent));
+        stubArtists(artist);
+
+        doAnswer(invocation -> {
+            Thread.sleep(500);
+            return new JsonArray();
+        }).when(ticketMasterAPIService).searchArtists("Artist 1");
+        doReturn(mockEvents).when(ticketMasterAPIService).searchEvents("Artist 1", "", "", "");
+        doReturn(keywordEvents).when(ticketMasterAPIService).getEvents(mockEvents);
+
+        System.setProperty("concertify.artist.id.deadline.ms", "50");
+        try {
+            assertEquals(keywordEvents, eventService.getEventsByArtist("Artist 1"));
+        } finally {
+            System.clearProperty("concertify.artist.id.deadline.ms");
+        }
+    }
+
     @Test
     @DisplayName("Should retrieve events when searching by location")
     void testGetEventsByLocation() {
@@ -114,10 +173,81 @@ class EventServiceTest {
         
         eventService.addEventToFavorite(mockEvent);
 
-        assertTrue(testUser.getFavoriteEvents().contains(mockEvent));
+        assertTrue(testUser.getFavoriteEventIds().contains(mockEvent.getTicketmasterID()));
+        assertTrue(eventService.getFavoriteEvents().contains(mockEvent));
         verify(userService).updateCurrentUser(testUser);
     }
 
+    @Test
+    @DisplayName("Should serve repeated searches from the event store")
+    void testGetEventsByLocationCached() {
+        ArrayList<Event> expectedEvents = new ArrayList<>();
+        expectedEvents.add(mockEvent);
+
+        doReturn(mockEvents).when(ticketMasterAPIService).searchEvents(anyString(), anyString(), anyString(), anyString());
+        doReturn(expectedEvents).when(ticketMasterAPIService).getEvents(any(JsonArray.class));
+
+        eventService.getEventsByLocation("FI", "Tampere");
+        ArrayList<Event> events = eventService.getEventsByLocation("FI", "tampere");
+
+        assertEquals(expectedEvents, events);
+        verify(ticketMasterAPIService, times(1)).searchEvents(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should return the same events whether or not the search is cached")
+    void testGetEventsByLocationSkipsEventsWithoutId() {
+        Event eventWithoutId = new Event(null, "No ID", null, null, new Date(), "UTC", "Venue", "City", "Country",
+            0, 0, new ArrayList<>());
+        ArrayList<Event> fetchedEvents = new ArrayList<>(List.of(mockEvent, eventWithoutId));
+
+        doReturn(mockEvents).when(ticketMasterAPIService).searchEvents(anyString(), anyString(), anyString(), anyString());
+        doReturn(fetchedEvents).when(ticketMasterAPIService).getEvents(any(JsonArray.class));
+
+        ArrayList<Event> fetched = eventService.getEventsByLocation("FI", "Tampere");
+        ArrayList<Event> cached = eventService.getEventsByLocation("FI", "Tampere");
+
+        assertEquals(List.of(mockEvent), fetched);
+        assertEquals(fetched, cached);
+    }
+
+    @Test
+    @DisplayName("Should convert legacy searched locations into structured locations")
+    void testGetRecentLocationsMigratesLegacyStrings() {
+        testUser.getRecentlySearchedLocations().addAll(List.of(
+            "City: Helsinki, Country: Finland", "City: Tampere", "Country: Sweden"));
+        doReturn(testUser).when(userService).getCurrentUser();
+
+        ArrayList<SearchedLocation> locations = eventService.getRecentLocations();
+
+        assertEquals(3, locations.size());
+        assertEquals("Helsinki", locations.get(0).getCity());
+        assertEquals("FI", locations.get(0).getCountryCode());
+        assertEquals("", locations.get(1).getCountryCode());
+        assertEquals("SE", locations.get(2).getCountryCode());
+        assertEquals("City: Helsinki, Country: Finland", locations.get(0).getLabel());
+        assertTrue(testUser.getRecentlySearchedLocations().isEmpty());
+        verify(userService).updateCurrentUser(testUser);
+    }
+
+    @Test
+    @DisplayName("Should prefetch events of recently searched locations")
+    void testPrefetchRecentLocations() throws Exception {
+        ArrayList<Event> expectedEvents = new ArrayList<>();
+        expectedEvents.add(mockEvent);
+        testUser.getRecentLocations().add(new SearchedLocation("Tampere", "Finland", "FI"));
+
+        doReturn(testUser).when(userService).getCurrentUser();
+        doReturn(mockEvents).when(ticketMasterAPIService).searchEvents(anyString(), anyString(), anyString(), anyString());
+        doReturn(expectedEvents).when(ticketMasterAPIService).getEvents(any(JsonArray.class));
+
+        eventService.prefetchRecentLocations().get(5, TimeUnit.SECONDS);
+        ArrayList<Event> events = eventService.getEventsByLocation("FI", "Tampere");
+
+        assertEquals(expectedEvents, events);
+        verify(ticketMasterAPIService, times(1)).searchEvents(anyString(), anyString(), anyString(), anyString());
+    }
+
     @Test
     @DisplayName("Should retrieve favorite events for logged-in user")
     void testGetFavoriteEvents() {
@@ -140,4 +270,26 @@ class EventServiceTest {
             () -> eventService.getFavoriteEvents());
         assertEquals("User is not logged in", exception.getMessage());
     }
+
+    private void stubArtists(Artist artist) {
+        doReturn(new ArrayList<>(List.of(artist))).when(eventService).readFromFile(anyString(), eq(Artist.class));
+        lenient().doAnswer(invocation -> null).when(eventService).updateFile(anyString(), eq(Artist.class), any());
+    }
+
+    private JsonArray createAttractions(String id, String musicBrainzId) {
+        JsonObject musicBrainz = new JsonObject();
+        musicBrainz.addProperty("id", musicBrainzId);
+        JsonArray musicBrainzLinks = new JsonArray();
+        musicBrainzLinks.add(musicBrainz);
+        JsonObject externalLinks = new JsonObject();
+        externalLinks.add("musicbrainz", musicBrainzLinks);
+
+        JsonObject attraction = new JsonObject();
+        attraction.addProperty("id", id);
+        attraction.add("externalLinks", externalLinks);
+
+        JsonArray attractions = new JsonArray();
+        attractions.add(attraction);
+        return attractions;
+    }
 }
\ No newline at end of file
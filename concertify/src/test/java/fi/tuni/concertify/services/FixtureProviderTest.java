@@ -0,0 +1,61 @@
+package fi.tuni.concertify.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.google.gson.JsonArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fi.tuni.concertify.models.Artist;
+import fi.tuni.concertify.models.Event;
+import fi.tuni.concertify.models.Track;
+
+class FixtureProviderTest {
+
+    private static final String FIXTURE_DIR = "./fixtures";
+
+    @Test
+    @DisplayName("Should serve artists, charts and events from the fixture files")
+    public void shouldServeFixtureData() {
+        FixtureProvider provider = new FixtureProvider(FIXTURE_DIR, 0, 0, 0, 1);
+        ArrayList<Artist> storedArtists = new ArrayList<>();
+
+        ArrayList<Artist> artists = provider.getArtists(storedArtists, "artist.search", "night", null);
+        assertEquals(1, artists.size());
+        assertEquals("Nightwish", artists.get(0).getName());
+        assertEquals("2NPduAUeLVsfIauhRwuft1", artists.get(0).getSpotifyId());
+        assertEquals(1, storedArtists.size());
+
+        ArrayList<Track> tracks = provider.getTopChartTracks("listeners", "Finland");
+        assertEquals(List.of("Nemo", "Yellow", "Hollywood Hills"),
+            tracks.stream().map(Track::getName).collect(Collectors.toList()));
+
+        JsonArray events = provider.searchEvents("", "K8vZ9171oZ0", "FI", "Tampere");
+        ArrayList<Event> parsedEvents = provider.getEvents(events);
+        assertEquals(1, parsedEvents.size());
+        assertEquals("Tampere", parsedEvents.get(0).getCity());
+    }
+
+    @Test
+    @DisplayName("Should fail like the HTTP services and wait for the configured latency")
+    public void shouldInjectFailuresAndLatency() {
+        FixtureProvider failing = new FixtureProvider(FIXTURE_DIR, 0, 0, 1, 1);
+
+        assertTrue(failing.getChartEntries("artists", null).isEmpty());
+        assertNull(failing.searchEvents("Coldplay", "", "", ""));
+        assertNull(failing.getSpotifyId("a74b1b7f-71a5-4011-9441-d0b5e4122711"));
+        assertThrows(IllegalStateException.class, () -> failing.getArtistInfo("Radiohead"));
+
+        FixtureProvider slow = new FixtureProvider(FIXTURE_DIR, 50, 0, 0, 1);
+        long start = System.nanoTime();
+        assertEquals("4Z8W4fKeB5YxbusRsdQVPb", slow.getSpotifyId("a74b1b7f-71a5-4011-9441-d0b5e4122711"));
+        assertTrue(System.nanoTime() - start >= 50_000_000L, "The call should take at least the latency");
+    }
+}
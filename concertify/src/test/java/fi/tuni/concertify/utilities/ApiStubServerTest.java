@@ -0,0 +1,89 @@
+package fi.tuni.concertify.utilities;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fi.tuni.concertify.utilities.ApiStubServer.LatencyDistribution;
+
+class ApiStubServerTest {
+
+    private static final String LASTFM_BASE = "https://ws.audioscrobbler.com/2.0/";
+    private static final String BODY = "{\"artist\":{\"name\":\"Radiohead\"}}";
+
+    @TempDir
+    Path recordingDir;
+
+    @Test
+    @DisplayName("Should replay a recorded response without the API key")
+    public void shouldReplayRecordedResponse() throws IOException {
+        HttpRecorder.record(recordingDir, "lastfm", LASTFM_BASE,
+            LASTFM_BASE + "?method=artist.getInfo&artist=Radiohead&limit=1&api_key=secret&format=json", BODY);
+
+        try (Stream<Path> files = Files.walk(recordingDir)) {
+            String recordings = files.filter(Files::isRegularFile)
+                .map(this::readFile)
+                .collect(Collectors.joining());
+            assertFalse(recordings.contains("secret"), "The API key should not be recorded");
+        }
+
+        ApiStubServer stub = new ApiStubServer(0, recordingDir,
+            Map.of("lastfm", LatencyDistribution.parse("fixed:0")), 1);
+        stub.start();
+
+        try {
+            String baseUrl = stub.getBaseUrl() + "lastfm/";
+            assertEquals(BODY, get(baseUrl + "?method=artist.getInfo&artist=Radiohead&limit=1&api_key=other&format=json"));
+            assertThrows(IOException.class, () -> get(baseUrl + "?method=artist.getInfo&artist=Unknown&limit=1"));
+        } finally {
+            stub.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should draw latencies from the configured distribution")
+    public void shouldSampleLatencies() {
+        Random random = new Random(1);
+
+        assertEquals(40, LatencyDistribution.parse("40").sample(random));
+        for (int i = 0; i < 100; i++) {
+            long uniform = LatencyDistribution.parse("uniform:20-200").sample(random);
+            assertTrue(uniform >= 20 && uniform <= 200, "Uniform latency out of range: " + uniform);
+            assertTrue(LatencyDistribution.parse("lognormal:80,0.5").sample(random) >= 0);
+        }
+        assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("gamma:1,2"));
+    }
+
+    private String get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try (InputStream input = connection.getInputStream()) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private String readFile(Path file) {
+        try {
+            return Files.readString(file);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fi.tuni.concertify.models.Artist;
+
+class ArtistNameIndexTest {
+
+    private ArtistNameIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ArtistNameIndex();
+        index.load(List.of(
+            new Artist("Beyoncé", 5000, 100000),
+            new Artist("The Weeknd", 9000, 200000),
+            new Artist("Rihanna", 8000, 150000),
+            new Artist("Rina Sawayama", 1000, 20000),
+            new Artist("Sigur Rós", 2000, 30000)));
+    }
+
+    @Test
+    @DisplayName("Should match names case- and diacritic-insensitively")
+    public void shouldMatchIgnoringCaseAndDiacritics() {
+        assertEquals("Beyoncé", index.search("BEYONCE", 5).get(0).getName());
+        assertEquals("Sigur Rós", index.search("sigur ros", 5).get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should match prefixes of any word in the name")
+    public void shouldMatchWordPrefixes() {
+        List<Artist> results = index.search("week", 5);
+
+        assertEquals(1, results.size(), "Should find one artist");
+        assertEquals("The Weeknd", results.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should rank name prefixes by listeners")
+    public void shouldRankPrefixMatchesByListeners() {
+        List<Artist> results = index.search("ri", 5);
+
+        assertEquals(2, results.size(), "Should find two artists");
+        assertEquals("Rihanna", results.get(0).getName(), "More listeners should rank first");
+        assertEquals("Rina Sawayama", results.get(1).getName());
+    }
+
+    @Test
+    @DisplayName("Should tolerate typos within the edit distance bound")
+    public void shouldMatchWithTypos() {
+        assertEquals("Rihanna", index.search("rihana", 5).get(0).getName());
+        assertEquals("The Weeknd", index.search("weekend", 5).get(0).getName());
+        assertTrue(index.search("xyzzy", 5).isEmpty(), "Unrelated text should not match");
+    }
+
+    @Test
+    @DisplayName("Should update incrementally when artists are added")
+    public void shouldAddArtistsIncrementally() {
+        index.addAll(List.of(new Artist("Rival Sons", 9500, 10000), new Artist("Rihanna", 100, 100)));
+
+        List<Artist> results = index.search("ri", 5);
+
+        assertEquals(3, results.size(), "Existing artists should not be duplicated");
+        assertEquals("Rival Sons", results.get(0).getName());
+        assertEquals(100, results.get(2).getListeners(), "Existing artist should be replaced");
+    }
+
+    @Test
+    @DisplayName("Should compute bounded prefix edit distance")
+    public void shouldComputePrefixDistance() {
+        assertEquals(0, ArtistNameIndex.prefixDistance("wee", "weeknd", 2));
+        assertEquals(1, ArtistNameIndex.prefixDistance("weke", "weeknd", 2));
+        assertEquals(3, ArtistNameIndex.prefixDistance("abc", "xyz", 2), "Distance above the bound");
+    }
+}
@@ -0,0 +1,55 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BackgroundExecutorTest {
+
+    @Test
+    @DisplayName("Should process every item with bounded parallelism")
+    public void shouldProcessItemsWithBoundedParallelism() throws Exception {
+        List<Integer> items = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        BackgroundExecutor.forEachBounded(items, 2, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            processed.add(item);
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(20, processed.size());
+        assertTrue(maxRunning.get() <= 2, "At most two items should be processed at the same time");
+    }
+
+    @Test
+    @DisplayName("Should continue with other items when one item fails")
+    public void shouldContinueAfterFailure() throws Exception {
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+
+        BackgroundExecutor.forEachBounded(List.of(1, 2, 3), 1, item -> {
+            if (item == 2) {
+                throw new IllegalStateException("Failed item");
+            }
+            processed.add(item);
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Set.of(1, 3), processed);
+    }
+}
@@ -0,0 +1,68 @@
+package fi.tuni.concertify.utilities;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fi.tuni.concertify.models.Event;
+
+class EventTimeIndexTest {
+
+    private EventTimeIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new EventTimeIndex(List.of(
+            createEvent("late-helsinki", "2025-05-31T22:30:00Z", "Europe/Helsinki"),
+            createEvent("early", "2025-05-01T18:00:00Z", "Europe/Helsinki"),
+            createEvent("new-york", "2025-06-01T02:00:00Z", "America/New_York"),
+            createEvent("no-timezone", "2025-06-15T12:00:00Z", null)));
+    }
+
+    @Test
+    @DisplayName("Should return events from an instant in start order")
+    public void shouldReturnEventsInStartOrder() {
+        assertEquals(List.of("late-helsinki", "new-york", "no-timezone"),
+            getIds(index.startingFrom(Instant.parse("2025-05-02T00:00:00Z"))));
+        assertEquals(List.of("early"), getIds(index.startingBefore(Instant.parse("2025-05-31T22:30:00Z"))));
+    }
+
+    @Test
+    @DisplayName("Should bucket events by the local date in their timezone")
+    public void shouldBucketByLocalDate() {
+        assertEquals(List.of("late-helsinki"), getIds(index.onDays(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 1))),
+            "22:30 UTC is already June 1st in Helsinki");
+        assertEquals(List.of("new-york"), getIds(index.onDays(LocalDate.of(2025, 5, 31), LocalDate.of(2025, 5, 31))),
+            "02:00 UTC is still May 31st in New York");
+        assertEquals(2, index.inMonth(YearMonth.of(2025, 5)).size());
+    }
+
+    @Test
+    @DisplayName("Should remove and replace events by id")
+    public void shouldRemoveAndReplaceEvents() {
+        index.removeAll(List.of("early"));
+        index.addAll(List.of(createEvent("new-york", "2025-07-01T20:00:00Z", "America/New_York")));
+
+        assertEquals(3, index.size());
+        assertEquals(List.of("late-helsinki", "no-timezone", "new-york"),
+            getIds(index.startingFrom(Instant.parse("2025-01-01T00:00:00Z"))));
+    }
+
+    private Event createEvent(String id, String start, String timezone) {
+        return new Event(id, id, null, null, Date.from(Instant.parse(start)), timezone, "Venue", "City",
+            "Country", 60.17, 24.94, new ArrayList<>());
+    }
+
+    private List<String> getIds(List<Event> events) {
+        return events.stream().map(Event::getTicketmasterID).collect(Collectors.toList());
+    }
+}
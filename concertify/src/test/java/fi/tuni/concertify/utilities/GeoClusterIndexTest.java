@@ -0,0 +1,56 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fi.tuni.concertify.models.Event;
+import fi.tuni.concertify.utilities.GeoClusterIndex.Cluster;
+
+class GeoClusterIndexTest {
+
+    @Test
+    @DisplayName("Should cluster nearby events when zoomed out and split them when zoomed in")
+    public void shouldClusterByZoom() {
+        GeoClusterIndex index = new GeoClusterIndex(List.of(
+            createEvent("helsinki", 60.1699, 24.9384),
+            createEvent("espoo", 60.2055, 24.6559),
+            createEvent("unknown", 0, 0)));
+
+        assertEquals(2, index.size());
+        assertEquals(1, index.getInvalidCount());
+        assertEquals(1, index.query(3, -90, -180, 90, 180).size());
+        assertEquals(2, index.query(12, 59, 23, 61, 26).size());
+    }
+
+    @Test
+    @DisplayName("Should add events to the clusters already computed")
+    public void shouldAddEvents() {
+        GeoClusterIndex index = new GeoClusterIndex(List.of(createEvent("helsinki", 60.1699, 24.9384)));
+        Cluster before = index.query(3, -90, -180, 90, 180).get(0);
+
+        index.addAll(List.of(
+            createEvent("espoo", 60.2055, 24.6559),
+            createEvent("sydney", -33.8688, 151.2093),
+            createEvent("unknown", 0, 0)));
+
+        List<Cluster> clusters = index.query(3, 0, -180, 90, 180);
+        assertEquals(1, clusters.size());
+        assertEquals(before.getId(), clusters.get(0).getId());
+        assertEquals(2, clusters.get(0).getEvents().size());
+        assertEquals(3, index.size());
+        assertEquals(1, index.getInvalidCount());
+        assertEquals(2, index.query(12, 59, 23, 61, 26).size(), "New zoom levels should include the added events");
+        assertArrayEquals(new double[] { -33.8688, 24.6559, 60.2055, 151.2093 }, index.getBounds());
+    }
+
+    private Event createEvent(String id, double lat, double lon) {
+        return new Event(id, id, null, null, new Date(), "UTC", "Venue", "City", "Country", lat, lon,
+            new ArrayList<>());
+    }
+}
@@ -0,0 +1,74 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fi.tuni.concertify.models.Event;
+
+class GeohashIndexTest {
+
+    private GeohashIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new GeohashIndex(List.of(
+            createEvent("helsinki", 60.1699, 24.9384),
+            createEvent("espoo", 60.2055, 24.6559),
+            createEvent("tampere", 61.4978, 23.7610),
+            createEvent("fiji", -17.7134, 178.0650),
+            createEvent("samoa", -13.8333, -171.7500),
+            createEvent("unknown", 0, 0)));
+    }
+
+    @Test
+    @DisplayName("Should encode coordinates as standard geohashes")
+    public void shouldEncodeGeohash() {
+        assertEquals("ezs42", GeohashIndex.encode(42.605, -5.603, 5));
+        assertEquals("u", GeohashIndex.encode(57.64911, 10.40744, 1));
+    }
+
+    @Test
+    @DisplayName("Should find events within a radius, nearest first")
+    public void shouldFindEventsWithinRadius() {
+        List<String> ids = getIds(index.withinRadius(60.17, 24.94, 30));
+
+        assertEquals(List.of("helsinki", "espoo"), ids);
+        assertEquals(3, index.withinRadius(60.17, 24.94, 200).size(), "Tampere is about 160 km away");
+    }
+
+    @Test
+    @DisplayName("Should find events in a bounding box crossing the antimeridian")
+    public void shouldFindEventsAcrossAntimeridian() {
+        List<String> ids = getIds(index.inBounds(-20, 170, -10, -170));
+
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of("fiji", "samoa")));
+    }
+
+    @Test
+    @DisplayName("Should replace events with the same id and skip invalid coordinates")
+    public void shouldReplaceEvents() {
+        index.addAll(List.of(createEvent("helsinki", 61.4978, 23.7610)));
+
+        assertEquals(5, index.size(), "Event without coordinates should not be indexed");
+        assertEquals(List.of("espoo"), getIds(index.withinRadius(60.17, 24.94, 30)));
+        assertEquals(2, index.inBounds(61, 23, 62, 24).size());
+    }
+
+    private Event createEvent(String id, double lat, double lon) {
+        return new Event(id, id, null, null, new Date(), "UTC", "Venue", "City", "Country", lat, lon,
+            new ArrayList<>());
+    }
+
+    private List<String> getIds(List<Event> events) {
+        return events.stream().map(Event::getTicketmasterID).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,66 @@
+package fi.tuni.concertify.utilities;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OfflineModeTest {
+
+    @AfterEach
+    public void tearDown() {
+        OfflineMode.setManual(false);
+        OfflineMode.reset();
+    }
+
+    @Test
+    @DisplayName("Should only treat unreachable networks as offline")
+    public void shouldDetectNetworkFailures() {
+        assertTrue(OfflineMode.isNetworkFailure(new UnknownHostException("ws.audioscrobbler.com")));
+        assertTrue(OfflineMode.isNetworkFailure(new ConnectException("Connection refused")));
+        assertFalse(OfflineMode.isNetworkFailure(new IOException("Response code: 500")));
+        assertFalse(OfflineMode.isNetworkFailure(new OfflineMode.OfflineException()));
+    }
+
+    @Test
+    @DisplayName("Should refuse requests and defer work until back online")
+    public void shouldDeferWorkWhileOffline() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+
+        OfflineMode.setManual(true);
+        assertThrows(OfflineMode.OfflineException.class, () -> OfflineMode.checkOnline("ws.audioscrobbler.com"));
+
+        OfflineMode.runWhenOnline(ran::countDown);
+        assertEquals(1, OfflineMode.getDeferredCount());
+
+        OfflineMode.setManual(false);
+        assertTrue(ran.await(5, TimeUnit.SECONDS), "Deferred work should run once online");
+        assertEquals(0, OfflineMode.getDeferredCount());
+    }
+
+    @Test
+    @DisplayName("Should keep using reachable hosts and only go offline when no host is reachable")
+    public void shouldTrackReachabilityPerHost() throws OfflineMode.OfflineException {
+        OfflineMode.checkOnline("musicbrainz.invalid");
+        OfflineMode.checkOnline("ticketmaster.invalid");
+
+        OfflineMode.reportFailure("musicbrainz.invalid", new ConnectException("Connection refused"));
+
+        assertFalse(OfflineMode.isOffline(), "One unreachable host should not take the app offline");
+        assertThrows(OfflineMode.OfflineException.class, () -> OfflineMode.checkOnline("musicbrainz.invalid"));
+        OfflineMode.checkOnline("ticketmaster.invalid");
+
+        OfflineMode.reportFailure("ticketmaster.invalid", new UnknownHostException("ticketmaster.invalid"));
+
+        assertTrue(OfflineMode.isOffline(), "The app should be offline when no host is reachable");
+    }
+}
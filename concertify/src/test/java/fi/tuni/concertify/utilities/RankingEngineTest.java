@@ -0,0 +1,57 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fi.tuni.concertify.models.ChartEntry;
+
+class RankingEngineTest {
+
+    @Test
+    @DisplayName("Should return the indices of the highest values in order")
+    public void shouldReturnTopIndices() {
+        long[] values = { 5, 1, 9, 3, 9, 7 };
+
+        assertArrayEquals(new int[] { 2, 4, 5 }, RankingEngine.topIndices(values, 3),
+                "Equal values should keep their original order");
+        assertArrayEquals(new int[] { 2, 4, 5, 0, 3, 1 }, RankingEngine.topIndices(values, 10));
+        assertEquals(0, RankingEngine.topIndices(values, 0).length);
+    }
+
+    @Test
+    @DisplayName("Should select the same entries as a full sort")
+    public void shouldMatchFullSort() {
+        Random random = new Random(42);
+        List<ChartEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            entries.add(new ChartEntry("Artist " + i, random.nextInt(1000), random.nextInt(1000)));
+        }
+
+        List<ChartEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(ChartEntry::getPlayCount).reversed());
+
+        assertEquals(sorted.subList(0, 10), RankingEngine.topK(entries, "playcount", 10));
+    }
+
+    @Test
+    @DisplayName("Should merge rankings by summing the values of the same entry")
+    public void shouldMergeRankings() {
+        List<ChartEntry> finland = List.of(new ChartEntry("A", 100, 10), new ChartEntry("B", 80, 8));
+        List<ChartEntry> sweden = List.of(new ChartEntry("C", 150, 15), new ChartEntry("B", 90, 9));
+
+        List<ChartEntry> merged = RankingEngine.merge(List.of(finland, sweden), "listeners", 2);
+
+        assertEquals(2, merged.size());
+        assertEquals("B", merged.get(0).getName(), "Entry in both rankings should rank first");
+        assertEquals(170, merged.get(0).getListeners());
+        assertEquals(17, merged.get(0).getPlayCount());
+        assertEquals("C", merged.get(1).getName());
+    }
+}
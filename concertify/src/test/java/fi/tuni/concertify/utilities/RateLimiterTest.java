@@ -0,0 +1,60 @@
+package fi.tuni.concertify.utilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+    @Test
+    @DisplayName("Should allow a burst up to the capacity without waiting")
+    public void shouldAllowBurst() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(10, 5);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 50, "Burst should not wait, waited " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Should limit the rate once the burst is used")
+    public void shouldLimitRate() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(20, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 150, "Four permits at 20/s should take 200 ms, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("Should share one limiter per host")
+    public void shouldShareLimiterPerHost() {
+        assertSame(RateLimiter.forHost("ws.audioscrobbler.com"), RateLimiter.forHost("ws.audioscrobbler.com"));
+    }
+
+    @Test
+    @DisplayName("Should use the rate of the API served by the host")
+    public void shouldUseRateOfApi() {
+        assertEquals(1, RateLimiter.getRate("musicbrainz.org"), "MusicBrainz allows one request per second");
+        assertEquals(5, RateLimiter.getRate("ws.audioscrobbler.com"));
+        assertEquals(5, RateLimiter.getRate("localhost"), "Other hosts should use the general rate");
+
+        System.setProperty("concertify.rate.limit.musicbrainz", "0.5");
+        try {
+            assertEquals(0.5, RateLimiter.getRate("musicbrainz.org"), "The rate of an API should be configurable");
+            assertEquals(5, RateLimiter.getRate("app.ticketmaster.com"));
+        } finally {
+            System.clearProperty("concertify.rate.limit.musicbrainz");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import fi.tuni.concertify.utilities.RequestScheduler.Priority;
+
+class RequestSchedulerTest {
+
+    private static final String HOST = "api.example.com";
+
+    @Test
+    @DisplayName("Should let a queued interactive request overtake queued background requests")
+    public void shouldPreemptQueuedLowPriorityRequests() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, host -> new RateLimiter(1000, 1000));
+        List<Priority> admitted = Collections.synchronizedList(new ArrayList<>());
+
+        RequestScheduler.Slot running = scheduler.acquire(HOST);
+        CompletableFuture<Void> background = request(scheduler, Priority.BACKGROUND, admitted);
+        waitUntil(() -> scheduler.getMetrics(Priority.BACKGROUND).getQueued() == 1);
+        CompletableFuture<Void> interactive = request(scheduler, Priority.INTERACTIVE, admitted);
+        waitUntil(() -> scheduler.getMetrics(Priority.INTERACTIVE).getQueued() == 1);
+
+        running.close();
+        CompletableFuture.allOf(background, interactive).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(Priority.INTERACTIVE, Priority.BACKGROUND), admitted);
+        assertEquals(1, scheduler.getMetrics(Priority.BACKGROUND).getPreempted());
+        assertEquals(2, scheduler.getMetrics(Priority.INTERACTIVE).getRequests());
+    }
+
+    @Test
+    @DisplayName("Should keep background requests in their bulkhead")
+    public void shouldLimitBackgroundRequests() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(4, host -> new RateLimiter(1000, 1000));
+        List<Priority> admitted = Collections.synchronizedList(new ArrayList<>());
+
+        RequestScheduler.Slot running = RequestScheduler.withPriority(Priority.BACKGROUND, () -> {
+            try {
+                return scheduler.acquire(HOST);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        CompletableFuture<Void> background = request(scheduler, Priority.BACKGROUND, admitted);
+        waitUntil(() -> scheduler.getMetrics(Priority.BACKGROUND).getQueued() == 1);
+
+        scheduler.acquire(HOST).close();
+        assertFalse(background.isDone(), "A second background request should wait for the first");
+
+        running.close();
+        background.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(Priority.BACKGROUND), admitted);
+    }
+
+    @Test
+    @DisplayName("Should keep the priority of the submitter in background tasks")
+    public void shouldPropagatePriorityToBackgroundTasks() {
+        Priority priority = RequestScheduler.withPriority(Priority.PREFETCH,
+            () -> BackgroundExecutor.submit(RequestScheduler::getPriority)).join();
+
+        assertEquals(Priority.PREFETCH, priority);
+        assertEquals(Priority.INTERACTIVE, RequestScheduler.getPriority());
+    }
+
+    private CompletableFuture<Void> request(RequestScheduler scheduler, Priority priority, List<Priority> admitted) {
+        return CompletableFuture.runAsync(() -> RequestScheduler.runWithPriority(priority, () -> {
+            try (RequestScheduler.Slot slot = scheduler.acquire(HOST)) {
+                admitted.add(priority);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), BackgroundExecutor.getExecutor());
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not reached in time");
+            Thread.sleep(10);
+        }
+    }
+}
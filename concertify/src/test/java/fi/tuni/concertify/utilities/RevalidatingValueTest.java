@@ -0,0 +1,67 @@
+package fi.tuni.concertify.utilities;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RevalidatingValueTest {
+
+    @Test
+    @DisplayName("Should serve a fresh cached value without fetching")
+    public void shouldServeFreshValue() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+
+        RevalidatingValue<String> value = RevalidatingValue.of("cached", System.currentTimeMillis(), 60000,
+            () -> "fetched" + fetches.incrementAndGet());
+
+        assertEquals("cached", value.get());
+        assertFalse(value.isRefreshing());
+        assertEquals("cached", value.getCompletion().get(5, TimeUnit.SECONDS));
+        assertEquals(0, fetches.get());
+    }
+
+    @Test
+    @DisplayName("Should serve a stale value immediately and replace it when refreshed")
+    public void shouldRevalidateStaleValue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        long staleFetchedAt = System.currentTimeMillis() - 2 * 60 * 60 * 1000;
+
+        RevalidatingValue<String> value = RevalidatingValue.of("stale", staleFetchedAt, 60000, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "fresh";
+        });
+
+        assertEquals("stale", value.get(), "The stale value should be served without waiting");
+        assertTrue(value.isRefreshing());
+        assertEquals("2 h ago", value.describeAge());
+
+        release.countDown();
+
+        assertEquals("fresh", value.getCompletion().get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", value.get());
+        assertFalse(value.isRefreshing());
+        assertTrue(value.getAgeMillis() < 60000);
+    }
+
+    @Test
+    @DisplayName("Should keep the cached value when the refresh fails")
+    public void shouldKeepValueWhenRefreshFails() throws Exception {
+        RevalidatingValue<String> value = RevalidatingValue.of("stale", 0, 60000, () -> {
+            throw new IllegalStateException("Refresh failed");
+        });
+
+        assertEquals("stale", value.getCompletion().get(5, TimeUnit.SECONDS));
+        assertEquals("stale", value.get());
+        assertEquals(0, value.getFetchedAt());
+    }
+}